@@ -23,6 +23,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOutboundHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.EventExecutorGroup;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.handler.network.AcknowledgementHandler;
@@ -42,9 +43,11 @@ public abstract class BasePipelineFactory extends ChannelInitializer<Channel> {
     private final Config config;
     private final String protocol;
     private final int timeout;
+    private final EventExecutorGroup decoderGroup;
 
     public BasePipelineFactory(TrackerConnector connector, Config config, String protocol) {
         this.injector = Main.getInjector();
+        decoderGroup = injector.getInstance(EventLoopGroupFactory.class).getDecoderGroup();
         this.connector = connector;
         this.config = config;
         this.protocol = protocol;
@@ -112,7 +115,11 @@ public abstract class BasePipelineFactory extends ChannelInitializer<Channel> {
                     handler = new WrapperOutboundHandler(channelHandler);
                 }
             }
-            pipeline.addLast(handler);
+            if (handler instanceof BaseProtocolDecoder && decoderGroup != null) {
+                pipeline.addLast(decoderGroup, handler);
+            } else {
+                pipeline.addLast(handler);
+            }
         });
 
         pipeline.addLast(injector.getInstance(RemoteAddressHandler.class));
@@ -159,7 +159,7 @@ public abstract class BaseProtocolDecoder extends ExtendedObjectDecoder {
     protected void onMessageEvent(
             Channel channel, SocketAddress remoteAddress, Object originalMessage, Object decodedMessage) {
         if (statisticsManager != null) {
-            statisticsManager.registerMessageReceived();
+            statisticsManager.registerMessageReceived(getProtocolName());
         }
         Set<Long> deviceIds = new HashSet<>();
         if (decodedMessage != null) {
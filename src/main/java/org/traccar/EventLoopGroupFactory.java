@@ -18,6 +18,9 @@ package org.traccar;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.MultiThreadIoEventLoopGroup;
 import io.netty.channel.nio.NioIoHandler;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutorGroup;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.traccar.config.Config;
@@ -28,6 +31,7 @@ public class EventLoopGroupFactory {
 
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
+    private final EventExecutorGroup decoderGroup;
 
     @Inject
     public EventLoopGroupFactory(Config config) {
@@ -36,6 +40,12 @@ public class EventLoopGroupFactory {
                 config.getInteger(Keys.SERVER_NETTY_BOSS_THREADS), ioHandlerFactory);
         workerGroup = new MultiThreadIoEventLoopGroup(
                 config.getInteger(Keys.SERVER_NETTY_WORKER_THREADS), ioHandlerFactory);
+        int decoderThreads = config.getInteger(Keys.SERVER_DECODER_THREADS);
+        if (decoderThreads > 0) {
+            decoderGroup = new DefaultEventExecutorGroup(decoderThreads, new DefaultThreadFactory("decoder", true));
+        } else {
+            decoderGroup = null;
+        }
     }
 
     public EventLoopGroup getBossGroup() {
@@ -46,4 +56,11 @@ public class EventLoopGroupFactory {
         return workerGroup;
     }
 
+    /**
+     * Executors for protocol decoders, or null if decoders run on worker threads.
+     */
+    public EventExecutorGroup getDecoderGroup() {
+        return decoderGroup;
+    }
+
 }
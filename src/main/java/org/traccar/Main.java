@@ -21,6 +21,10 @@ import com.google.inject.ProvisionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.broadcast.BroadcastService;
+import org.traccar.database.DeviceStateWriter;
+import org.traccar.database.PositionBatchWriter;
+import org.traccar.forward.ForwardSpoolManager;
+import org.traccar.journal.TrafficJournal;
 import org.traccar.schedule.ScheduleManager;
 import org.traccar.storage.DatabaseModule;
 import org.traccar.web.WebModule;
@@ -121,7 +125,8 @@ public final class Main {
 
             var services = new ArrayList<LifecycleObject>();
             for (var clazz : List.of(
-                    ScheduleManager.class, ServerManager.class, WebServer.class, BroadcastService.class)) {
+                    PositionBatchWriter.class, DeviceStateWriter.class, TrafficJournal.class, ScheduleManager.class,
+                    ServerManager.class, WebServer.class, BroadcastService.class, ForwardSpoolManager.class)) {
                 var service = injector.getInstance(clazz);
                 if (service != null) {
                     service.start();
@@ -35,7 +35,9 @@ import org.traccar.broadcast.NullBroadcastService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.LdapProvider;
+import org.traccar.database.MetricsManager;
 import org.traccar.database.OpenIdProvider;
+import org.traccar.database.PositionBatchWriter;
 import org.traccar.database.StatisticsManager;
 import org.traccar.forward.EventForwarder;
 import org.traccar.forward.EventForwarderJson;
@@ -141,6 +143,16 @@ public class MainModule extends AbstractModule {
         }
     }
 
+    @Singleton
+    @Provides
+    public static PositionBatchWriter providePositionBatchWriter(
+            Config config, Storage storage, MetricsManager metricsManager) {
+        if (config.getInteger(Keys.DATABASE_BATCH_SIZE) > 0 && !config.getBoolean(Keys.DATABASE_MEMORY)) {
+            return new PositionBatchWriter(config, storage, metricsManager);
+        }
+        return null;
+    }
+
     @Singleton
     @Provides
     public static ObjectMapper provideObjectMapper() {
@@ -329,11 +341,13 @@ public class MainModule extends AbstractModule {
     @Singleton
     @Provides
     public static BroadcastService provideBroadcastService(
-            Config config, ExecutorService executorService, ObjectMapper objectMapper) throws IOException {
+            Config config, ExecutorService executorService, ObjectMapper objectMapper,
+            MetricsManager metricsManager) throws IOException {
         if (config.hasKey(Keys.BROADCAST_TYPE)) {
             return switch (config.getString(Keys.BROADCAST_TYPE)) {
-                case "multicast" -> new MulticastBroadcastService(config, executorService, objectMapper);
-                case "redis" -> new RedisBroadcastService(config, executorService, objectMapper);
+                case "multicast" -> new MulticastBroadcastService(
+                        config, executorService, objectMapper, metricsManager);
+                case "redis" -> new RedisBroadcastService(config, executorService, objectMapper, metricsManager);
                 default -> new NullBroadcastService();
             };
         }
@@ -23,8 +23,10 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.traccar.config.Config;
 import org.traccar.database.BufferingManager;
+import org.traccar.database.MetricsManager;
 import org.traccar.database.NotificationManager;
 import org.traccar.handler.BasePositionHandler;
+import org.traccar.handler.BlockingExecutor;
 import org.traccar.handler.ComputedAttributesHandler;
 import org.traccar.handler.CopyAttributesHandler;
 import org.traccar.handler.DatabaseHandler;
@@ -59,12 +61,15 @@ import org.traccar.helper.PositionLogger;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Singleton
@@ -78,22 +83,51 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
     private final List<BasePositionHandler> positionHandlers;
     private final List<BaseEventHandler> eventHandlers;
     private final PostProcessHandler postProcessHandler;
+    private final BlockingExecutor blockingExecutor;
 
-    private final Map<Long, Queue<Position>> queues = new HashMap<>();
+    private final List<MetricsManager.Histogram> positionHandlerTimes;
+    private final MetricsManager.Histogram postProcessTime;
 
-    private synchronized Queue<Position> getQueue(long deviceId) {
-        return queues.computeIfAbsent(deviceId, k -> new LinkedList<>());
+    private static final int LAGGING_DEVICES = 10;
+
+    private static final long[] HANDLER_TIME_BOUNDS = {
+            10, 50, 100, 500, 1000, 5000, 10000, 50000, 100000, 500000, 1000000}; // microseconds
+
+    /**
+     * Positions waiting for a device. The head is the position currently being processed. Queues are only modified
+     * inside map compute operations, so each device is sequenced independently and empty queues are removed.
+     */
+    private static final class DeviceQueue {
+        private final Queue<Position> positions = new ArrayDeque<>();
+        private volatile int size;
+        private volatile long started;
     }
 
+    private final Map<Long, DeviceQueue> queues = new ConcurrentHashMap<>();
+
     @Inject
     public ProcessingHandler(
             Injector injector, Config config,
-            CacheManager cacheManager, NotificationManager notificationManager, PositionLogger positionLogger) {
+            CacheManager cacheManager, NotificationManager notificationManager, PositionLogger positionLogger,
+            MetricsManager metricsManager, BlockingExecutor blockingExecutor) {
         this.cacheManager = cacheManager;
         this.notificationManager = notificationManager;
         this.positionLogger = positionLogger;
+        this.blockingExecutor = blockingExecutor;
         bufferingManager = new BufferingManager(config, this);
 
+        metricsManager.gauge("processing.devices", queues::size);
+        metricsManager.gauge("processing.backlog", () -> queues.values().stream().mapToLong(q -> q.size).sum());
+        metricsManager.gauge("processing.oldest", () -> {
+            long now = System.currentTimeMillis();
+            return queues.values().stream().mapToLong(q -> now - q.started).max().orElse(0);
+        });
+        metricsManager.gauge("processing.lagging", "deviceId", () -> queues.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().started))
+                .limit(LAGGING_DEVICES)
+                .collect(Collectors.toMap(
+                        entry -> String.valueOf(entry.getKey()), entry -> (long) entry.getValue().size)));
+
         positionHandlers = Stream.of(
                 ComputedAttributesHandler.Early.class,
                 OutdatedHandler.class,
@@ -133,6 +167,44 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
                 .toList();
 
         postProcessHandler = injector.getInstance(PostProcessHandler.class);
+
+        positionHandlerTimes = positionHandlers.stream()
+                .map(handler -> handlerTime(metricsManager, handler))
+                .toList();
+        postProcessTime = handlerTime(metricsManager, postProcessHandler);
+    }
+
+    private static MetricsManager.Histogram handlerTime(MetricsManager metricsManager, BasePositionHandler handler) {
+        Class<?> clazz = handler.getClass();
+        String name = clazz.getName().substring(clazz.getPackageName().length() + 1).replace('$', '.');
+        return metricsManager.histogram("processing.handler." + name + ".micros", HANDLER_TIME_BOUNDS);
+    }
+
+    /**
+     * Run handler and record its time until the callback. Blocking handlers are moved off the event loop when the
+     * blocking executor is enabled.
+     */
+    private void dispatch(
+            BasePositionHandler handler, MetricsManager.Histogram histogram,
+            Position position, BasePositionHandler.Callback callback) {
+        long startTime = System.nanoTime();
+        BasePositionHandler.Callback timedCallback = filtered -> {
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+            callback.processed(filtered);
+        };
+        if (handler.isBlocking() && blockingExecutor.isEnabled()) {
+            blockingExecutor.execute(() -> handler.handlePosition(position, timedCallback));
+        } else {
+            handler.handlePosition(position, timedCallback);
+        }
+    }
+
+    private static void executeOnLoop(ChannelHandlerContext ctx, Runnable task) {
+        if (ctx.executor().inEventLoop()) {
+            task.run();
+        } else {
+            ctx.executor().execute(task);
+        }
     }
 
     @Override
@@ -147,39 +219,39 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
 
     @Override
     public void onReleased(ChannelHandlerContext context, Position position) {
-        Queue<Position> queue = getQueue(position.getDeviceId());
-        boolean queued;
-        synchronized (queue) {
-            queued = !queue.isEmpty();
-            queue.offer(position);
-        }
-        if (!queued) {
+        boolean[] queued = new boolean[1];
+        queues.compute(position.getDeviceId(), (deviceId, queue) -> {
+            if (queue == null) {
+                queue = new DeviceQueue();
+                queue.started = System.currentTimeMillis();
+            }
+            queued[0] = !queue.positions.isEmpty();
+            queue.positions.offer(position);
+            queue.size = queue.positions.size();
+            return queue;
+        });
+        if (!queued[0]) {
             processPositionHandlers(context, position);
         }
     }
 
     private void processPositionHandlers(ChannelHandlerContext ctx, Position position) {
-        var iterator = positionHandlers.iterator();
-        iterator.next().handlePosition(position, new BasePositionHandler.Callback() {
-            @Override
-            public void processed(boolean filtered) {
-                Runnable continuation = () -> {
-                    if (!filtered) {
-                        if (iterator.hasNext()) {
-                            iterator.next().handlePosition(position, this);
-                        } else {
-                            processEventHandlers(ctx, position);
-                        }
+        processPositionHandler(ctx, position, 0);
+    }
+
+    private void processPositionHandler(ChannelHandlerContext ctx, Position position, int index) {
+        dispatch(positionHandlers.get(index), positionHandlerTimes.get(index), position, filtered -> {
+            executeOnLoop(ctx, () -> {
+                if (!filtered) {
+                    if (index + 1 < positionHandlers.size()) {
+                        processPositionHandler(ctx, position, index + 1);
                     } else {
-                        finishedProcessing(ctx, position, true);
+                        processEventHandlers(ctx, position);
                     }
-                };
-                if (ctx.executor().inEventLoop()) {
-                    continuation.run();
                 } else {
-                    ctx.executor().execute(continuation);
+                    finishedProcessing(ctx, position, true);
                 }
-            }
+            });
         });
     }
 
@@ -191,25 +263,32 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
 
     private void finishedProcessing(ChannelHandlerContext ctx, Position position, boolean filtered) {
         if (!filtered) {
-            postProcessHandler.handlePosition(position, ignore -> {
+            dispatch(postProcessHandler, postProcessTime, position, ignore -> {
                 positionLogger.log(ctx, position);
                 ctx.writeAndFlush(new AcknowledgementHandler.EventHandled(position));
                 processNextPosition(ctx, position.getDeviceId());
+                cacheManager.removeDevice(position.getDeviceId(), position);
             });
         } else {
             ctx.writeAndFlush(new AcknowledgementHandler.EventHandled(position));
             processNextPosition(ctx, position.getDeviceId());
+            cacheManager.removeDevice(position.getDeviceId(), position);
         }
-        cacheManager.removeDevice(position.getDeviceId(), position);
     }
 
     private void processNextPosition(ChannelHandlerContext ctx, long deviceId) {
-        Queue<Position> queue = getQueue(deviceId);
-        Position nextPosition;
-        synchronized (queue) {
-            queue.poll(); // remove current position
-            nextPosition = queue.peek();
-        }
+        Position[] next = new Position[1];
+        queues.computeIfPresent(deviceId, (key, queue) -> {
+            queue.positions.poll(); // remove current position
+            next[0] = queue.positions.peek();
+            if (next[0] == null) {
+                return null;
+            }
+            queue.size = queue.positions.size();
+            queue.started = System.currentTimeMillis();
+            return queue;
+        });
+        Position nextPosition = next[0];
         if (nextPosition != null) {
             ctx.executor().execute(() -> processPositionHandlers(ctx, nextPosition));
         }
@@ -18,6 +18,7 @@ package org.traccar.api;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.Timer;
 import org.eclipse.jetty.websocket.api.Callback;
 import org.eclipse.jetty.websocket.api.Session;
 import org.slf4j.Logger;
@@ -28,15 +29,25 @@ import org.traccar.model.Event;
 import org.traccar.model.LogRecord;
 import org.traccar.model.Position;
 import org.traccar.session.ConnectionManager;
+import org.traccar.session.ConnectionManager.Update;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * WebSocket session of a single user. Updates are queued and sent as combined frames, at most one frame in flight.
+ * While a frame is being sent or the batch interval has not passed yet, newer devices and positions replace pending
+ * ones, so slow clients only get the latest state. Events and logs are queued up to a limit.
+ */
 public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionManager.UpdateListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSocket.class);
@@ -46,18 +57,35 @@ public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionMa
     private static final String KEY_EVENTS = "events";
     private static final String KEY_LOGS = "logs";
 
+    private static final int QUEUE_LIMIT = 1000;
+
     private final ObjectMapper objectMapper;
     private final ConnectionManager connectionManager;
+    private final CacheManager cacheManager;
     private final Storage storage;
+    private final Timer timer;
+    private final long batchInterval;
     private final long userId;
 
-    private boolean includeLogs;
-    private Session session;
+    private final Map<Long, Update<Device>> pendingDevices = new LinkedHashMap<>();
+    private final Map<Long, Update<Position>> pendingPositions = new LinkedHashMap<>();
+    private final Deque<Update<Event>> pendingEvents = new ArrayDeque<>();
+    private final Deque<Update<LogRecord>> pendingLogs = new ArrayDeque<>();
+    private boolean sending;
+    private boolean scheduled;
+
+    private volatile boolean includeLogs;
+    private volatile Session session;
 
-    public AsyncSocket(ObjectMapper objectMapper, ConnectionManager connectionManager, Storage storage, long userId) {
+    public AsyncSocket(
+            ObjectMapper objectMapper, ConnectionManager connectionManager, CacheManager cacheManager,
+            Storage storage, Timer timer, long batchInterval, long userId) {
         this.objectMapper = objectMapper;
         this.connectionManager = connectionManager;
+        this.cacheManager = cacheManager;
         this.storage = storage;
+        this.timer = timer;
+        this.batchInterval = batchInterval;
         this.userId = userId;
     }
 
@@ -66,10 +94,13 @@ public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionMa
         this.session = session;
         try {
             Map<String, Collection<?>> data = new HashMap<>();
-            data.put(KEY_POSITIONS, PositionUtil.getLatestPositions(storage, userId));
-            sendData(data);
+            data.put(KEY_POSITIONS, PositionUtil.getLatestPositions(storage, cacheManager, userId));
+            synchronized (this) {
+                sending = true;
+            }
+            send(objectMapper.writeValueAsString(data));
             connectionManager.addListener(userId, this);
-        } catch (StorageException e) {
+        } catch (StorageException | JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
@@ -102,38 +133,139 @@ public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionMa
 
     @Override
     public void onKeepalive() {
-        sendData(new HashMap<>());
+        synchronized (this) {
+            if (sending || scheduled) {
+                return;
+            }
+            sending = true;
+        }
+        send("{}");
     }
 
     @Override
-    public void onUpdateDevice(Device device) {
-        sendData(Map.of(KEY_DEVICES, List.of(device)));
+    public void onUpdateDevice(Update<Device> update) {
+        synchronized (this) {
+            pendingDevices.put(update.getValue().getId(), update);
+        }
+        schedule();
     }
 
     @Override
-    public void onUpdatePosition(Position position) {
-        sendData(Map.of(KEY_POSITIONS, List.of(position)));
+    public void onUpdatePosition(Update<Position> update) {
+        synchronized (this) {
+            pendingPositions.merge(update.getValue().getDeviceId(), update, (pending, latest) -> {
+                var pendingTime = pending.getValue().getFixTime();
+                var latestTime = latest.getValue().getFixTime();
+                return pendingTime != null && latestTime != null && pendingTime.after(latestTime) ? pending : latest;
+            });
+        }
+        schedule();
     }
 
     @Override
-    public void onUpdateEvent(Event event) {
-        sendData(Map.of(KEY_EVENTS, List.of(event)));
+    public void onUpdateEvent(Update<Event> update) {
+        synchronized (this) {
+            enqueue(pendingEvents, update);
+        }
+        schedule();
     }
 
     @Override
-    public void onUpdateLog(LogRecord record) {
+    public void onUpdateLog(Update<LogRecord> update) {
         if (includeLogs) {
-            sendData(Map.of(KEY_LOGS, List.of(record)));
+            synchronized (this) {
+                enqueue(pendingLogs, update);
+            }
+            schedule();
+        }
+    }
+
+    private static <T> void enqueue(Deque<Update<T>> queue, Update<T> update) {
+        if (queue.size() >= QUEUE_LIMIT) {
+            queue.pollFirst();
         }
+        queue.addLast(update);
     }
 
-    private void sendData(Map<String, Collection<?>> data) {
-        if (session != null && session.isOpen()) {
+    private boolean hasPending() {
+        return !pendingDevices.isEmpty() || !pendingPositions.isEmpty()
+                || !pendingEvents.isEmpty() || !pendingLogs.isEmpty();
+    }
+
+    private void schedule() {
+        synchronized (this) {
+            if (sending || scheduled || !hasPending()) {
+                return;
+            }
+            if (batchInterval > 0) {
+                scheduled = true;
+                timer.newTimeout(timeout -> flush(), batchInterval, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+        flush();
+    }
+
+    private void flush() {
+        String text;
+        synchronized (this) {
+            scheduled = false;
+            if (sending || !hasPending()) {
+                return;
+            }
+            StringBuilder builder = new StringBuilder("{");
+            appendUpdates(builder, KEY_DEVICES, pendingDevices.values());
+            appendUpdates(builder, KEY_POSITIONS, pendingPositions.values());
+            appendUpdates(builder, KEY_EVENTS, pendingEvents);
+            appendUpdates(builder, KEY_LOGS, pendingLogs);
+            text = builder.append('}').toString();
+            pendingDevices.clear();
+            pendingPositions.clear();
+            pendingEvents.clear();
+            pendingLogs.clear();
+            sending = true;
+        }
+        send(text);
+    }
+
+    private static void appendUpdates(StringBuilder builder, String key, Collection<? extends Update<?>> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        if (builder.length() > 1) {
+            builder.append(',');
+        }
+        builder.append('"').append(key).append("\":[");
+        boolean first = true;
+        for (Update<?> update : updates) {
             try {
-                session.sendText(objectMapper.writeValueAsString(data), Callback.NOOP);
+                String json = update.getJson();
+                if (!first) {
+                    builder.append(',');
+                }
+                builder.append(json);
+                first = false;
             } catch (JsonProcessingException e) {
                 LOGGER.warn("Socket JSON formatting error", e);
             }
         }
+        builder.append(']');
+    }
+
+    private void send(String text) {
+        Session currentSession = session;
+        if (currentSession != null && currentSession.isOpen()) {
+            currentSession.sendText(text, Callback.from(this::onSent, error -> onSent()));
+        } else {
+            onSent();
+        }
     }
+
+    private void onSent() {
+        synchronized (this) {
+            sending = false;
+        }
+        schedule();
+    }
+
 }
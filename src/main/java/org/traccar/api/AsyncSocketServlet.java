@@ -16,6 +16,7 @@
 package org.traccar.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.Timer;
 import org.eclipse.jetty.ee10.websocket.server.JettyWebSocketServlet;
 import org.eclipse.jetty.ee10.websocket.server.JettyWebSocketServletFactory;
 import org.traccar.api.security.LoginService;
@@ -23,6 +24,7 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.SessionHelper;
 import org.traccar.session.ConnectionManager;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 
 import jakarta.inject.Inject;
@@ -41,18 +43,22 @@ public class AsyncSocketServlet extends JettyWebSocketServlet {
     private final Config config;
     private final ObjectMapper objectMapper;
     private final ConnectionManager connectionManager;
+    private final CacheManager cacheManager;
     private final Storage storage;
     private final LoginService loginService;
+    private final Timer timer;
 
     @Inject
     public AsyncSocketServlet(
-            Config config, ObjectMapper objectMapper, ConnectionManager connectionManager, Storage storage,
-            LoginService loginService) {
+            Config config, ObjectMapper objectMapper, ConnectionManager connectionManager, CacheManager cacheManager,
+            Storage storage, LoginService loginService, Timer timer) {
         this.config = config;
         this.objectMapper = objectMapper;
         this.connectionManager = connectionManager;
+        this.cacheManager = cacheManager;
         this.storage = storage;
         this.loginService = loginService;
+        this.timer = timer;
     }
 
     @Override
@@ -72,7 +78,9 @@ public class AsyncSocketServlet extends JettyWebSocketServlet {
                 userId = (Long) ((HttpSession) req.getSession()).getAttribute(SessionHelper.USER_ID_KEY);
             }
             if (userId != null) {
-                return new AsyncSocket(objectMapper, connectionManager, storage, userId);
+                return new AsyncSocket(
+                        objectMapper, connectionManager, cacheManager, storage,
+                        timer, config.getLong(Keys.WEB_SOCKET_BATCH_INTERVAL), userId);
             }
             return null;
         });
@@ -24,6 +24,7 @@ import org.traccar.model.UserRestrictions;
 import org.traccar.reports.CsvExportProvider;
 import org.traccar.reports.GpxExportProvider;
 import org.traccar.reports.KmlExportProvider;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
@@ -53,6 +54,9 @@ import java.util.stream.Stream;
 @Consumes(MediaType.APPLICATION_JSON)
 public class PositionResource extends BaseResource {
 
+    @Inject
+    private CacheManager cacheManager;
+
     @Inject
     private KmlExportProvider kmlExportProvider;
 
@@ -91,7 +95,7 @@ public class PositionResource extends BaseResource {
                         new Columns.All(), new Condition.LatestPositions(deviceId)));
             }
         } else {
-            return PositionUtil.getLatestPositions(storage, getUserId()).stream();
+            return PositionUtil.getLatestPositions(storage, cacheManager, getUserId()).stream();
         }
     }
 
@@ -16,13 +16,18 @@
  */
 package org.traccar.api.resource;
 
+import jakarta.annotation.security.PermitAll;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.core.Context;
+import org.eclipse.jetty.ee10.servlet.ServletContextRequest;
+import org.eclipse.jetty.io.EndPoint;
 import org.traccar.api.SimpleObjectResource;
 import org.traccar.helper.LogAction;
 import org.traccar.model.Event;
 import org.traccar.model.Position;
 import org.traccar.model.Report;
+import org.traccar.model.ReportArtifact;
+import org.traccar.model.User;
 import org.traccar.model.UserRestrictions;
 import org.traccar.reports.CombinedReportProvider;
 import org.traccar.reports.DevicesReportProvider;
@@ -33,11 +38,16 @@ import org.traccar.reports.SummaryReportProvider;
 import org.traccar.reports.TripsReportProvider;
 import org.traccar.reports.common.ReportExecutor;
 import org.traccar.reports.common.ReportMailer;
+import org.traccar.reports.common.ReportTaskExecutor;
+import org.traccar.reports.common.ScheduledReportManager;
 import org.traccar.reports.model.CombinedReportItem;
 import org.traccar.reports.model.StopReportItem;
 import org.traccar.reports.model.SummaryReportItem;
 import org.traccar.reports.model.TripReportItem;
 import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -51,9 +61,12 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Stream;
 
 @Path("reports")
@@ -87,6 +100,12 @@ public class ReportResource extends SimpleObjectResource<Report> {
     @Inject
     private ReportMailer reportMailer;
 
+    @Inject
+    private ReportTaskExecutor reportTaskExecutor;
+
+    @Inject
+    private ScheduledReportManager scheduledReportManager;
+
     @Inject
     private LogAction actionLogger;
 
@@ -97,13 +116,22 @@ public class ReportResource extends SimpleObjectResource<Report> {
         super(Report.class, "description");
     }
 
+    private BooleanSupplier connectionClosed() {
+        var servletContextRequest = ServletContextRequest.getServletContextRequest(request);
+        if (servletContextRequest != null) {
+            EndPoint endPoint = servletContextRequest.getConnectionMetaData().getConnection().getEndPoint();
+            return () -> !endPoint.isOpen();
+        }
+        return () -> false;
+    }
+
     private Response executeReport(long userId, boolean mail, ReportExecutor executor) {
         if (mail) {
             reportMailer.sendAsync(userId, executor);
             return Response.noContent().build();
         } else {
             StreamingOutput stream = output -> {
-                try {
+                try (var scope = reportTaskExecutor.cancellable(connectionClosed())) {
                     executor.execute(output);
                 } catch (StorageException e) {
                     throw new WebApplicationException(e);
@@ -123,12 +151,14 @@ public class ReportResource extends SimpleObjectResource<Report> {
             @QueryParam("to") Date to) throws StorageException {
         permissionsService.checkRestriction(getUserId(), UserRestrictions::getDisableReports);
         actionLogger.report(request, getUserId(), false, "combined", from, to, deviceIds, groupIds);
-        return combinedReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to);
+        try (var scope = reportTaskExecutor.cancellable(connectionClosed())) {
+            return combinedReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to);
+        }
     }
 
     @Path("route")
     @GET
-    public Collection<Position> getRoute(
+    public Stream<Position> getRoute(
             @QueryParam("deviceId") List<Long> deviceIds,
             @QueryParam("groupId") List<Long> groupIds,
             @QueryParam("from") Date from,
@@ -222,7 +252,9 @@ public class ReportResource extends SimpleObjectResource<Report> {
             @QueryParam("daily") boolean daily) throws StorageException {
         permissionsService.checkRestriction(getUserId(), UserRestrictions::getDisableReports);
         actionLogger.report(request, getUserId(), false, "summary", from, to, deviceIds, groupIds);
-        return summaryReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to, daily);
+        try (var scope = reportTaskExecutor.cancellable(connectionClosed())) {
+            return summaryReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to, daily);
+        }
     }
 
     @Path("summary")
@@ -264,7 +296,9 @@ public class ReportResource extends SimpleObjectResource<Report> {
             @QueryParam("to") Date to) throws StorageException {
         permissionsService.checkRestriction(getUserId(), UserRestrictions::getDisableReports);
         actionLogger.report(request, getUserId(), false, "trips", from, to, deviceIds, groupIds);
-        return tripsReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to);
+        try (var scope = reportTaskExecutor.cancellable(connectionClosed())) {
+            return tripsReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to);
+        }
     }
 
     @Path("trips")
@@ -304,7 +338,9 @@ public class ReportResource extends SimpleObjectResource<Report> {
             @QueryParam("to") Date to) throws StorageException {
         permissionsService.checkRestriction(getUserId(), UserRestrictions::getDisableReports);
         actionLogger.report(request, getUserId(), false, "stops", from, to, deviceIds, groupIds);
-        return stopsReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to);
+        try (var scope = reportTaskExecutor.cancellable(connectionClosed())) {
+            return stopsReportProvider.getObjects(getUserId(), deviceIds, groupIds, from, to);
+        }
     }
 
     @Path("stops")
@@ -346,4 +382,38 @@ public class ReportResource extends SimpleObjectResource<Report> {
         });
     }
 
+    @PermitAll
+    @Path("artifacts/{id}")
+    @GET
+    @Produces(EXCEL)
+    public Response getArtifact(
+            @PathParam("id") long id, @QueryParam("key") String key)
+            throws StorageException, IOException, GeneralSecurityException {
+        long userId = key != null ? scheduledReportManager.verifyKey(id, key) : getUserId();
+        User user = permissionsService.getUser(userId);
+        if (user == null) {
+            throw new WebApplicationException(Response.Status.UNAUTHORIZED);
+        }
+        user.checkDisabled();
+        permissionsService.checkRestriction(userId, UserRestrictions::getDisableReports);
+        ReportArtifact artifact = storage.getObject(ReportArtifact.class, new Request(
+                new Columns.All(), new Condition.Equals("id", id)));
+        if (artifact == null || artifact.getCompleteTime() == null) {
+            throw new WebApplicationException(Response.status(Response.Status.NOT_FOUND).build());
+        }
+        permissionsService.checkPermission(Report.class, userId, artifact.getReportId());
+        if (permissionsService.notAdmin(userId) && !scheduledReportManager.isAccessible(userId, artifact)) {
+            throw new SecurityException("Report access denied");
+        }
+        StreamingOutput stream = output -> {
+            try {
+                scheduledReportManager.writeArtifact(artifact, output);
+            } catch (StorageException e) {
+                throw new WebApplicationException(e);
+            }
+        };
+        return Response.ok(stream)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.xlsx").build();
+    }
+
 }
@@ -23,8 +23,10 @@ import org.traccar.api.signature.TokenManager;
 import org.traccar.database.OpenIdProvider;
 import org.traccar.helper.LogAction;
 import org.traccar.helper.SessionHelper;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.RevokedToken;
 import org.traccar.model.User;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
@@ -71,6 +73,9 @@ public class SessionResource extends BaseResource {
     @Inject
     private LogAction actionLogger;
 
+    @Inject
+    private CacheManager cacheManager;
+
     @Context
     private HttpServletRequest request;
 
@@ -158,12 +163,12 @@ public class SessionResource extends BaseResource {
 
     @Path("token/revoke")
     @POST
-    public Response revokeToken(
-            @FormParam("token") String token) throws StorageException, GeneralSecurityException, IOException {
+    public Response revokeToken(@FormParam("token") String token) throws Exception {
         TokenManager.TokenData data = tokenManager.decodeToken(token);
         RevokedToken revokedToken = new RevokedToken();
         revokedToken.setId(data.getId());
         storage.addObject(revokedToken, new Request(new Columns.Include("id")));
+        cacheManager.invalidateObject(true, RevokedToken.class, data.getId(), ObjectOperation.ADD);
         return Response.noContent().build();
     }
 
@@ -8,14 +8,20 @@ public class LoginResult {
 
     private final User user;
     private final Date expiration;
+    private final long tokenId;
 
     public LoginResult(User user) {
         this(user, null);
     }
 
     public LoginResult(User user, Date expiration) {
+        this(user, expiration, 0);
+    }
+
+    public LoginResult(User user, Date expiration, long tokenId) {
         this.user = user;
         this.expiration = expiration;
+        this.tokenId = tokenId;
     }
 
     public User getUser() {
@@ -26,4 +32,8 @@ public class LoginResult {
         return expiration;
     }
 
+    public long getTokenId() {
+        return tokenId;
+    }
+
 }
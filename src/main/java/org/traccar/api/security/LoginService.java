@@ -16,13 +16,20 @@
 package org.traccar.api.security;
 
 import com.warrenstrange.googleauth.GoogleAuthenticator;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.traccar.api.signature.TokenManager;
+import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.LdapProvider;
+import org.traccar.database.MetricsManager;
 import org.traccar.helper.DataConverter;
 import org.traccar.helper.model.UserUtil;
+import org.traccar.model.BaseModel;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.RevokedToken;
 import org.traccar.model.User;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -35,9 +42,18 @@ import jakarta.inject.Singleton;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Singleton
-public class LoginService {
+public class LoginService implements BroadcastInterface {
+
+    private record CachedLogin(User user, long tokenId, Date expiration, long expires) {
+    }
 
     private final Config config;
     private final Storage storage;
@@ -48,9 +64,18 @@ public class LoginService {
     private final boolean forceLdap;
     private final boolean forceOpenId;
 
+    private final long cacheTimeout;
+    private final int cacheSize;
+    private final Map<String, CachedLogin> cache = new ConcurrentHashMap<>();
+    private final AtomicLong cacheVersion = new AtomicLong();
+
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+
     @Inject
     public LoginService(
-            Config config, Storage storage, TokenManager tokenManager, @Nullable LdapProvider ldapProvider) {
+            Config config, Storage storage, TokenManager tokenManager, @Nullable LdapProvider ldapProvider,
+            CacheManager cacheManager, MetricsManager metricsManager) {
         this.storage = storage;
         this.config = config;
         this.tokenManager = tokenManager;
@@ -58,10 +83,62 @@ public class LoginService {
         serviceAccountToken = config.getString(Keys.WEB_SERVICE_ACCOUNT_TOKEN);
         forceLdap = config.getBoolean(Keys.LDAP_FORCE);
         forceOpenId = config.getBoolean(Keys.OPENID_FORCE);
+
+        cacheTimeout = TimeUnit.SECONDS.toMillis(config.getLong(Keys.WEB_AUTH_CACHE_TIMEOUT));
+        cacheSize = config.getInteger(Keys.WEB_AUTH_CACHE_SIZE);
+        cacheManager.registerListener(this);
+
+        cacheHits = metricsManager.counter("auth.cache.hit");
+        cacheMisses = metricsManager.counter("auth.cache.miss");
+        metricsManager.gauge("auth.cache.size", cache::size);
     }
 
+    /**
+     * Login with authorization header credentials. Successful results are cached for a short time, keyed by a
+     * credentials digest, so repeated requests skip token signature and password hash verification.
+     */
     public LoginResult login(
             String scheme, String credentials) throws StorageException, GeneralSecurityException, IOException {
+        if (cacheTimeout <= 0) {
+            return loginUncached(scheme, credentials);
+        }
+
+        String key = DigestUtils.sha256Hex(scheme.toLowerCase() + ' ' + credentials);
+        long now = System.currentTimeMillis();
+        CachedLogin cached = cache.get(key);
+        if (cached != null) {
+            if (cached.expires() > now) {
+                cacheHits.increment();
+                checkUserEnabled(cached.user());
+                return new LoginResult(cached.user(), cached.expiration(), cached.tokenId());
+            }
+            cache.remove(key, cached);
+        }
+        cacheMisses.increment();
+
+        long version = cacheVersion.get();
+        LoginResult result = loginUncached(scheme, credentials);
+        if (result != null && result.getUser() != null && !(result.getUser() instanceof ServiceAccountUser)) {
+            long expires = now + cacheTimeout;
+            if (result.getExpiration() != null) {
+                expires = Math.min(expires, result.getExpiration().getTime());
+            }
+            if (cache.size() >= cacheSize) {
+                cache.values().removeIf(entry -> entry.expires() <= now);
+            }
+            if (cache.size() < cacheSize) {
+                cache.put(key, new CachedLogin(
+                        result.getUser(), result.getTokenId(), result.getExpiration(), expires));
+                if (cacheVersion.get() != version) {
+                    cache.remove(key); // invalidated while verifying
+                }
+            }
+        }
+        return result;
+    }
+
+    private LoginResult loginUncached(
+            String scheme, String credentials) throws StorageException, GeneralSecurityException, IOException {
         switch (scheme.toLowerCase()) {
             case "bearer":
                 return login(credentials);
@@ -84,7 +161,19 @@ public class LoginService {
         if (user != null) {
             checkUserEnabled(user);
         }
-        return new LoginResult(user, tokenData.getExpiration());
+        return new LoginResult(user, tokenData.getExpiration(), tokenData.getId());
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) {
+        if (clazz.equals(User.class)) {
+            cacheVersion.incrementAndGet();
+            cache.values().removeIf(entry -> entry.user().getId() == id);
+        } else if (clazz.equals(RevokedToken.class)) {
+            cacheVersion.incrementAndGet();
+            cache.values().removeIf(entry -> entry.tokenId() == id);
+        }
     }
 
     public LoginResult login(String email, String password, Integer code) throws StorageException {
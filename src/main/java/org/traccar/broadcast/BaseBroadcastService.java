@@ -15,9 +15,12 @@
  */
 package org.traccar.broadcast;
 
-import java.util.HashSet;
-import java.util.Set;
-
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Event;
@@ -25,10 +28,54 @@ import org.traccar.model.ObjectOperation;
 import org.traccar.model.Permission;
 import org.traccar.model.Position;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Messages are queued and published from a single thread in batches, encoded with {@link BroadcastCodec}. Without a
+ * batch interval, everything queued while the previous batch was being sent goes into the next one. In legacy mode
+ * each message is published separately in the format understood by older servers.
+ */
 public abstract class BaseBroadcastService implements BroadcastService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(BaseBroadcastService.class);
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final Set<BroadcastInterface> listeners = new HashSet<>();
 
+    private final BroadcastCodec codec;
+    private final long batchInterval;
+    private final boolean legacyFormat;
+    private final int maxFrameLength;
+    private final BlockingQueue<BroadcastMessage> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder sent;
+    private final LongAdder received;
+    private final LongAdder skipped;
+
+    private Thread publisher;
+    private volatile boolean running;
+
+    protected BaseBroadcastService(
+            Config config, ObjectMapper objectMapper, MetricsManager metricsManager, int maxFrameLength) {
+        codec = new BroadcastCodec(objectMapper, UUID.randomUUID());
+        batchInterval = config.getLong(Keys.BROADCAST_BATCH_INTERVAL);
+        legacyFormat = config.getBoolean(Keys.BROADCAST_LEGACY_FORMAT);
+        this.maxFrameLength = maxFrameLength;
+        sent = metricsManager.counter("broadcast.sent");
+        received = metricsManager.counter("broadcast.received");
+        skipped = metricsManager.counter("broadcast.skipped");
+        metricsManager.gauge("broadcast.queue", queue::size);
+    }
+
     @Override
     public boolean singleInstance() {
         return true;
@@ -94,7 +141,77 @@ public abstract class BaseBroadcastService implements BroadcastService {
         sendMessage(message);
     }
 
-    protected abstract void sendMessage(BroadcastMessage message);
+    private void sendMessage(BroadcastMessage message) {
+        queue.add(message);
+    }
+
+    protected void startPublisher() {
+        running = true;
+        publisher = new Thread(this::publish, "broadcast-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+    }
+
+    protected void stopPublisher() throws InterruptedException {
+        running = false;
+        if (publisher != null) {
+            publisher.interrupt();
+            publisher.join();
+            publisher = null;
+        }
+    }
+
+    private void publish() {
+        while (running) {
+            try {
+                BroadcastMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                if (batchInterval > 0) {
+                    Thread.sleep(batchInterval);
+                }
+                List<BroadcastMessage> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                if (legacyFormat) {
+                    for (BroadcastMessage message : batch) {
+                        sendFrame(codec.encodeLegacy(message, legacySenderPrefix()));
+                    }
+                } else {
+                    for (byte[] frame : codec.encode(batch, maxFrameLength)) {
+                        sendFrame(frame);
+                    }
+                }
+                sent.add(batch.size());
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                LOGGER.warn("Broadcast failed", e);
+            }
+        }
+    }
+
+    protected boolean legacySenderPrefix() {
+        return false;
+    }
+
+    protected abstract void sendFrame(byte[] frame) throws Exception;
+
+    protected void handleFrame(byte[] data, int offset, int length) throws Exception {
+        skipped.add(codec.decode(data, offset, length, this::accept, message -> {
+            received.increment();
+            handleMessage(message);
+        }));
+    }
+
+    private boolean accept(int type, long key) {
+        return switch (type) {
+            case BroadcastCodec.TYPE_DEVICE -> listeners.stream().anyMatch(listener -> listener.hasDevice(key));
+            case BroadcastCodec.TYPE_USER -> listeners.stream().anyMatch(listener -> listener.hasUser(key));
+            default -> true;
+        };
+    }
 
     protected void handleMessage(BroadcastMessage message) throws Exception {
         if (message.getDevice() != null) {
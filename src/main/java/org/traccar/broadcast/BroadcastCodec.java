@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.broadcast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary frame with a batch of broadcast messages. Each record carries a routing key, so receivers can skip decoding
+ * messages for devices and users they do not serve. Record area is compressed when it is large enough to benefit.
+ * <p>
+ * Frame: version (1), sender id (16), flags (1), record count (4), records length (4), records.
+ * Record: type (1), key (8), payload length (4), JSON payload.
+ * <p>
+ * Older servers exchange one JSON message per packet, prefixed with a sender id and a colon on Redis. That format is
+ * always accepted and can be produced with {@link #encodeLegacy} while a cluster is being upgraded.
+ */
+public class BroadcastCodec {
+
+    public static final int TYPE_GENERAL = 0;
+    public static final int TYPE_DEVICE = 1;
+    public static final int TYPE_USER = 2;
+
+    private static final int VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int HEADER_LENGTH = 1 + 16 + 1 + 4 + 4;
+    private static final int RECORD_HEADER_LENGTH = 1 + 8 + 4;
+    private static final int COMPRESSION_THRESHOLD = 512;
+    private static final int MAX_DEFLATE_RATIO = 1032;
+    private static final int MAX_RECORDS_LENGTH = 64 * 1024 * 1024;
+    private static final int LEGACY_SENDER_LENGTH = 36;
+
+    public interface Filter {
+        boolean accept(int type, long key);
+    }
+
+    public interface Handler {
+        void handle(BroadcastMessage message) throws Exception;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final UUID senderId;
+
+    public BroadcastCodec(ObjectMapper objectMapper, UUID senderId) {
+        this.objectMapper = objectMapper;
+        this.senderId = senderId;
+    }
+
+    private static int recordType(BroadcastMessage message) {
+        if (message.getDevice() != null || message.getPosition() != null) {
+            return TYPE_DEVICE;
+        } else if (message.getUserId() != null && message.getEvent() != null) {
+            return TYPE_USER;
+        }
+        return TYPE_GENERAL;
+    }
+
+    private static long recordKey(BroadcastMessage message) {
+        if (message.getDevice() != null) {
+            return message.getDevice().getId();
+        } else if (message.getPosition() != null) {
+            return message.getPosition().getDeviceId();
+        } else if (message.getUserId() != null && message.getEvent() != null) {
+            return message.getUserId();
+        }
+        return 0;
+    }
+
+    /**
+     * Encode messages into one or more frames. Records are split between frames so that uncompressed record area
+     * stays within the limit, unless a single record is larger than that.
+     */
+    public List<byte[]> encode(List<BroadcastMessage> messages, int maxRecordsLength) throws IOException {
+        List<byte[]> frames = new ArrayList<>();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        int count = 0;
+        for (BroadcastMessage message : messages) {
+            byte[] payload = objectMapper.writeValueAsBytes(message);
+            int recordLength = RECORD_HEADER_LENGTH + payload.length;
+            if (count > 0 && records.size() + recordLength > maxRecordsLength) {
+                frames.add(encodeFrame(records.toByteArray(), count));
+                records.reset();
+                count = 0;
+            }
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+            header.put((byte) recordType(message));
+            header.putLong(recordKey(message));
+            header.putInt(payload.length);
+            records.write(header.array());
+            records.write(payload);
+            count += 1;
+        }
+        if (count > 0) {
+            frames.add(encodeFrame(records.toByteArray(), count));
+        }
+        return frames;
+    }
+
+    private byte[] encodeFrame(byte[] records, int count) {
+        int flags = 0;
+        byte[] body = records;
+        if (records.length >= COMPRESSION_THRESHOLD) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(records);
+                deflater.finish();
+                ByteArrayOutputStream output = new ByteArrayOutputStream(records.length / 2);
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer));
+                }
+                if (output.size() < records.length) {
+                    flags |= FLAG_DEFLATE;
+                    body = output.toByteArray();
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_LENGTH + body.length);
+        frame.put((byte) VERSION);
+        frame.putLong(senderId.getMostSignificantBits());
+        frame.putLong(senderId.getLeastSignificantBits());
+        frame.put((byte) flags);
+        frame.putInt(count);
+        frame.putInt(records.length);
+        frame.put(body);
+        return frame.array();
+    }
+
+    /**
+     * Encode a single message in the format used by older servers, optionally prefixed with the sender id.
+     */
+    public byte[] encodeLegacy(BroadcastMessage message, boolean senderPrefix) throws IOException {
+        String payload = objectMapper.writeValueAsString(message);
+        if (senderPrefix) {
+            payload = senderId + ":" + payload;
+        }
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int decodeLegacy(byte[] data, int offset, int length, Filter filter, Handler handler) throws Exception {
+        int payloadOffset = offset;
+        if (data[offset] != '{') {
+            int separator = offset + LEGACY_SENDER_LENGTH;
+            if (length <= LEGACY_SENDER_LENGTH || data[separator] != ':') {
+                throw new IOException("Unsupported broadcast frame");
+            }
+            String sender = new String(data, offset, LEGACY_SENDER_LENGTH, StandardCharsets.US_ASCII);
+            if (sender.equals(senderId.toString())) {
+                return 0;
+            }
+            payloadOffset = separator + 1;
+        }
+        BroadcastMessage message = objectMapper.readValue(
+                data, payloadOffset, offset + length - payloadOffset, BroadcastMessage.class);
+        if (filter.accept(recordType(message), recordKey(message))) {
+            handler.handle(message);
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Decode frame and pass accepted messages to the handler. Frames sent by this instance are ignored. Messages in
+     * the legacy format are detected by the first byte and decoded individually.
+     *
+     * @return number of records skipped by the filter
+     */
+    public int decode(byte[] data, int offset, int length, Filter filter, Handler handler) throws Exception {
+        if (length > 0 && data[offset] != VERSION) {
+            return decodeLegacy(data, offset, length, filter, handler);
+        }
+        ByteBuffer frame = ByteBuffer.wrap(data, offset, length);
+        if (length < HEADER_LENGTH) {
+            throw new IOException("Unsupported broadcast frame");
+        }
+        frame.get();
+        long senderMost = frame.getLong();
+        long senderLeast = frame.getLong();
+        if (senderMost == senderId.getMostSignificantBits() && senderLeast == senderId.getLeastSignificantBits()) {
+            return 0;
+        }
+        int flags = frame.get();
+        int count = frame.getInt();
+        int recordsLength = frame.getInt();
+        boolean deflated = (flags & FLAG_DEFLATE) != 0;
+        long maxRecordsLength = deflated
+                ? Math.min((long) frame.remaining() * MAX_DEFLATE_RATIO, MAX_RECORDS_LENGTH) : frame.remaining();
+        if (recordsLength < 0 || recordsLength > maxRecordsLength
+                || count < 0 || count > recordsLength / RECORD_HEADER_LENGTH) {
+            throw new IOException("Invalid broadcast frame length");
+        }
+
+        ByteBuffer records;
+        if (deflated) {
+            byte[] inflated = new byte[recordsLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data, frame.position(), frame.remaining());
+                if (inflater.inflate(inflated) != recordsLength) {
+                    throw new IOException("Invalid broadcast frame content");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            } finally {
+                inflater.end();
+            }
+            records = ByteBuffer.wrap(inflated);
+        } else {
+            records = frame.slice();
+            records.limit(recordsLength);
+        }
+
+        int skipped = 0;
+        for (int i = 0; i < count; i++) {
+            if (records.remaining() < RECORD_HEADER_LENGTH) {
+                throw new IOException("Truncated broadcast frame");
+            }
+            int type = records.get();
+            long key = records.getLong();
+            int payloadLength = records.getInt();
+            int payloadOffset = records.position();
+            if (payloadLength < 0 || payloadLength > records.remaining()) {
+                throw new IOException("Truncated broadcast frame");
+            }
+            records.position(payloadOffset + payloadLength);
+            if (filter.accept(type, key)) {
+                handler.handle(objectMapper.readValue(
+                        records.array(), records.arrayOffset() + payloadOffset, payloadLength,
+                        BroadcastMessage.class));
+            } else {
+                skipped += 1;
+            }
+        }
+        return skipped;
+    }
+
+}
@@ -23,6 +23,21 @@ import org.traccar.model.Position;
 
 public interface BroadcastInterface {
 
+    /**
+     * Whether remote device and position updates for the device are needed by this listener. Updates that no
+     * listener needs are not decoded.
+     */
+    default boolean hasDevice(long deviceId) {
+        return false;
+    }
+
+    /**
+     * Whether remote events for the user are needed by this listener.
+     */
+    default boolean hasUser(long userId) {
+        return false;
+    }
+
     default void updateDevice(boolean local, Device device) {
     }
 
@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
 
 import java.io.IOException;
 import java.net.DatagramPacket;
@@ -28,28 +29,28 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.MulticastSocket;
 import java.net.NetworkInterface;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutorService;
 
 public class MulticastBroadcastService extends BaseBroadcastService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MulticastBroadcastService.class);
 
-    private final ObjectMapper objectMapper;
+    private static final int MAX_FRAME_LENGTH = 60000;
 
     private final NetworkInterface networkInterface;
     private final int port;
     private final InetSocketAddress group;
 
-    private DatagramSocket publisherSocket;
+    private volatile DatagramSocket publisherSocket;
 
     private final ExecutorService executorService;
-    private final byte[] receiverBuffer = new byte[4096];
+    private final byte[] receiverBuffer = new byte[65536];
 
     public MulticastBroadcastService(
-            Config config, ExecutorService executorService, ObjectMapper objectMapper) throws IOException {
+            Config config, ExecutorService executorService, ObjectMapper objectMapper,
+            MetricsManager metricsManager) throws IOException {
+        super(config, objectMapper, metricsManager, MAX_FRAME_LENGTH);
         this.executorService = executorService;
-        this.objectMapper = objectMapper;
         port = config.getInteger(Keys.BROADCAST_PORT);
         String interfaceName = config.getString(Keys.BROADCAST_INTERFACE);
         if (interfaceName.indexOf('.') >= 0 || interfaceName.indexOf(':') >= 0) {
@@ -67,23 +68,22 @@ public class MulticastBroadcastService extends BaseBroadcastService {
     }
 
     @Override
-    protected void sendMessage(BroadcastMessage message) {
-        try {
-            byte[] buffer = objectMapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8);
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length, group);
-            publisherSocket.send(packet);
-        } catch (IOException e) {
-            LOGGER.warn("Broadcast failed", e);
+    protected void sendFrame(byte[] frame) throws IOException {
+        DatagramSocket socket = publisherSocket;
+        if (socket != null) {
+            socket.send(new DatagramPacket(frame, frame.length, group));
         }
     }
 
     @Override
     public void start() throws IOException {
         executorService.submit(receiver);
+        startPublisher();
     }
 
     @Override
-    public void stop() {
+    public void stop() throws InterruptedException {
+        stopPublisher();
     }
 
     private final Runnable receiver = new Runnable() {
@@ -97,8 +97,11 @@ public class MulticastBroadcastService extends BaseBroadcastService {
                     DatagramPacket packet = new DatagramPacket(receiverBuffer, receiverBuffer.length);
                     socket.receive(packet);
                     if (networkInterface.inetAddresses().noneMatch(a -> a.equals(packet.getAddress()))) {
-                        String data = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8);
-                        handleMessage(objectMapper.readValue(data, BroadcastMessage.class));
+                        try {
+                            handleFrame(packet.getData(), packet.getOffset(), packet.getLength());
+                        } catch (Exception e) {
+                            LOGGER.warn("Broadcast handleMessage failed", e);
+                        }
                     }
                 }
                 publisherSocket = null;
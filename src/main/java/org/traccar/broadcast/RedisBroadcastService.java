@@ -20,13 +20,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 
+import redis.clients.jedis.BinaryJedisPubSub;
 import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPubSub;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 
@@ -34,21 +36,20 @@ public class RedisBroadcastService extends BaseBroadcastService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisBroadcastService.class);
 
-    private final ObjectMapper objectMapper;
+    private static final int MAX_FRAME_LENGTH = 1024 * 1024;
 
     private final ExecutorService executorService;
 
-    private final String channel = "traccar";
+    private final byte[] channel = "traccar".getBytes(StandardCharsets.US_ASCII);
 
     private Jedis subscriber;
     private Jedis publisher;
 
-    private final String id = UUID.randomUUID().toString();
-
     public RedisBroadcastService(
-            Config config, ExecutorService executorService, ObjectMapper objectMapper) throws IOException {
+            Config config, ExecutorService executorService, ObjectMapper objectMapper,
+            MetricsManager metricsManager) throws IOException {
+        super(config, objectMapper, metricsManager, MAX_FRAME_LENGTH);
         this.executorService = executorService;
-        this.objectMapper = objectMapper;
         String url = config.getString(Keys.BROADCAST_ADDRESS);
 
         try {
@@ -66,11 +67,15 @@ public class RedisBroadcastService extends BaseBroadcastService {
     }
 
     @Override
-    protected void sendMessage(BroadcastMessage message) {
+    protected boolean legacySenderPrefix() {
+        return true;
+    }
+
+    @Override
+    protected void sendFrame(byte[] frame) {
         try {
-            String payload = id  + ":" + objectMapper.writeValueAsString(message);
-            publisher.publish(channel, payload);
-        } catch (IOException | JedisConnectionException e) {
+            publisher.publish(channel, frame);
+        } catch (JedisConnectionException e) {
             LOGGER.warn("Broadcast failed", e);
         }
     }
@@ -78,10 +83,12 @@ public class RedisBroadcastService extends BaseBroadcastService {
     @Override
     public void start() throws IOException {
         executorService.submit(receiver);
+        startPublisher();
     }
 
     @Override
-    public void stop() {
+    public void stop() throws InterruptedException {
+        stopPublisher();
         try {
             if (subscriber != null) {
                 subscriber.close();
@@ -104,13 +111,12 @@ public class RedisBroadcastService extends BaseBroadcastService {
         @Override
         public void run() {
             try {
-                subscriber.subscribe(new JedisPubSub() {
+                subscriber.subscribe(new BinaryJedisPubSub() {
                     @Override
-                    public void onMessage(String messageChannel, String message) {
+                    public void onMessage(byte[] messageChannel, byte[] message) {
                         try {
-                            String[] parts = message.split(":", 2);
-                            if (messageChannel.equals(channel) && parts.length == 2 && !id.equals(parts[0])) {
-                                handleMessage(objectMapper.readValue(parts[1], BroadcastMessage.class));
+                            if (Arrays.equals(messageChannel, channel)) {
+                                handleFrame(message, 0, message.length);
                             }
                         } catch (Exception e) {
                             LOGGER.warn("Broadcast handleMessage failed", e);
@@ -346,6 +346,16 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             0);
 
+    /**
+     * Number of threads used to run protocol decoders. Decoders resolve devices synchronously, which can query the
+     * database, so with this option they run outside of Netty worker threads. Each connection stays on one thread, so
+     * messages are still decoded in order. By default decoders run on worker threads.
+     */
+    public static final ConfigKey<Integer> SERVER_DECODER_THREADS = new IntegerConfigKey(
+            "server.decoderThreads",
+            List.of(KeyType.CONFIG),
+            0);
+
     /**
      * Address for uploading aggregated anonymous usage statistics. Uploaded information is the same you can see on the
      * statistics screen in the web app. It does not include any sensitive (e.g. locations).
@@ -355,6 +365,15 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             "https://www.traccar.org/analytics/");
 
+    /**
+     * Preload permission links at startup with a few bulk queries and use them to fill the cache when devices
+     * reconnect. Value is the period in seconds after which preloaded links are discarded. Disabled by default.
+     */
+    public static final ConfigKey<Long> SERVER_CACHE_WARMUP = new LongConfigKey(
+            "server.cacheWarmup",
+            List.of(KeyType.CONFIG),
+            0L);
+
     /**
      * Fuel drop threshold value. When fuel level drops from one position to another for more the value, an event is
      * generated.
@@ -506,6 +525,15 @@ public final class Keys {
             "database.maxPoolSize",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of prepared statements cached by the JDBC driver per connection. Applies to MySQL, MariaDB and
+     * PostgreSQL drivers. Set to 0 to keep driver defaults.
+     */
+    public static final ConfigKey<Integer> DATABASE_STATEMENT_CACHE_SIZE = new IntegerConfigKey(
+            "database.statementCacheSize",
+            List.of(KeyType.CONFIG),
+            250);
+
     /**
      * SQL query to check connection status. Default value is 'SELECT 1'. For Oracle database you can use
      * 'SELECT 1 FROM DUAL'.
@@ -529,6 +557,15 @@ public final class Keys {
             "database.throttleUnknown",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Keep an in-memory index of all device identifiers, so connections from unknown devices do not query the
+     * database. The index is updated on device changes made through the server, including other cluster nodes.
+     * Devices inserted into the database directly are not visible until restart.
+     */
+    public static final ConfigKey<Boolean> DATABASE_DEVICE_INDEX = new BooleanConfigKey(
+            "database.deviceIndex",
+            List.of(KeyType.CONFIG));
+
     /**
      * Automatically register unknown devices in the database.
      */
@@ -564,6 +601,42 @@ public final class Keys {
             "database.saveEmpty",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of positions to group into a single batched insert. If not zero, positions are stored asynchronously by
+     * a background writer. Disabled by default.
+     */
+    public static final ConfigKey<Integer> DATABASE_BATCH_SIZE = new IntegerConfigKey(
+            "database.batch.size",
+            List.of(KeyType.CONFIG),
+            0);
+
+    /**
+     * Maximum time in milliseconds a position waits in the batch before it is written.
+     */
+    public static final ConfigKey<Long> DATABASE_BATCH_DELAY = new LongConfigKey(
+            "database.batch.delay",
+            List.of(KeyType.CONFIG),
+            100L);
+
+    /**
+     * Maximum number of positions waiting to be written. When the queue is full, positions are written directly by
+     * the processing thread, which slows down ingestion.
+     */
+    public static final ConfigKey<Integer> DATABASE_BATCH_QUEUE_SIZE = new IntegerConfigKey(
+            "database.batch.queueSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Interval in milliseconds for writing frequently updated device columns, like latest position, motion and
+     * status. Changes for the same device within the interval are merged into a single update. By default changes
+     * are written immediately.
+     */
+    public static final ConfigKey<Long> DATABASE_DEVICE_UPDATE_INTERVAL = new LongConfigKey(
+            "database.deviceUpdateInterval",
+            List.of(KeyType.CONFIG),
+            0L);
+
     /**
      * Device limit for self registered users. Default value is -1, which indicates no limit.
      */
@@ -814,6 +887,16 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             "./override");
 
+    /**
+     * WebSocket update batching interval in milliseconds. Updates received within the interval are sent to the client
+     * as a single message, keeping only the latest position and state of each device. By default, updates are sent
+     * as soon as the previous message is delivered.
+     */
+    public static final ConfigKey<Long> WEB_SOCKET_BATCH_INTERVAL = new LongConfigKey(
+            "web.socketBatchInterval",
+            List.of(KeyType.CONFIG),
+            0L);
+
     /**
      * WebSocket connection timeout in milliseconds. Default timeout is 5 minutes.
      */
@@ -829,6 +912,14 @@ public final class Keys {
             "web.sessionTimeout",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Enable live metrics in Prometheus text format via '/metrics' URL. The endpoint does not require authentication,
+     * so access should be restricted on the network level.
+     */
+    public static final ConfigKey<Boolean> WEB_METRICS = new BooleanConfigKey(
+            "web.metrics",
+            List.of(KeyType.CONFIG));
+
     /**
      * Enable database access console via '/console' URL. Use only for debugging. Never use in production.
      */
@@ -852,6 +943,25 @@ public final class Keys {
             "web.serviceAccountToken",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Time in seconds to keep verified bearer tokens and basic authentication credentials in memory, so repeated API
+     * requests skip signature and password hash checks. Entries are dropped when the user changes or the token is
+     * revoked. In a cluster, changes made on other nodes are only seen if broadcast is configured; otherwise revoked
+     * credentials keep working until the entry expires. Disabled by default.
+     */
+    public static final ConfigKey<Long> WEB_AUTH_CACHE_TIMEOUT = new LongConfigKey(
+            "web.authCacheTimeout",
+            List.of(KeyType.CONFIG),
+            0L);
+
+    /**
+     * Maximum number of verified credentials kept in the authentication cache.
+     */
+    public static final ConfigKey<Integer> WEB_AUTH_CACHE_SIZE = new IntegerConfigKey(
+            "web.authCacheSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
     /**
      * Cross-origin resource sharing origin header value.
      */
@@ -920,6 +1030,39 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             "positions");
 
+    /**
+     * Position forwarding Kafka message format. Available options are "json" and "protobuf". Protobuf messages follow
+     * ForwardMessages.proto and are considerably smaller. Default is "json".
+     */
+    public static final ConfigKey<String> FORWARD_KAFKA_FORMAT = new StringConfigKey(
+            "forward.kafka.format",
+            List.of(KeyType.CONFIG),
+            "json");
+
+    /**
+     * Position forwarding Kafka producer linger time in milliseconds. Larger values produce bigger batches.
+     */
+    public static final ConfigKey<Integer> FORWARD_KAFKA_LINGER = new IntegerConfigKey(
+            "forward.kafka.linger",
+            List.of(KeyType.CONFIG),
+            5);
+
+    /**
+     * Position forwarding Kafka producer batch size in bytes.
+     */
+    public static final ConfigKey<Integer> FORWARD_KAFKA_BATCH_SIZE = new IntegerConfigKey(
+            "forward.kafka.batchSize",
+            List.of(KeyType.CONFIG),
+            64 * 1024);
+
+    /**
+     * Position forwarding Kafka producer compression type, for example "lz4", "zstd" or "none". Default is "none".
+     */
+    public static final ConfigKey<String> FORWARD_KAFKA_COMPRESSION = new StringConfigKey(
+            "forward.kafka.compression",
+            List.of(KeyType.CONFIG),
+            "none");
+
     /**
      * URL to forward positions. Data is passed through URL parameters. For example, {uniqueId} for device identifier,
      * {latitude} and {longitude} for coordinates.
@@ -973,6 +1116,49 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             100);
 
+    /**
+     * Directory for the durable forwarding spool. If set, forwarded positions and events are first written to
+     * memory-mapped files and delivered from there, so pending data survives downstream outages and restarts.
+     * Records of each device are delivered in order and retried until accepted, starting with 'forward.retry.delay'.
+     */
+    public static final ConfigKey<String> FORWARD_SPOOL_PATH = new StringConfigKey(
+            "forward.spool.path",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Size of a single forwarding spool file in bytes. Files are deleted once all their records are delivered.
+     */
+    public static final ConfigKey<Integer> FORWARD_SPOOL_SEGMENT_SIZE = new IntegerConfigKey(
+            "forward.spool.segmentSize",
+            List.of(KeyType.CONFIG),
+            16 * 1024 * 1024);
+
+    /**
+     * Maximum number of spooled records loaded into memory for delivery at a time.
+     */
+    public static final ConfigKey<Integer> FORWARD_SPOOL_BATCH_SIZE = new IntegerConfigKey(
+            "forward.spool.batchSize",
+            List.of(KeyType.CONFIG),
+            1000);
+
+    /**
+     * Maximum number of spooled records being delivered concurrently. Each device has at most one record in flight.
+     */
+    public static final ConfigKey<Integer> FORWARD_SPOOL_CONCURRENCY = new IntegerConfigKey(
+            "forward.spool.concurrency",
+            List.of(KeyType.CONFIG),
+            16);
+
+    /**
+     * Interval in milliseconds for flushing forwarding spool files to disk. Records are written to memory-mapped
+     * files immediately, which survives a process crash, but an operating system crash or power loss can lose records
+     * appended since the last flush. Zero flushes on every record.
+     */
+    public static final ConfigKey<Long> FORWARD_SPOOL_SYNC_INTERVAL = new LongConfigKey(
+            "forward.spool.syncInterval",
+            List.of(KeyType.CONFIG),
+            1000L);
+
     /**
      * Events forwarding format. Available options are "json" and "kafka". Default is "json".
      */
@@ -997,6 +1183,39 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             "events");
 
+    /**
+     * Events forwarding Kafka message format. Available options are "json" and "protobuf". Protobuf messages follow
+     * ForwardMessages.proto and are considerably smaller. Default is "json".
+     */
+    public static final ConfigKey<String> EVENT_FORWARD_KAFKA_FORMAT = new StringConfigKey(
+            "event.forward.kafka.format",
+            List.of(KeyType.CONFIG),
+            "json");
+
+    /**
+     * Events forwarding Kafka producer linger time in milliseconds. Larger values produce bigger batches.
+     */
+    public static final ConfigKey<Integer> EVENT_FORWARD_KAFKA_LINGER = new IntegerConfigKey(
+            "event.forward.kafka.linger",
+            List.of(KeyType.CONFIG),
+            5);
+
+    /**
+     * Events forwarding Kafka producer batch size in bytes.
+     */
+    public static final ConfigKey<Integer> EVENT_FORWARD_KAFKA_BATCH_SIZE = new IntegerConfigKey(
+            "event.forward.kafka.batchSize",
+            List.of(KeyType.CONFIG),
+            64 * 1024);
+
+    /**
+     * Events forwarding Kafka producer compression type, for example "lz4", "zstd" or "none". Default is "none".
+     */
+    public static final ConfigKey<String> EVENT_FORWARD_KAFKA_COMPRESSION = new StringConfigKey(
+            "event.forward.kafka.compression",
+            List.of(KeyType.CONFIG),
+            "none");
+
     /**
      * Events forwarding URL.
      */
@@ -1345,6 +1564,56 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             86400L);
 
+    /**
+     * Maximum number of devices processed in parallel across all report requests. By default, it is half of the
+     * database connection pool size. Set to 1 to process devices sequentially on the request thread.
+     */
+    public static final ConfigKey<Integer> REPORT_THREADS = new IntegerConfigKey(
+            "report.threads",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Maximum number of devices processed in parallel for a single report request. Default value is 4.
+     */
+    public static final ConfigKey<Integer> REPORT_REQUEST_THREADS = new IntegerConfigKey(
+            "report.requestThreads",
+            List.of(KeyType.CONFIG),
+            4);
+
+    /**
+     * Number of scheduled reports rendered in parallel. Other due reports wait in the queue. Default value is 2.
+     */
+    public static final ConfigKey<Integer> REPORT_SCHEDULED_THREADS = new IntegerConfigKey(
+            "report.scheduled.threads",
+            List.of(KeyType.CONFIG),
+            2);
+
+    /**
+     * Delay in seconds before a failed scheduled report is rendered again. The delay doubles with every attempt.
+     * Default value is 60 seconds.
+     */
+    public static final ConfigKey<Long> REPORT_SCHEDULED_RETRY_DELAY = new LongConfigKey(
+            "report.scheduled.retryDelay",
+            List.of(KeyType.CONFIG),
+            60L);
+
+    /**
+     * Time in seconds a server owns a scheduled report job it started. A job still running after that is considered
+     * abandoned, for example because the server stopped, and is rendered again. Default value is 3600 seconds.
+     */
+    public static final ConfigKey<Long> REPORT_SCHEDULED_LEASE = new LongConfigKey(
+            "report.scheduled.lease",
+            List.of(KeyType.CONFIG),
+            3600L);
+
+    /**
+     * Number of days rendered scheduled reports are kept. Default value is 30 days.
+     */
+    public static final ConfigKey<Long> REPORT_SCHEDULED_RETENTION = new LongConfigKey(
+            "report.scheduled.retention",
+            List.of(KeyType.CONFIG),
+            30L);
+
     /**
      * Trips less than minimal duration and minimal distance are ignored. 300 seconds and 500 meters are default.
      */
@@ -1599,6 +1868,22 @@ public final class Keys {
             "processing.remoteAddress.enable",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of threads used by position handlers that access the database, so slow queries do not block network
+     * event loops. By default such handlers run directly on the event loop.
+     */
+    public static final ConfigKey<Integer> PROCESSING_BLOCKING_THREADS = new IntegerConfigKey(
+            "processing.blockingThreads",
+            List.of(KeyType.CONFIG),
+            0);
+
+    /**
+     * Run blocking position handlers on virtual threads instead of a fixed thread pool. Requires Java 21 or newer.
+     */
+    public static final ConfigKey<Boolean> PROCESSING_VIRTUAL_THREADS = new BooleanConfigKey(
+            "processing.virtualThreads",
+            List.of(KeyType.CONFIG));
+
     /**
      * Use linked driver id for positions if a device does not send driver id.
      */
@@ -2003,6 +2288,38 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             "time,position,speed,course,accuracy,result");
 
+    /**
+     * Directory for the binary journal of raw network traffic. When set, network data is written to the journal
+     * instead of the log file. Journal can be replayed against a server with the JournalReplay tool.
+     */
+    public static final ConfigKey<String> LOGGER_JOURNAL_PATH = new StringConfigKey(
+            "logger.journal.path",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Size of a single traffic journal file in bytes.
+     */
+    public static final ConfigKey<Integer> LOGGER_JOURNAL_SEGMENT_SIZE = new IntegerConfigKey(
+            "logger.journal.segmentSize",
+            List.of(KeyType.CONFIG),
+            64 * 1024 * 1024);
+
+    /**
+     * Number of traffic journal files to keep. The oldest file is deleted when a new one is created.
+     */
+    public static final ConfigKey<Integer> LOGGER_JOURNAL_SEGMENTS = new IntegerConfigKey(
+            "logger.journal.segments",
+            List.of(KeyType.CONFIG),
+            16);
+
+    /**
+     * Maximum number of network frames waiting to be written to the journal. Extra frames are dropped.
+     */
+    public static final ConfigKey<Integer> LOGGER_JOURNAL_QUEUE_SIZE = new IntegerConfigKey(
+            "logger.journal.queueSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
     /**
      * Broadcast method. Available options are "multicast" and "redis". By default, (if the value is not
      * specified or does not match available options) server disables broadcast.
@@ -2032,6 +2349,24 @@ public final class Keys {
             "broadcast.port",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Broadcast batching interval in milliseconds. Messages are collected for the interval and published together in
+     * a compressed binary frame. By default, messages queued while the previous batch was sent are published at once.
+     */
+    public static final ConfigKey<Long> BROADCAST_BATCH_INTERVAL = new LongConfigKey(
+            "broadcast.batchInterval",
+            List.of(KeyType.CONFIG),
+            0L);
+
+    /**
+     * Publish broadcast messages in the JSON format used by older versions, one message per packet. Binary frames are
+     * not understood by older servers, so enable it on upgraded servers while a cluster is upgraded node by node and
+     * remove it once all nodes run the new version. Both formats are always accepted.
+     */
+    public static final ConfigKey<Boolean> BROADCAST_LEGACY_FORMAT = new BooleanConfigKey(
+            "broadcast.legacyFormat",
+            List.of(KeyType.CONFIG));
+
     /**
      * Flag to mark secondary servers. Some tasks, like scheduled reports, will be executed on the main server only.
      */
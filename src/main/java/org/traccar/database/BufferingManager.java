@@ -17,7 +17,6 @@ package org.traccar.database;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.HashedWheelTimer;
-import io.netty.util.Timeout;
 import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,12 +24,18 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.model.Position;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Reorders positions by time within a device. Each position is held until no earlier position has arrived for the
+ * configured threshold. State is kept per device, with a single timer per device that releases whole runs at once.
+ */
 public class BufferingManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BufferingManager.class);
@@ -43,11 +48,14 @@ public class BufferingManager {
 
         private final ChannelHandlerContext context;
         private final Position position;
-        private Timeout timeout;
+        private final long deadline;
+        private final long sequence;
 
-        private Holder(ChannelHandlerContext context, Position position) {
+        private Holder(ChannelHandlerContext context, Position position, long deadline, long sequence) {
             this.context = context;
             this.position = position;
+            this.deadline = deadline;
+            this.sequence = sequence;
         }
 
         private int compareTime(Date left, Date right) {
@@ -69,47 +77,100 @@ public class BufferingManager {
                 return deviceTimeResult;
             }
 
-            return position.getServerTime().compareTo(other.position.getServerTime());
+            int serverTimeResult = compareTime(position.getServerTime(), other.position.getServerTime());
+            if (serverTimeResult != 0) {
+                return serverTimeResult;
+            }
+
+            return Long.compare(sequence, other.sequence);
         }
     }
 
+    /**
+     * Pending positions for a device. A position is released once the deadlines of all positions sorted before it
+     * have passed, so deadlines never need to be rescheduled when an earlier position arrives.
+     */
+    private static final class DeviceBuffer {
+        private final TreeSet<Holder> holders = new TreeSet<>();
+        private long sequence;
+        private boolean scheduled;
+    }
+
     private final Timer timer = new HashedWheelTimer();
     private final Callback callback;
     private final long threshold;
 
-    private final Map<Long, TreeSet<Holder>> buffer = new HashMap<>();
+    private final Map<Long, DeviceBuffer> buffer = new ConcurrentHashMap<>();
 
     public BufferingManager(Config config, Callback callback) {
         this.callback = callback;
         threshold = config.getLong(Keys.SERVER_BUFFERING_THRESHOLD);
     }
 
-    private Timeout scheduleTimeout(Holder holder) {
-        return timer.newTimeout(
-                timeout -> {
-                    LOGGER.debug("released {}", holder.position.getFixTime());
-                    synchronized (buffer) {
-                        buffer.get(holder.position.getDeviceId()).remove(holder);
-                    }
-                    holder.context.executor().execute(() -> {
-                        callback.onReleased(holder.context, holder.position);
-                    });
-                },
-                threshold, TimeUnit.MILLISECONDS);
+    private void schedule(long deviceId, long deadline) {
+        long delay = Math.max(deadline - System.currentTimeMillis(), 0);
+        timer.newTimeout(timeout -> release(deviceId), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void release(long deviceId) {
+        List<Holder> released = new ArrayList<>();
+        long[] next = new long[1];
+        buffer.computeIfPresent(deviceId, (key, deviceBuffer) -> {
+            long now = System.currentTimeMillis();
+            long deadline = 0;
+            for (Holder holder : deviceBuffer.holders) {
+                deadline = Math.max(deadline, holder.deadline);
+                if (deadline > now) {
+                    break;
+                }
+                released.add(holder);
+            }
+            released.forEach(deviceBuffer.holders::remove);
+            if (deviceBuffer.holders.isEmpty()) {
+                return null;
+            }
+            next[0] = deviceBuffer.holders.first().deadline;
+            return deviceBuffer;
+        });
+        if (next[0] > 0) {
+            schedule(deviceId, next[0]);
+        }
+        if (!released.isEmpty()) {
+            LOGGER.debug("released {} positions", released.size());
+            dispatch(released);
+        }
+    }
+
+    private void dispatch(List<Holder> released) {
+        int start = 0;
+        while (start < released.size()) {
+            ChannelHandlerContext context = released.get(start).context;
+            int end = start + 1;
+            while (end < released.size() && released.get(end).context == context) {
+                end += 1;
+            }
+            List<Holder> run = released.subList(start, end);
+            context.executor().execute(() -> run.forEach(holder -> callback.onReleased(context, holder.position)));
+            start = end;
+        }
     }
 
     public void accept(ChannelHandlerContext context, Position position) {
         if (threshold > 0) {
-            synchronized (buffer) {
-                LOGGER.debug("queued {}", position.getFixTime());
-                var queue = buffer.computeIfAbsent(position.getDeviceId(), k -> new TreeSet<>());
-                Holder holder = new Holder(context, position);
-                holder.timeout = scheduleTimeout(holder);
-                queue.add(holder);
-                queue.tailSet(holder, false).forEach(h -> {
-                    h.timeout.cancel();
-                    h.timeout = scheduleTimeout(h);
-                });
+            LOGGER.debug("queued {}", position.getFixTime());
+            long deadline = System.currentTimeMillis() + threshold;
+            boolean[] schedule = new boolean[1];
+            buffer.compute(position.getDeviceId(), (key, deviceBuffer) -> {
+                if (deviceBuffer == null) {
+                    deviceBuffer = new DeviceBuffer();
+                }
+                deviceBuffer.holders.add(new Holder(context, position, deadline, deviceBuffer.sequence++));
+                schedule[0] = !deviceBuffer.scheduled;
+                deviceBuffer.scheduled = true;
+                return deviceBuffer;
+            });
+            if (schedule[0]) {
+                schedule(position.getDeviceId(), deadline);
             }
         } else {
             callback.onReleased(context, position);
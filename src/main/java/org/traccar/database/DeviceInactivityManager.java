@@ -0,0 +1,341 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.broadcast.BroadcastInterface;
+import org.traccar.helper.TimingWheel;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.Group;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tracks device inactivity deadlines in a timing wheel. Deadlines are recalculated when device last update time
+ * changes or when device or group attributes are modified, so no periodic database scans are needed.
+ */
+@Singleton
+public class DeviceInactivityManager implements BroadcastInterface {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceInactivityManager.class);
+
+    public static final String ATTRIBUTE_DEVICE_INACTIVITY_START = "deviceInactivityStart";
+    public static final String ATTRIBUTE_DEVICE_INACTIVITY_PERIOD = "deviceInactivityPeriod";
+    public static final String ATTRIBUTE_LAST_UPDATE = "lastUpdate";
+
+    private static final long TICK_DURATION = TimeUnit.SECONDS.toMillis(1);
+
+    private static final class DeviceState {
+        private long groupId;
+        private long start;
+        private long period;
+        private long lastUpdate;
+    }
+
+    private final Storage storage;
+    private final CacheManager cacheManager;
+
+    private final Map<Long, Group> groups = new HashMap<>();
+    private final Map<Long, DeviceState> devices = new HashMap<>();
+    private final Map<Long, Set<Long>> groupDevices = new HashMap<>();
+    private final Map<Long, Device> pendingDevices = new ConcurrentHashMap<>();
+    private final Set<Long> pendingGroups = ConcurrentHashMap.newKeySet();
+    private TimingWheel<Long> wheel;
+    private long currentTime;
+
+    private volatile boolean started;
+
+    @Inject
+    public DeviceInactivityManager(Storage storage, CacheManager cacheManager, MetricsManager metricsManager) {
+        this.storage = storage;
+        this.cacheManager = cacheManager;
+        metricsManager.gauge("device.inactivity.scheduled", this::getScheduledCount);
+    }
+
+    private synchronized int getScheduledCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Load devices and groups and schedule initial deadlines. Inactivity events that were due before the start are
+     * not generated.
+     */
+    public synchronized void start(long currentTime) throws StorageException {
+        if (started) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        this.currentTime = currentTime;
+        wheel = new TimingWheel<>(TICK_DURATION, currentTime);
+        for (Group group : storage.getObjects(Group.class, new Request(new Columns.All()))) {
+            groups.put(group.getId(), group);
+        }
+        try (Stream<Device> stream = storage.getObjectsStream(Device.class, new Request(
+                new Columns.Include("id", "groupId", "lastUpdate", "attributes")))) {
+            stream.forEach(device -> {
+                DeviceState state = new DeviceState();
+                updateState(device.getId(), state, device);
+                devices.put(device.getId(), state);
+                schedule(device.getId(), state);
+            });
+        }
+        cacheManager.registerListener(this);
+        started = true;
+        LOGGER.info("Device inactivity scheduled {} of {} devices in {} ms",
+                wheel.size(), devices.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void updateState(long deviceId, DeviceState state, Device device) {
+        if (state.groupId != device.getGroupId()) {
+            removeGroupDevice(deviceId, state.groupId);
+            state.groupId = device.getGroupId();
+            if (state.groupId > 0) {
+                groupDevices.computeIfAbsent(state.groupId, key -> new HashSet<>()).add(deviceId);
+            }
+        }
+        state.start = device.getLong(ATTRIBUTE_DEVICE_INACTIVITY_START);
+        state.period = device.getLong(ATTRIBUTE_DEVICE_INACTIVITY_PERIOD);
+        state.lastUpdate = device.getLastUpdate() != null ? device.getLastUpdate().getTime() : 0;
+    }
+
+    private void removeGroupDevice(long deviceId, long groupId) {
+        Set<Long> deviceIds = groupDevices.get(groupId);
+        if (deviceIds != null) {
+            deviceIds.remove(deviceId);
+            if (deviceIds.isEmpty()) {
+                groupDevices.remove(groupId);
+            }
+        }
+    }
+
+    private long getAttribute(DeviceState state, long deviceValue, String key) {
+        if (deviceValue > 0) {
+            return deviceValue;
+        }
+        long groupId = state.groupId;
+        while (groupId > 0) {
+            Group group = groups.get(groupId);
+            if (group == null) {
+                return 0;
+            }
+            long groupValue = group.getLong(key);
+            if (groupValue > 0) {
+                return groupValue;
+            }
+            groupId = group.getGroupId();
+        }
+        return 0;
+    }
+
+    /**
+     * First inactivity deadline not earlier than the given time or zero if there is none.
+     */
+    private long nextDeadline(DeviceState state, long time) {
+        long start = getAttribute(state, state.start, ATTRIBUTE_DEVICE_INACTIVITY_START);
+        if (start <= 0 || state.lastUpdate == 0) {
+            return 0;
+        }
+        long threshold = state.lastUpdate + start;
+        if (time <= threshold) {
+            return threshold;
+        }
+        long period = getAttribute(state, state.period, ATTRIBUTE_DEVICE_INACTIVITY_PERIOD);
+        if (period > 0) {
+            return threshold + (time - threshold + period - 1) / period * period;
+        }
+        return 0;
+    }
+
+    /**
+     * Schedule next deadline after the current wheel time. Earlier deadlines are already reported.
+     */
+    private void schedule(long deviceId, DeviceState state) {
+        long deadline = nextDeadline(state, currentTime + 1);
+        if (deadline > 0) {
+            wheel.schedule(deviceId, deadline);
+        } else {
+            wheel.cancel(deviceId);
+        }
+    }
+
+    /**
+     * Queue device state change, such as new last update time. Called for every position, so it does not lock.
+     * Deadlines are recalculated on the next tick.
+     */
+    public void updateDevice(Device device) {
+        if (started) {
+            pendingDevices.put(device.getId(), device);
+        }
+    }
+
+    /**
+     * Apply queued device changes. Devices are added only on start and invalidation, so changes of devices without
+     * state are dropped.
+     */
+    private void applyPendingDevices() {
+        for (Long deviceId : pendingDevices.keySet()) {
+            Device device = pendingDevices.remove(deviceId);
+            DeviceState state = devices.get(deviceId);
+            if (device == null || state == null) {
+                continue;
+            }
+            long lastUpdate = state.lastUpdate;
+            long groupId = state.groupId;
+            long start = state.start;
+            long period = state.period;
+            updateState(deviceId, state, device);
+            if (state.lastUpdate != lastUpdate || state.groupId != groupId
+                    || state.start != start || state.period != period) {
+                schedule(deviceId, state);
+            }
+        }
+    }
+
+    /**
+     * Whether any parent in the group chain is one of the given groups.
+     */
+    private boolean hasAncestor(long groupId, Set<Long> ancestors) {
+        Group group = groups.get(groupId);
+        for (int depth = 0; group != null && depth < groups.size(); depth++) {
+            if (ancestors.contains(group.getGroupId())) {
+                return true;
+            }
+            group = groups.get(group.getGroupId());
+        }
+        return false;
+    }
+
+    /**
+     * Reschedule devices of changed groups and all their subgroups.
+     */
+    private void applyPendingGroups() {
+        if (pendingGroups.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>();
+        for (Iterator<Long> iterator = pendingGroups.iterator(); iterator.hasNext();) {
+            changed.add(iterator.next());
+            iterator.remove();
+        }
+        Set<Long> subtree = new HashSet<>(changed);
+        for (long groupId : groups.keySet()) {
+            if (hasAncestor(groupId, changed)) {
+                subtree.add(groupId);
+            }
+        }
+        for (long groupId : subtree) {
+            for (long deviceId : groupDevices.getOrDefault(groupId, Set.of())) {
+                schedule(deviceId, devices.get(deviceId));
+            }
+        }
+    }
+
+    /**
+     * Move time forward and return inactivity events for devices with expired deadlines. Queued device and group
+     * changes are applied first, so a device that reported before its deadline is not reported as inactive.
+     */
+    public synchronized Map<Event, Position> advance(long currentTime) {
+        Map<Event, Position> events = new HashMap<>();
+        if (wheel != null) {
+            applyPendingDevices();
+            applyPendingGroups();
+            this.currentTime = Math.max(this.currentTime, currentTime);
+            wheel.advance(currentTime, (deviceId, deadline) -> {
+                DeviceState state = devices.get(deviceId);
+                Event event = new Event(Event.TYPE_DEVICE_INACTIVE, deviceId);
+                event.set(ATTRIBUTE_LAST_UPDATE, state.lastUpdate);
+                events.put(event, null);
+                schedule(deviceId, state);
+            });
+        }
+        return events;
+    }
+
+    /**
+     * Only devices with inactivity configured, directly or through a group, need remote last update changes.
+     */
+    @Override
+    public synchronized boolean hasDevice(long deviceId) {
+        DeviceState state = devices.get(deviceId);
+        return state != null && getAttribute(state, state.start, ATTRIBUTE_DEVICE_INACTIVITY_START) > 0;
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) throws StorageException {
+        if (clazz.equals(Device.class)) {
+            Device device = null;
+            if (operation != ObjectOperation.DELETE) {
+                device = storage.getObject(Device.class, new Request(
+                        new Columns.Include("id", "groupId", "lastUpdate", "attributes"),
+                        new Condition.Equals("id", id)));
+            }
+            synchronized (this) {
+                if (device != null) {
+                    DeviceState state = devices.computeIfAbsent(id, key -> new DeviceState());
+                    updateState(id, state, device);
+                    schedule(id, state);
+                } else {
+                    DeviceState state = devices.remove(id);
+                    if (state != null) {
+                        removeGroupDevice(id, state.groupId);
+                    }
+                    pendingDevices.remove(id);
+                    wheel.cancel(id);
+                }
+            }
+        } else if (clazz.equals(Group.class)) {
+            Group group = null;
+            if (operation != ObjectOperation.DELETE) {
+                group = storage.getObject(Group.class, new Request(
+                        new Columns.All(), new Condition.Equals("id", id)));
+            }
+            synchronized (this) {
+                if (group != null) {
+                    groups.put(id, group);
+                } else {
+                    groups.remove(id);
+                }
+            }
+            pendingGroups.add(id);
+        }
+    }
+
+}
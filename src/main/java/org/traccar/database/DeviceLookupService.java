@@ -20,9 +20,13 @@ import io.netty.util.Timer;
 import io.netty.util.TimerTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
+import org.traccar.model.ObjectOperation;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -34,9 +38,11 @@ import jakarta.inject.Singleton;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 @Singleton
-public class DeviceLookupService {
+public class DeviceLookupService implements BroadcastInterface {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DeviceLookupService.class);
 
@@ -46,6 +52,7 @@ public class DeviceLookupService {
 
     private final Storage storage;
     private final Timer timer;
+    private final CacheManager cacheManager;
 
     private final boolean throttlingEnabled;
 
@@ -73,11 +80,66 @@ public class DeviceLookupService {
 
     private final Map<String, IdentifierInfo> identifierMap = new ConcurrentHashMap<>();
 
+    private final Map<String, Long> uniqueIdIndex;
+    private final Map<Long, String> deviceIdIndex;
+
+    private final LongAdder indexHits;
+    private final LongAdder indexMisses;
+
     @Inject
-    public DeviceLookupService(Config config, Storage storage, Timer timer) {
+    public DeviceLookupService(
+            Config config, Storage storage, Timer timer, CacheManager cacheManager,
+            MetricsManager metricsManager) throws StorageException {
         this.storage = storage;
         this.timer = timer;
+        this.cacheManager = cacheManager;
         throttlingEnabled = config.getBoolean(Keys.DATABASE_THROTTLE_UNKNOWN);
+
+        indexHits = metricsManager.counter("device.lookup.index.hit");
+        indexMisses = metricsManager.counter("device.lookup.index.miss");
+
+        if (config.getBoolean(Keys.DATABASE_DEVICE_INDEX)) {
+            uniqueIdIndex = new ConcurrentHashMap<>();
+            deviceIdIndex = new ConcurrentHashMap<>();
+            long startTime = System.currentTimeMillis();
+            try (Stream<Device> devices = storage.getObjectsStream(Device.class, new Request(
+                    new Columns.Include("id", "uniqueId")))) {
+                devices.forEach(device -> updateIndex(device.getId(), device.getUniqueId()));
+            }
+            LOGGER.info("Device index loaded {} identifiers in {} ms",
+                    uniqueIdIndex.size(), System.currentTimeMillis() - startTime);
+            metricsManager.gauge("device.lookup.index.size", uniqueIdIndex::size);
+            cacheManager.registerListener(this);
+        } else {
+            uniqueIdIndex = null;
+            deviceIdIndex = null;
+        }
+    }
+
+    private synchronized void updateIndex(long deviceId, String uniqueId) {
+        String oldUniqueId = uniqueId != null ? deviceIdIndex.put(deviceId, uniqueId) : deviceIdIndex.remove(deviceId);
+        if (oldUniqueId != null && !oldUniqueId.equals(uniqueId)) {
+            uniqueIdIndex.remove(oldUniqueId, deviceId);
+        }
+        if (uniqueId != null) {
+            uniqueIdIndex.put(uniqueId, deviceId);
+        }
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) throws StorageException {
+        if (clazz.equals(Device.class)) {
+            String uniqueId = null;
+            if (operation != ObjectOperation.DELETE) {
+                Device device = storage.getObject(Device.class, new Request(
+                        new Columns.Include("id", "uniqueId"), new Condition.Equals("id", id)));
+                if (device != null) {
+                    uniqueId = device.getUniqueId();
+                }
+            }
+            updateIndex(id, uniqueId);
+        }
     }
 
     private synchronized boolean isThrottled(String uniqueId) {
@@ -115,9 +177,32 @@ public class DeviceLookupService {
         }
     }
 
+    private Device lookupIndex(String[] uniqueIds) throws StorageException {
+        for (String uniqueId : uniqueIds) {
+            Long deviceId = uniqueIdIndex.get(uniqueId);
+            if (deviceId != null) {
+                indexHits.increment();
+                Device device = cacheManager.getObject(Device.class, deviceId);
+                if (device == null) {
+                    device = storage.getObject(Device.class, new Request(
+                            new Columns.All(), new Condition.Equals("id", deviceId)));
+                }
+                if (device != null) {
+                    return device;
+                }
+            } else {
+                indexMisses.increment();
+            }
+        }
+        return null;
+    }
+
     public Device lookup(String[] uniqueIds) {
         Device device = null;
         try {
+            if (uniqueIdIndex != null) {
+                return lookupIndex(uniqueIds);
+            }
             for (String uniqueId : uniqueIds) {
                 if (!isThrottled(uniqueId)) {
                     device = storage.getObject(Device.class, new Request(
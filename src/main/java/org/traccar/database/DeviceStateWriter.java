@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.ReflectionCache;
+import org.traccar.model.Device;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-back storage for frequently changing device columns, such as latest position, motion and status. Changes
+ * for the same device are merged in memory and written periodically with one batched update per column set. When
+ * the interval is not configured, changes are written immediately.
+ */
+@Singleton
+public class DeviceStateWriter implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceStateWriter.class);
+
+    private static final class PendingUpdate {
+        private final Device device = new Device();
+        private final Set<String> columns = new TreeSet<>();
+        private final long time = System.currentTimeMillis();
+    }
+
+    private final Storage storage;
+    private final long interval;
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder updates;
+    private final LongAdder writes;
+    private final MetricsManager.Summary lagSummary;
+    private final MetricsManager.Summary flushTimeSummary;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    @Inject
+    public DeviceStateWriter(Config config, Storage storage, MetricsManager metricsManager) {
+        this.storage = storage;
+        interval = config.getLong(Keys.DATABASE_DEVICE_UPDATE_INTERVAL);
+
+        updates = metricsManager.counter("device.state.updates");
+        writes = metricsManager.counter("device.state.writes");
+        lagSummary = metricsManager.summary("device.state.lag");
+        flushTimeSummary = metricsManager.summary("device.state.flush.time");
+        metricsManager.gauge("device.state.pending", pending::size);
+    }
+
+    /**
+     * Whether updates are written in the background rather than by the calling thread.
+     */
+    public boolean isDeferred() {
+        return interval > 0;
+    }
+
+    /**
+     * Store given columns of the device. Values are copied immediately, so the object can be modified afterwards.
+     */
+    public void update(Device device, String... columns) {
+        updates.increment();
+        if (!running) {
+            writes.increment();
+            try {
+                storage.updateObject(device, new Request(
+                        new Columns.Include(columns), new Condition.Equals("id", device.getId())));
+            } catch (StorageException e) {
+                LOGGER.warn("Update device state error", e);
+            }
+            return;
+        }
+        pending.compute(device.getId(), (id, update) -> {
+            if (update == null) {
+                update = new PendingUpdate();
+                update.device.setId(id);
+            }
+            copyColumns(device, update.device, columns);
+            update.columns.addAll(List.of(columns));
+            return update;
+        });
+    }
+
+    private static void copyColumns(Device source, Device target, String... columns) {
+        var getters = ReflectionCache.getProperties(Device.class, "get");
+        var setters = ReflectionCache.getProperties(Device.class, "set");
+        for (String column : columns) {
+            try {
+                setters.get(column).method().invoke(target, getters.get(column).method().invoke(source));
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (interval > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "device-state-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+            running = true;
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(interval * 2, TimeUnit.MILLISECONDS);
+            executor = null;
+        }
+        flush();
+    }
+
+    private synchronized void flush() {
+        long startTime = System.currentTimeMillis();
+        Map<Set<String>, List<Device>> batches = new HashMap<>();
+        for (Long deviceId : pending.keySet()) {
+            PendingUpdate update = pending.remove(deviceId);
+            if (update != null) {
+                lagSummary.record(startTime - update.time);
+                batches.computeIfAbsent(update.columns, key -> new ArrayList<>()).add(update.device);
+            }
+        }
+        if (batches.isEmpty()) {
+            return;
+        }
+        for (var entry : batches.entrySet()) {
+            try {
+                storage.updateObjects(entry.getValue(), new Columns.Include(entry.getKey().toArray(String[]::new)));
+                writes.add(entry.getValue().size());
+            } catch (StorageException | RuntimeException e) {
+                LOGGER.warn("Update device state error", e);
+            }
+        }
+        flushTimeSummary.record(System.currentTimeMillis() - startTime);
+    }
+
+}
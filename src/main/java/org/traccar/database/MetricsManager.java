@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Live in-process metrics. Unlike {@link StatisticsManager}, values are never reset and are intended for monitoring.
+ */
+@Singleton
+public class MetricsManager {
+
+    public static final class Summary {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        public void record(long value) {
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+    }
+
+    /**
+     * Distribution of values over fixed buckets. Each bucket counts values less than or equal to its upper bound,
+     * with an extra bucket for values above the last bound.
+     */
+    public static final class Histogram {
+
+        private final long[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder sum = new LongAdder();
+
+        private Histogram(long[] bounds) {
+            this.bounds = bounds;
+            buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long value) {
+            int index = 0;
+            while (index < bounds.length && value > bounds[index]) {
+                index += 1;
+            }
+            buckets[index].increment();
+            sum.add(value);
+        }
+
+        public long[] getBounds() {
+            return bounds;
+        }
+
+        public long[] getCounts() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+    }
+
+    public record LabeledCounter(String label, Map<String, LongAdder> values) {
+    }
+
+    public record LabeledGauge(String label, Supplier<Map<String, Long>> supplier) {
+    }
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LabeledCounter> labeledCounters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LabeledGauge> labeledGauges = new ConcurrentHashMap<>();
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Get or create counter for the given label value. Label name is only used when the counter is created.
+     */
+    public LongAdder counter(String name, String label, String value) {
+        return labeledCounters.computeIfAbsent(name, key -> new LabeledCounter(label, new ConcurrentHashMap<>()))
+                .values().computeIfAbsent(value, key -> new LongAdder());
+    }
+
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Register gauge with multiple values. Supplier returns values keyed by the label value.
+     */
+    public void gauge(String name, String label, Supplier<Map<String, Long>> supplier) {
+        labeledGauges.put(name, new LabeledGauge(label, supplier));
+    }
+
+    public Summary summary(String name) {
+        return summaries.computeIfAbsent(name, key -> new Summary());
+    }
+
+    /**
+     * Get or create histogram with given ascending bucket bounds. Bounds are only used when the histogram is created.
+     */
+    public Histogram histogram(String name, long... bounds) {
+        return histograms.computeIfAbsent(name, key -> new Histogram(bounds.clone()));
+    }
+
+    public Map<String, LongAdder> getCounters() {
+        return counters;
+    }
+
+    public Map<String, LabeledCounter> getLabeledCounters() {
+        return labeledCounters;
+    }
+
+    public Map<String, LongSupplier> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, LabeledGauge> getLabeledGauges() {
+        return labeledGauges;
+    }
+
+    public Map<String, Summary> getSummaries() {
+        return summaries;
+    }
+
+    public Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+}
@@ -22,6 +22,8 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.forward.EventData;
 import org.traccar.forward.EventForwarder;
+import org.traccar.forward.ForwardSpool;
+import org.traccar.forward.ForwardSpoolManager;
 import org.traccar.geocoder.Geocoder;
 import org.traccar.helper.DateUtil;
 import org.traccar.model.Calendar;
@@ -41,6 +43,7 @@ import org.traccar.storage.query.Request;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
@@ -55,6 +58,7 @@ public class NotificationManager {
     private final Storage storage;
     private final CacheManager cacheManager;
     private final EventForwarder eventForwarder;
+    private final ForwardSpool<EventData> spool;
     private final NotificatorManager notificatorManager;
     private final Geocoder geocoder;
 
@@ -65,10 +69,18 @@ public class NotificationManager {
     @Inject
     public NotificationManager(
             Config config, Storage storage, CacheManager cacheManager, @Nullable EventForwarder eventForwarder,
-            NotificatorManager notificatorManager, @Nullable Geocoder geocoder) {
+            NotificatorManager notificatorManager, @Nullable Geocoder geocoder,
+            ForwardSpoolManager spoolManager) throws IOException {
         this.storage = storage;
         this.cacheManager = cacheManager;
         this.eventForwarder = eventForwarder;
+        if (eventForwarder != null && spoolManager.isEnabled()) {
+            spool = spoolManager.create(
+                    "events", EventData.class,
+                    data -> data.getEvent().getDeviceId(), eventForwarder::forward);
+        } else {
+            spool = null;
+        }
         this.notificatorManager = notificatorManager;
         this.geocoder = geocoder;
         geocodeOnRequest = config.getBoolean(Keys.GEOCODER_ON_REQUEST);
@@ -158,6 +170,14 @@ public class NotificationManager {
             if (event.getMaintenanceId() != 0) {
                 eventData.setMaintenance(cacheManager.getObject(Maintenance.class, event.getMaintenanceId()));
             }
+            if (spool != null) {
+                try {
+                    spool.append(eventData);
+                    return;
+                } catch (IOException e) {
+                    LOGGER.warn("Event spooling failed", e);
+                }
+            }
             eventForwarder.forward(eventData, (success, throwable) -> {
                 if (!success) {
                     LOGGER.warn("Event forwarding failed", throwable);
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind position storage. Positions from all channels are grouped into batched inserts limited by size and
+ * delay. A single writer thread is used, so positions are inserted in the order they were accepted.
+ */
+public class PositionBatchWriter implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionBatchWriter.class);
+
+    private record Entry(Position position, Runnable callback) {
+    }
+
+    private final Storage storage;
+    private final int batchSize;
+    private final long delay;
+    private final BlockingQueue<Entry> queue;
+
+    private final MetricsManager.Summary batchSizeSummary;
+    private final MetricsManager.Summary flushLatencySummary;
+    private final LongAdder directWrites;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    public PositionBatchWriter(Config config, Storage storage, MetricsManager metricsManager) {
+        this.storage = storage;
+        batchSize = config.getInteger(Keys.DATABASE_BATCH_SIZE);
+        delay = config.getLong(Keys.DATABASE_BATCH_DELAY);
+        queue = new ArrayBlockingQueue<>(config.getInteger(Keys.DATABASE_BATCH_QUEUE_SIZE));
+
+        batchSizeSummary = metricsManager.summary("database.batch.size");
+        flushLatencySummary = metricsManager.summary("database.batch.latency");
+        directWrites = metricsManager.counter("database.batch.direct");
+        metricsManager.gauge("database.batch.queue", queue::size);
+    }
+
+    /**
+     * Queue position for storage. Callback is executed after the position is stored and its id is assigned. If the
+     * queue is full, the position is stored synchronously on the calling thread.
+     */
+    public void write(Position position, Runnable callback) {
+        Entry entry = new Entry(position, callback);
+        if (!running || !queue.offer(entry)) {
+            directWrites.increment();
+            flush(List.of(entry));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "position-batch-writer");
+        thread.start();
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+            thread = null;
+        }
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry entry = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (entry == null) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.debug("Position batch writer interrupted");
+        } finally {
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        long startTime = System.currentTimeMillis();
+        List<Position> positions = batch.stream().map(Entry::position).toList();
+        try {
+            List<Long> ids = storage.addObjects(positions, new Request(new Columns.Exclude("id")));
+            for (int i = 0; i < positions.size(); i++) {
+                positions.get(i).setId(ids.get(i));
+            }
+        } catch (StorageException | RuntimeException error) {
+            LOGGER.warn("Failed to store positions", error);
+        }
+        batchSizeSummary.record(batch.size());
+        flushLatencySummary.record(System.currentTimeMillis() - startTime);
+        for (Entry entry : batch) {
+            entry.callback().run();
+        }
+    }
+
+}
@@ -37,10 +37,10 @@ import jakarta.ws.rs.core.Form;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Singleton
 public class StatisticsManager {
@@ -49,159 +49,178 @@ public class StatisticsManager {
 
     private static final int SPLIT_MODE = Calendar.DAY_OF_MONTH;
 
+    private static final class Period {
+        private final Set<Long> users = ConcurrentHashMap.newKeySet();
+        private final Map<Long, String> deviceProtocols = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> deviceMessages = new ConcurrentHashMap<>();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder messagesReceived = new LongAdder();
+        private final LongAdder messagesStored = new LongAdder();
+        private final LongAdder mailSent = new LongAdder();
+        private final LongAdder smsSent = new LongAdder();
+        private final LongAdder geocoderRequests = new LongAdder();
+        private final LongAdder geolocationRequests = new LongAdder();
+    }
+
     private final Config config;
     private final Storage storage;
     private final Client client;
     private final ObjectMapper objectMapper;
+    private final MetricsManager metricsManager;
 
-    private final AtomicInteger lastUpdate = new AtomicInteger(Calendar.getInstance().get(SPLIT_MODE));
-
-    private final Set<Long> users = new HashSet<>();
-    private final Map<Long, String> deviceProtocols = new HashMap<>();
-    private final Map<Long, Integer> deviceMessages = new HashMap<>();
-
-    private int requests;
-    private int messagesReceived;
-    private int messagesStored;
-    private int mailSent;
-    private int smsSent;
-    private int geocoderRequests;
-    private int geolocationRequests;
+    private volatile Period period = new Period();
+    private volatile long nextSplit = nextSplit();
 
     @Inject
-    public StatisticsManager(Config config, Storage storage, Client client, ObjectMapper objectMapper) {
+    public StatisticsManager(
+            Config config, Storage storage, Client client, ObjectMapper objectMapper, MetricsManager metricsManager) {
         this.config = config;
         this.storage = storage;
         this.client = client;
         this.objectMapper = objectMapper;
+        this.metricsManager = metricsManager;
     }
 
-    private void checkSplit() {
-        int currentUpdate = Calendar.getInstance().get(SPLIT_MODE);
-        if (lastUpdate.getAndSet(currentUpdate) != currentUpdate) {
-            Statistics statistics = new Statistics();
+    private static long nextSplit() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(SPLIT_MODE, 1);
+        return calendar.getTimeInMillis();
+    }
 
+    private Period currentPeriod() {
+        if (System.currentTimeMillis() >= nextSplit) {
+            Period finished = null;
             synchronized (this) {
-                statistics.setCaptureTime(new Date());
-                statistics.setActiveUsers(users.size());
-                statistics.setActiveDevices(deviceProtocols.size());
-                statistics.setRequests(requests);
-                statistics.setMessagesReceived(messagesReceived);
-                statistics.setMessagesStored(messagesStored);
-                statistics.setMailSent(mailSent);
-                statistics.setSmsSent(smsSent);
-                statistics.setGeocoderRequests(geocoderRequests);
-                statistics.setGeolocationRequests(geolocationRequests);
-                if (!deviceProtocols.isEmpty()) {
-                    Map<String, Integer> protocols = new HashMap<>();
-                    for (String protocol : deviceProtocols.values()) {
-                        protocols.compute(protocol, (key, count) -> count != null ? count + 1 : 1);
-                    }
-                    statistics.setProtocols(protocols);
+                if (System.currentTimeMillis() >= nextSplit) {
+                    finished = period;
+                    period = new Period();
+                    nextSplit = nextSplit();
                 }
-
-                users.clear();
-                deviceProtocols.clear();
-                deviceMessages.clear();
-                requests = 0;
-                messagesReceived = 0;
-                messagesStored = 0;
-                mailSent = 0;
-                smsSent = 0;
-                geocoderRequests = 0;
-                geolocationRequests = 0;
             }
+            if (finished != null) {
+                saveStatistics(finished);
+            }
+        }
+        return period;
+    }
 
-            try {
-                storage.addObject(statistics, new Request(new Columns.Exclude("id")));
-            } catch (StorageException e) {
-                LOGGER.warn("Error saving statistics", e);
+    private void saveStatistics(Period finished) {
+        Statistics statistics = new Statistics();
+        statistics.setCaptureTime(new Date());
+        statistics.setActiveUsers(finished.users.size());
+        statistics.setActiveDevices(finished.deviceProtocols.size());
+        statistics.setRequests(finished.requests.intValue());
+        statistics.setMessagesReceived(finished.messagesReceived.intValue());
+        statistics.setMessagesStored(finished.messagesStored.intValue());
+        statistics.setMailSent(finished.mailSent.intValue());
+        statistics.setSmsSent(finished.smsSent.intValue());
+        statistics.setGeocoderRequests(finished.geocoderRequests.intValue());
+        statistics.setGeolocationRequests(finished.geolocationRequests.intValue());
+        if (!finished.deviceProtocols.isEmpty()) {
+            Map<String, Integer> protocols = new HashMap<>();
+            for (String protocol : finished.deviceProtocols.values()) {
+                protocols.merge(protocol, 1, Integer::sum);
             }
+            statistics.setProtocols(protocols);
+        }
+
+        try {
+            storage.addObject(statistics, new Request(new Columns.Exclude("id")));
+        } catch (StorageException e) {
+            LOGGER.warn("Error saving statistics", e);
+        }
 
-            String url = config.getString(Keys.SERVER_STATISTICS);
-            if (url != null && !url.isEmpty()) {
-                String time = DateUtil.formatDate(statistics.getCaptureTime());
-
-                Form form = new Form();
-                form.param("version", getClass().getPackage().getImplementationVersion());
-                form.param("captureTime", time);
-                form.param("activeUsers", String.valueOf(statistics.getActiveUsers()));
-                form.param("activeDevices", String.valueOf(statistics.getActiveDevices()));
-                form.param("requests", String.valueOf(statistics.getRequests()));
-                form.param("messagesReceived", String.valueOf(statistics.getMessagesReceived()));
-                form.param("messagesStored", String.valueOf(statistics.getMessagesStored()));
-                form.param("mailSent", String.valueOf(statistics.getMailSent()));
-                form.param("smsSent", String.valueOf(statistics.getSmsSent()));
-                form.param("geocoderRequests", String.valueOf(statistics.getGeocoderRequests()));
-                form.param("geolocationRequests", String.valueOf(statistics.getGeolocationRequests()));
-                if (statistics.getProtocols() != null) {
-                    try {
-                        form.param("protocols", objectMapper.writeValueAsString(statistics.getProtocols()));
-                    } catch (JsonProcessingException e) {
-                        LOGGER.warn("Failed to serialize protocols", e);
-                    }
+        String url = config.getString(Keys.SERVER_STATISTICS);
+        if (url != null && !url.isEmpty()) {
+            String time = DateUtil.formatDate(statistics.getCaptureTime());
+
+            Form form = new Form();
+            form.param("version", getClass().getPackage().getImplementationVersion());
+            form.param("captureTime", time);
+            form.param("activeUsers", String.valueOf(statistics.getActiveUsers()));
+            form.param("activeDevices", String.valueOf(statistics.getActiveDevices()));
+            form.param("requests", String.valueOf(statistics.getRequests()));
+            form.param("messagesReceived", String.valueOf(statistics.getMessagesReceived()));
+            form.param("messagesStored", String.valueOf(statistics.getMessagesStored()));
+            form.param("mailSent", String.valueOf(statistics.getMailSent()));
+            form.param("smsSent", String.valueOf(statistics.getSmsSent()));
+            form.param("geocoderRequests", String.valueOf(statistics.getGeocoderRequests()));
+            form.param("geolocationRequests", String.valueOf(statistics.getGeolocationRequests()));
+            if (statistics.getProtocols() != null) {
+                try {
+                    form.param("protocols", objectMapper.writeValueAsString(statistics.getProtocols()));
+                } catch (JsonProcessingException e) {
+                    LOGGER.warn("Failed to serialize protocols", e);
                 }
-                if (!statistics.getAttributes().isEmpty()) {
-                    try {
-                        form.param("attributes", objectMapper.writeValueAsString(statistics.getAttributes()));
-                    } catch (JsonProcessingException e) {
-                        LOGGER.warn("Failed to serialize attributes", e);
-                    }
+            }
+            if (!statistics.getAttributes().isEmpty()) {
+                try {
+                    form.param("attributes", objectMapper.writeValueAsString(statistics.getAttributes()));
+                } catch (JsonProcessingException e) {
+                    LOGGER.warn("Failed to serialize attributes", e);
                 }
-
-                client.target(url).request().async().post(Entity.form(form));
             }
+
+            client.target(url).request().async().post(Entity.form(form));
         }
     }
 
-    public synchronized void registerRequest(long userId) {
-        checkSplit();
-        requests += 1;
+    public void registerRequest(long userId) {
+        Period current = currentPeriod();
+        current.requests.increment();
         if (userId != 0 && userId != ServiceAccountUser.ID) {
-            users.add(userId);
+            current.users.add(userId);
         }
     }
 
-    public synchronized void registerMessageReceived() {
-        checkSplit();
-        messagesReceived += 1;
+    public void registerMessageReceived(String protocol) {
+        currentPeriod().messagesReceived.increment();
+        if (protocol != null) {
+            metricsManager.counter("messages.received", "protocol", protocol).increment();
+        }
     }
 
-    public synchronized void registerMessageStored(long deviceId, String protocol) {
-        checkSplit();
-        messagesStored += 1;
+    public void registerMessageStored(long deviceId, String protocol) {
+        Period current = currentPeriod();
+        current.messagesStored.increment();
         if (deviceId != 0) {
-            deviceProtocols.put(deviceId, protocol);
-            deviceMessages.merge(deviceId, 1, Integer::sum);
+            if (protocol != null) {
+                current.deviceProtocols.put(deviceId, protocol);
+            }
+            current.deviceMessages.computeIfAbsent(deviceId, key -> new LongAdder()).increment();
+        }
+        if (protocol != null) {
+            metricsManager.counter("messages.stored", "protocol", protocol).increment();
         }
     }
 
-    public synchronized int messageStoredCount() {
-        return messagesStored;
+    public int messageStoredCount() {
+        return period.messagesStored.intValue();
     }
 
-    public synchronized int messageStoredCount(long deviceId) {
-        return deviceMessages.getOrDefault(deviceId, 0);
+    public int messageStoredCount(long deviceId) {
+        LongAdder messages = period.deviceMessages.get(deviceId);
+        return messages != null ? messages.intValue() : 0;
     }
 
-    public synchronized void registerMail() {
-        checkSplit();
-        mailSent += 1;
+    public void registerMail() {
+        currentPeriod().mailSent.increment();
     }
 
-    public synchronized void registerSms() {
-        checkSplit();
-        smsSent += 1;
+    public void registerSms() {
+        currentPeriod().smsSent.increment();
     }
 
-    public synchronized void registerGeocoderRequest() {
-        checkSplit();
-        geocoderRequests += 1;
+    public void registerGeocoderRequest() {
+        currentPeriod().geocoderRequests.increment();
     }
 
-    public synchronized void registerGeolocationRequest() {
-        checkSplit();
-        geolocationRequests += 1;
+    public void registerGeolocationRequest() {
+        currentPeriod().geolocationRequests.increment();
     }
 
 }
@@ -20,6 +20,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 
@@ -27,30 +30,46 @@ import java.util.Properties;
 
 public class EventForwarderKafka implements EventForwarder {
 
-    private final Producer<String, String> producer;
+    private final Producer<String, byte[]> producer;
     private final ObjectMapper objectMapper;
 
     private final String topic;
+    private final boolean protobuf;
 
     public EventForwarderKafka(Config config, ObjectMapper objectMapper) {
+        this(config, objectMapper, createProducer(config));
+    }
+
+    EventForwarderKafka(Config config, ObjectMapper objectMapper, Producer<String, byte[]> producer) {
         this.objectMapper = objectMapper;
+        this.producer = producer;
+        topic = config.getString(Keys.EVENT_FORWARD_TOPIC);
+        protobuf = config.getString(Keys.EVENT_FORWARD_KAFKA_FORMAT).equals("protobuf");
+    }
+
+    private static Producer<String, byte[]> createProducer(Config config) {
         Properties properties = new Properties();
         properties.put("bootstrap.servers", config.getString(Keys.EVENT_FORWARD_URL));
         properties.put("acks", "all");
-        properties.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        properties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        producer = new KafkaProducer<>(properties);
-        topic = config.getString(Keys.EVENT_FORWARD_TOPIC);
+        properties.put("linger.ms", config.getInteger(Keys.EVENT_FORWARD_KAFKA_LINGER));
+        properties.put("batch.size", config.getInteger(Keys.EVENT_FORWARD_KAFKA_BATCH_SIZE));
+        properties.put("compression.type", config.getString(Keys.EVENT_FORWARD_KAFKA_COMPRESSION));
+        properties.put("key.serializer", StringSerializer.class.getName());
+        properties.put("value.serializer", ByteArraySerializer.class.getName());
+        return new KafkaProducer<>(properties);
     }
 
     @Override
     public void forward(EventData eventData, ResultHandler resultHandler) {
         try {
             String key = Long.toString(eventData.getDevice().getId());
-            String value = objectMapper.writeValueAsString(eventData);
-            producer.send(new ProducerRecord<>(topic, key, value));
-            resultHandler.onResult(true, null);
-        } catch (JsonProcessingException e) {
+            byte[] value = protobuf
+                    ? ForwardProtobufEncoder.encode(eventData)
+                    : objectMapper.writeValueAsBytes(eventData);
+            producer.send(
+                    new ProducerRecord<>(topic, key, value),
+                    (metadata, exception) -> resultHandler.onResult(exception == null, exception));
+        } catch (JsonProcessingException | KafkaException e) {
             resultHandler.onResult(false, e);
         }
     }
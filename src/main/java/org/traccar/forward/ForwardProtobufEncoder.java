@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.Position;
+import org.traccar.protobuf.forward.ForwardMessages;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary encoding of forwarded data, defined in ForwardMessages.proto. Times are milliseconds since epoch,
+ * missing values are left at protobuf defaults.
+ */
+public final class ForwardProtobufEncoder {
+
+    private ForwardProtobufEncoder() {
+    }
+
+    public static byte[] encode(PositionData positionData) {
+        var builder = ForwardMessages.PositionData.newBuilder();
+        if (positionData.getPosition() != null) {
+            builder.setPosition(encodePosition(positionData.getPosition()));
+        }
+        if (positionData.getDevice() != null) {
+            builder.setDevice(encodeDevice(positionData.getDevice()));
+        }
+        return builder.build().toByteArray();
+    }
+
+    public static byte[] encode(EventData eventData) {
+        var builder = ForwardMessages.EventData.newBuilder();
+        if (eventData.getEvent() != null) {
+            builder.setEvent(encodeEvent(eventData.getEvent()));
+        }
+        if (eventData.getPosition() != null) {
+            builder.setPosition(encodePosition(eventData.getPosition()));
+        }
+        if (eventData.getDevice() != null) {
+            builder.setDevice(encodeDevice(eventData.getDevice()));
+        }
+        if (eventData.getGeofence() != null) {
+            builder.setGeofenceId(eventData.getGeofence().getId());
+            setString(builder::setGeofenceName, eventData.getGeofence().getName());
+        }
+        if (eventData.getMaintenance() != null) {
+            builder.setMaintenanceId(eventData.getMaintenance().getId());
+            setString(builder::setMaintenanceName, eventData.getMaintenance().getName());
+        }
+        return builder.build().toByteArray();
+    }
+
+    private static ForwardMessages.Position encodePosition(Position position) {
+        var builder = ForwardMessages.Position.newBuilder()
+                .setId(position.getId())
+                .setDeviceId(position.getDeviceId())
+                .setServerTime(getTime(position.getServerTime()))
+                .setDeviceTime(getTime(position.getDeviceTime()))
+                .setFixTime(getTime(position.getFixTime()))
+                .setOutdated(position.getOutdated())
+                .setValid(position.getValid())
+                .setLatitude(position.getLatitude())
+                .setLongitude(position.getLongitude())
+                .setAltitude(position.getAltitude())
+                .setSpeed(position.getSpeed())
+                .setCourse(position.getCourse())
+                .setAccuracy(position.getAccuracy());
+        setString(builder::setProtocol, position.getProtocol());
+        setString(builder::setAddress, position.getAddress());
+        if (position.getGeofenceIds() != null) {
+            builder.addAllGeofenceIds(position.getGeofenceIds());
+        }
+        encodeAttributes(position.getAttributes(), builder::putAttributes);
+        return builder.build();
+    }
+
+    private static ForwardMessages.Device encodeDevice(Device device) {
+        var builder = ForwardMessages.Device.newBuilder()
+                .setId(device.getId())
+                .setLastUpdate(getTime(device.getLastUpdate()))
+                .setPositionId(device.getPositionId())
+                .setGroupId(device.getGroupId())
+                .setDisabled(device.getDisabled());
+        setString(builder::setName, device.getName());
+        setString(builder::setUniqueId, device.getUniqueId());
+        setString(builder::setStatus, device.getStatus());
+        setString(builder::setPhone, device.getPhone());
+        setString(builder::setModel, device.getModel());
+        setString(builder::setContact, device.getContact());
+        setString(builder::setCategory, device.getCategory());
+        encodeAttributes(device.getAttributes(), builder::putAttributes);
+        return builder.build();
+    }
+
+    private static ForwardMessages.Event encodeEvent(Event event) {
+        var builder = ForwardMessages.Event.newBuilder()
+                .setId(event.getId())
+                .setEventTime(getTime(event.getEventTime()))
+                .setDeviceId(event.getDeviceId())
+                .setPositionId(event.getPositionId())
+                .setGeofenceId(event.getGeofenceId())
+                .setMaintenanceId(event.getMaintenanceId());
+        setString(builder::setType, event.getType());
+        encodeAttributes(event.getAttributes(), builder::putAttributes);
+        return builder.build();
+    }
+
+    private static void encodeAttributes(
+            Map<String, Object> attributes, BiConsumer<String, ForwardMessages.AttributeValue> consumer) {
+        if (attributes == null) {
+            return;
+        }
+        for (var entry : attributes.entrySet()) {
+            Object value = entry.getValue();
+            var builder = ForwardMessages.AttributeValue.newBuilder();
+            if (value == null) {
+                continue;
+            } else if (value instanceof Boolean booleanValue) {
+                builder.setBoolValue(booleanValue);
+            } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+                builder.setDoubleValue(((Number) value).doubleValue());
+            } else if (value instanceof BigInteger bigInteger && bigInteger.bitLength() >= Long.SIZE) {
+                builder.setStringValue(value.toString());
+            } else if (value instanceof Number number) {
+                builder.setLongValue(number.longValue());
+            } else {
+                builder.setStringValue(value.toString());
+            }
+            consumer.accept(entry.getKey(), builder.build());
+        }
+    }
+
+    private static void setString(Consumer<String> setter, String value) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static long getTime(Date date) {
+        return date != null ? date.getTime() : 0;
+    }
+
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.model.ExtendedModel;
+import org.traccar.model.Position;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Durable forwarding queue stored in memory-mapped segment files. Records are appended in arrival order and marked
+ * as delivered in place, so pending records survive restarts. Records for the same device are delivered one at a
+ * time in order, retrying with a growing delay until the downstream accepts them. Segments are deleted once all
+ * their records are delivered.
+ * <p>
+ * Records are stored with attribute value types and internal position fields, so delivered data matches the original
+ * objects rather than their public JSON form.
+ */
+public class ForwardSpool<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ForwardSpool.class);
+
+    public interface Sender<T> {
+        void send(T data, ResultHandler resultHandler);
+    }
+
+    private static final String EXTENSION = ".spool";
+
+    // status (1), payload length (4), device id (8), append time (8)
+    private static final int HEADER_SIZE = 21;
+
+    private static final byte STATUS_EMPTY = 0;
+    private static final byte STATUS_PENDING = 1;
+    private static final byte STATUS_DELIVERED = 2;
+
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+    private static final long IDLE_WAIT = TimeUnit.SECONDS.toMillis(1);
+
+    private abstract static class AttributesMixIn {
+        @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.WRAPPER_ARRAY)
+        public abstract Map<String, Object> getAttributes();
+
+        @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.WRAPPER_ARRAY)
+        public abstract void setAttributes(Map<String, Object> attributes);
+    }
+
+    private abstract static class PositionMixIn {
+        @JsonIgnore(false)
+        @JsonProperty
+        public abstract boolean getOutdated();
+
+        @JsonIgnore(false)
+        @JsonProperty
+        public abstract void setOutdated(boolean outdated);
+
+        @JsonIgnore(false)
+        @JsonProperty
+        public abstract String getType();
+
+        @JsonIgnore(false)
+        @JsonProperty
+        public abstract void setType(String type);
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private int pending;
+        private boolean dirty;
+        private boolean sealed;
+        private boolean read;
+
+        private Segment(long index, Path path, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private record Record(Segment segment, int offset, int length, long deviceId, long time) {
+    }
+
+    private static final class Lane {
+        private final Deque<Record> records = new ArrayDeque<>();
+        private boolean busy;
+        private int failures;
+        private long retryTime;
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final ToLongFunction<T> deviceIdFunction;
+    private final Sender<T> sender;
+
+    private final int segmentSize;
+    private final int batchSize;
+    private final int concurrency;
+    private final long retryDelay;
+    private final long syncInterval;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<Long, Lane> lanes = new LinkedHashMap<>();
+    private Segment writeSegment;
+    private Segment readSegment;
+    private int readPosition;
+    private long nextIndex;
+    private int loaded;
+    private int busy;
+    private long pending;
+    private long syncTime;
+
+    private final LongAdder delivered;
+    private final LongAdder failed;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public ForwardSpool(
+            Config config, ObjectMapper objectMapper, MetricsManager metricsManager, String name,
+            Class<T> type, ToLongFunction<T> deviceIdFunction, Sender<T> sender) throws IOException {
+        this.objectMapper = objectMapper.copy()
+                .addMixIn(ExtendedModel.class, AttributesMixIn.class)
+                .addMixIn(Position.class, PositionMixIn.class)
+                .setPolymorphicTypeValidator(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("java.lang.")
+                        .allowIfSubType("java.math.")
+                        .allowIfSubType("java.util.")
+                        .build());
+        this.type = type;
+        this.deviceIdFunction = deviceIdFunction;
+        this.sender = sender;
+        directory = Paths.get(config.getString(Keys.FORWARD_SPOOL_PATH), name);
+        segmentSize = config.getInteger(Keys.FORWARD_SPOOL_SEGMENT_SIZE);
+        batchSize = config.getInteger(Keys.FORWARD_SPOOL_BATCH_SIZE);
+        concurrency = config.getInteger(Keys.FORWARD_SPOOL_CONCURRENCY);
+        retryDelay = config.getInteger(Keys.FORWARD_RETRY_DELAY);
+        syncInterval = config.getLong(Keys.FORWARD_SPOOL_SYNC_INTERVAL);
+
+        recover();
+
+        String prefix = "forward." + name + ".spool.";
+        delivered = metricsManager.counter(prefix + "delivered");
+        failed = metricsManager.counter(prefix + "failed");
+        metricsManager.gauge(prefix + "depth", this::getDepth);
+        metricsManager.gauge(prefix + "age", this::getAge);
+        metricsManager.gauge(prefix + "segments", this::getSegmentCount);
+
+        thread = new Thread(this::run, "forward-spool-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).sorted().toList();
+        }
+        for (Path path : paths) {
+            String fileName = path.getFileName().toString();
+            long index = Long.parseLong(fileName.substring(0, fileName.length() - EXTENSION.length()));
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            int position = 0;
+            while (position + HEADER_SIZE <= buffer.capacity() && buffer.get(position) != STATUS_EMPTY) {
+                int next = position + HEADER_SIZE + buffer.getInt(position + 1);
+                if (next > buffer.capacity()) {
+                    break; // incomplete record
+                }
+                if (buffer.get(position) == STATUS_PENDING) {
+                    segment.pending += 1;
+                }
+                position = next;
+            }
+            segment.writePosition = position;
+            segment.sealed = true;
+            nextIndex = index + 1;
+            if (segment.pending > 0) {
+                segments.put(index, segment);
+                pending += segment.pending;
+            } else {
+                Files.delete(path);
+            }
+        }
+        if (!segments.isEmpty()) {
+            readSegment = segments.firstEntry().getValue();
+            LOGGER.info("Forwarding spool {} recovered {} pending records", directory, pending);
+        }
+    }
+
+    private Segment createSegment(int size) throws IOException {
+        long index = nextIndex++;
+        Path path = directory.resolve(String.format("%020d%s", index, EXTENSION));
+        Segment segment;
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = new Segment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+        segments.put(index, segment);
+        if (readSegment == null) {
+            readSegment = segment;
+            readPosition = 0;
+        }
+        return segment;
+    }
+
+    /**
+     * Store record for delivery. Returns after the record is written to the mapped segment.
+     */
+    public void append(T data) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(data);
+        int size = HEADER_SIZE + payload.length;
+        synchronized (this) {
+            if (writeSegment == null || writeSegment.writePosition + size > writeSegment.buffer.capacity()) {
+                if (writeSegment != null) {
+                    writeSegment.sealed = true;
+                    removeCompleted(writeSegment);
+                }
+                writeSegment = createSegment(Math.max(segmentSize, size));
+            }
+            MappedByteBuffer buffer = writeSegment.buffer;
+            int offset = writeSegment.writePosition;
+            buffer.putInt(offset + 1, payload.length);
+            buffer.putLong(offset + 5, deviceIdFunction.applyAsLong(data));
+            buffer.putLong(offset + 13, System.currentTimeMillis());
+            buffer.put(offset + HEADER_SIZE, payload);
+            buffer.put(offset, STATUS_PENDING);
+            writeSegment.writePosition += size;
+            writeSegment.pending += 1;
+            pending += 1;
+            if (syncInterval <= 0 || !running) {
+                buffer.force();
+            } else {
+                writeSegment.dirty = true;
+            }
+            notifyAll();
+        }
+    }
+
+    private void removeCompleted(Segment segment) {
+        if (segment.sealed && segment.read && segment.pending == 0) {
+            segments.remove(segment.index);
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                LOGGER.warn("Forwarding spool segment delete error", e);
+            }
+        }
+    }
+
+    private void load() {
+        while (loaded < batchSize && readSegment != null) {
+            MappedByteBuffer buffer = readSegment.buffer;
+            if (readPosition < readSegment.writePosition) {
+                int length = buffer.getInt(readPosition + 1);
+                if (buffer.get(readPosition) == STATUS_PENDING) {
+                    Record record = new Record(
+                            readSegment, readPosition, length,
+                            buffer.getLong(readPosition + 5), buffer.getLong(readPosition + 13));
+                    lanes.computeIfAbsent(record.deviceId(), key -> new Lane()).records.add(record);
+                    loaded += 1;
+                }
+                readPosition += HEADER_SIZE + length;
+            } else if (readSegment.sealed) {
+                Segment segment = readSegment;
+                segment.read = true;
+                var next = segments.higherEntry(segment.index);
+                readSegment = next != null ? next.getValue() : null;
+                readPosition = 0;
+                removeCompleted(segment);
+            } else {
+                break;
+            }
+        }
+    }
+
+    private List<Record> dispatch(long now) {
+        List<Record> records = new ArrayList<>();
+        Iterator<Lane> iterator = lanes.values().iterator();
+        while (iterator.hasNext() && busy < concurrency) {
+            Lane lane = iterator.next();
+            if (!lane.busy && lane.retryTime <= now) {
+                lane.busy = true;
+                busy += 1;
+                records.add(lane.records.peek());
+            }
+        }
+        return records;
+    }
+
+    private List<MappedByteBuffer> collectDirty(long now) {
+        List<MappedByteBuffer> buffers = new ArrayList<>();
+        if (syncInterval > 0 && now - syncTime >= syncInterval) {
+            syncTime = now;
+            for (Segment segment : segments.values()) {
+                if (segment.dirty) {
+                    segment.dirty = false;
+                    buffers.add(segment.buffer);
+                }
+            }
+        }
+        return buffers;
+    }
+
+    private long nextWakeup(long now) {
+        long wait = IDLE_WAIT;
+        if (syncInterval > 0) {
+            wait = Math.min(wait, syncTime + syncInterval - now);
+        }
+        for (Lane lane : lanes.values()) {
+            if (!lane.busy && lane.retryTime > now) {
+                wait = Math.min(wait, lane.retryTime - now);
+            }
+        }
+        return Math.max(wait, 1);
+    }
+
+    private synchronized void complete(Record record, boolean success, Throwable throwable) {
+        Lane lane = lanes.get(record.deviceId());
+        lane.busy = false;
+        busy -= 1;
+        if (success) {
+            delivered.increment();
+            lane.records.poll();
+            lane.failures = 0;
+            lane.retryTime = 0;
+            if (lane.records.isEmpty()) {
+                lanes.remove(record.deviceId());
+            }
+            loaded -= 1;
+            pending -= 1;
+            Segment segment = record.segment();
+            segment.buffer.put(record.offset(), STATUS_DELIVERED);
+            segment.pending -= 1;
+            segment.dirty = true;
+            removeCompleted(segment);
+        } else {
+            failed.increment();
+            long delay = retryDelay << Math.min(lane.failures, 20);
+            lane.failures += 1;
+            lane.retryTime = System.currentTimeMillis() + Math.min(delay, MAX_RETRY_DELAY);
+            LOGGER.warn("Spooled forwarding failed: {} pending", pending, throwable);
+        }
+        notifyAll();
+    }
+
+    private void send(Record record) {
+        T data;
+        try {
+            byte[] payload = new byte[record.length()];
+            record.segment().buffer.get(record.offset() + HEADER_SIZE, payload);
+            data = objectMapper.readValue(payload, type);
+        } catch (IOException e) {
+            LOGGER.warn("Spooled record decoding failed", e);
+            complete(record, true, null);
+            return;
+        }
+        try {
+            sender.send(data, (success, throwable) -> complete(record, success, throwable));
+        } catch (RuntimeException e) {
+            complete(record, false, e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                List<Record> records;
+                List<MappedByteBuffer> dirty;
+                synchronized (this) {
+                    long now = System.currentTimeMillis();
+                    load();
+                    dirty = collectDirty(now);
+                    records = dispatch(now);
+                    if (records.isEmpty() && dirty.isEmpty()) {
+                        wait(nextWakeup(now));
+                    }
+                }
+                dirty.forEach(MappedByteBuffer::force);
+                records.forEach(this::send);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.debug("Forwarding spool interrupted");
+        }
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+        synchronized (this) {
+            for (Segment segment : segments.values()) {
+                segment.dirty = false;
+                segment.buffer.force();
+            }
+        }
+    }
+
+    public synchronized long getDepth() {
+        return pending;
+    }
+
+    /**
+     * Age in milliseconds of the oldest record waiting for delivery.
+     */
+    public synchronized long getAge() {
+        long oldest = Long.MAX_VALUE;
+        for (Lane lane : lanes.values()) {
+            Record record = lane.records.peek();
+            if (record != null) {
+                oldest = Math.min(oldest, record.time());
+            }
+        }
+        return oldest != Long.MAX_VALUE ? System.currentTimeMillis() - oldest : 0;
+    }
+
+    public synchronized long getSegmentCount() {
+        return segments.size();
+    }
+
+}
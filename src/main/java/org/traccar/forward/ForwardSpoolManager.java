@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * Creates forwarding spools and stops them on shutdown, so pending records are flushed to disk.
+ */
+@Singleton
+public class ForwardSpoolManager implements LifecycleObject {
+
+    private final Config config;
+    private final ObjectMapper objectMapper;
+    private final MetricsManager metricsManager;
+
+    private final List<ForwardSpool<?>> spools = new CopyOnWriteArrayList<>();
+
+    @Inject
+    public ForwardSpoolManager(Config config, ObjectMapper objectMapper, MetricsManager metricsManager) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.metricsManager = metricsManager;
+    }
+
+    public boolean isEnabled() {
+        return config.hasKey(Keys.FORWARD_SPOOL_PATH);
+    }
+
+    public <T> ForwardSpool<T> create(
+            String name, Class<T> type, ToLongFunction<T> deviceIdFunction,
+            ForwardSpool.Sender<T> sender) throws IOException {
+        ForwardSpool<T> spool = new ForwardSpool<>(
+                config, objectMapper, metricsManager, name, type, deviceIdFunction, sender);
+        spools.add(spool);
+        return spool;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        for (ForwardSpool<?> spool : spools) {
+            spool.stop();
+        }
+    }
+
+}
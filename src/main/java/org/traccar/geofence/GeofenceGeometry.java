@@ -59,8 +59,23 @@ public abstract class GeofenceGeometry {
         }
     }
 
+    public Coordinate getMin() {
+        return min;
+    }
+
+    public Coordinate getMax() {
+        return max;
+    }
+
+    /**
+     * Whether bounding box can be used to exclude points. It is not used for areas crossing the prime meridian.
+     */
+    public boolean hasBoundary() {
+        return min.lon >= 0 || max.lon < 0;
+    }
+
     public boolean containsPoint(double latitude, double longitude) {
-        if (min.lon >= 0 || max.lon < 0) {
+        if (hasBoundary()) {
             if (latitude < min.lat || latitude > max.lat) {
                 return false;
             }
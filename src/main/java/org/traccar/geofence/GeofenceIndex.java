@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geofence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable R-tree over geofence bounding boxes, bulk loaded using Sort-Tile-Recursive packing. Geometries without a
+ * usable bounding box are always checked directly.
+ */
+public class GeofenceIndex {
+
+    private static final int NODE_SIZE = 16;
+
+    private final long[] ids;
+    private final GeofenceGeometry[] geometries;
+    private final List<double[]> levels = new ArrayList<>();
+
+    private final long[] unboundedIds;
+    private final GeofenceGeometry[] unboundedGeometries;
+
+    public GeofenceIndex(Map<Long, GeofenceGeometry> geofences) {
+        List<Map.Entry<Long, GeofenceGeometry>> bounded = new ArrayList<>();
+        List<Map.Entry<Long, GeofenceGeometry>> unbounded = new ArrayList<>();
+        for (var entry : geofences.entrySet()) {
+            if (entry.getValue().hasBoundary()) {
+                bounded.add(entry);
+            } else {
+                unbounded.add(entry);
+            }
+        }
+
+        unboundedIds = new long[unbounded.size()];
+        unboundedGeometries = new GeofenceGeometry[unbounded.size()];
+        for (int i = 0; i < unbounded.size(); i++) {
+            unboundedIds[i] = unbounded.get(i).getKey();
+            unboundedGeometries[i] = unbounded.get(i).getValue();
+        }
+
+        int count = bounded.size();
+        int leafCount = (count + NODE_SIZE - 1) / NODE_SIZE;
+        int sliceSize = (int) Math.ceil(Math.sqrt(leafCount)) * NODE_SIZE;
+        bounded.sort(Comparator.comparingDouble(entry -> centerLongitude(entry.getValue())));
+        for (int i = 0; i < count; i += sliceSize) {
+            bounded.subList(i, Math.min(i + sliceSize, count))
+                    .sort(Comparator.comparingDouble(entry -> centerLatitude(entry.getValue())));
+        }
+
+        ids = new long[count];
+        geometries = new GeofenceGeometry[count];
+        double[] level = new double[count * 4];
+        for (int i = 0; i < count; i++) {
+            GeofenceGeometry geometry = bounded.get(i).getValue();
+            ids[i] = bounded.get(i).getKey();
+            geometries[i] = geometry;
+            level[i * 4] = geometry.getMin().lat();
+            level[i * 4 + 1] = geometry.getMin().lon();
+            level[i * 4 + 2] = geometry.getMax().lat();
+            level[i * 4 + 3] = geometry.getMax().lon();
+        }
+
+        if (count > 0) {
+            levels.add(level);
+        }
+        while (level.length > 4) {
+            int childCount = level.length / 4;
+            double[] parent = new double[(childCount + NODE_SIZE - 1) / NODE_SIZE * 4];
+            for (int i = 0; i < parent.length / 4; i++) {
+                double minLat = Double.POSITIVE_INFINITY;
+                double minLon = Double.POSITIVE_INFINITY;
+                double maxLat = Double.NEGATIVE_INFINITY;
+                double maxLon = Double.NEGATIVE_INFINITY;
+                for (int child = i * NODE_SIZE; child < Math.min((i + 1) * NODE_SIZE, childCount); child++) {
+                    minLat = Math.min(minLat, level[child * 4]);
+                    minLon = Math.min(minLon, level[child * 4 + 1]);
+                    maxLat = Math.max(maxLat, level[child * 4 + 2]);
+                    maxLon = Math.max(maxLon, level[child * 4 + 3]);
+                }
+                parent[i * 4] = minLat;
+                parent[i * 4 + 1] = minLon;
+                parent[i * 4 + 2] = maxLat;
+                parent[i * 4 + 3] = maxLon;
+            }
+            levels.add(parent);
+            level = parent;
+        }
+    }
+
+    private static double centerLatitude(GeofenceGeometry geometry) {
+        return (geometry.getMin().lat() + geometry.getMax().lat()) / 2;
+    }
+
+    private static double centerLongitude(GeofenceGeometry geometry) {
+        return (geometry.getMin().lon() + geometry.getMax().lon()) / 2;
+    }
+
+    public int size() {
+        return ids.length + unboundedIds.length;
+    }
+
+    public List<Long> find(double latitude, double longitude) {
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < unboundedIds.length; i++) {
+            if (unboundedGeometries[i].containsPoint(latitude, longitude)) {
+                result.add(unboundedIds[i]);
+            }
+        }
+        if (!levels.isEmpty()) {
+            search(levels.size() - 1, 0, latitude, longitude, result);
+        }
+        return result;
+    }
+
+    private void search(int level, int index, double latitude, double longitude, List<Long> result) {
+        double[] boxes = levels.get(level);
+        int offset = index * 4;
+        if (latitude < boxes[offset] || longitude < boxes[offset + 1]
+                || latitude > boxes[offset + 2] || longitude > boxes[offset + 3]) {
+            return;
+        }
+        if (level == 0) {
+            if (geometries[index].containsPoint(latitude, longitude)) {
+                result.add(ids[index]);
+            }
+        } else {
+            int childCount = levels.get(level - 1).length / 4;
+            for (int child = index * NODE_SIZE; child < Math.min((index + 1) * NODE_SIZE, childCount); child++) {
+                search(level - 1, child, latitude, longitude, result);
+            }
+        }
+    }
+
+}
@@ -27,7 +27,9 @@ import java.util.List;
 
 public class GeofencePolygon extends GeofenceGeometry {
 
-    private final List<Coordinate> coordinates;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] normalizedLongitudes;
 
     private final double[] constant;
     private final double[] multiple;
@@ -35,39 +37,47 @@ public class GeofencePolygon extends GeofenceGeometry {
     private final boolean needNormalize;
 
     public GeofencePolygon(String wkt) throws ParseException {
-        coordinates = fromWkt(wkt);
+        List<Coordinate> coordinates = fromWkt(wkt);
         calculateBoundary(coordinates, 0);
 
         int polyCorners = coordinates.size();
         int i;
         int j = polyCorners - 1;
 
+        latitudes = new double[polyCorners];
+        longitudes = new double[polyCorners];
+        normalizedLongitudes = new double[polyCorners];
         constant = new double[polyCorners];
         multiple = new double[polyCorners];
 
         boolean hasNegative = false;
         boolean hasPositive = false;
         for (i = 0; i < polyCorners; i++) {
-            if (coordinates.get(i).lon() > 90) {
+            latitudes[i] = coordinates.get(i).lat();
+            longitudes[i] = coordinates.get(i).lon();
+            if (longitudes[i] > 90) {
                 hasPositive = true;
-            } else if (coordinates.get(i).lon() < -90) {
+            } else if (longitudes[i] < -90) {
                 hasNegative = true;
             }
         }
         needNormalize = hasPositive && hasNegative;
 
+        for (i = 0; i < polyCorners; i++) {
+            normalizedLongitudes[i] = normalizeLon(longitudes[i]);
+        }
+
         for (i = 0; i < polyCorners; j = i++) {
-            if (normalizeLon(coordinates.get(j).lon()) == normalizeLon(coordinates.get(i).lon())) {
-                constant[i] = coordinates.get(i).lon();
+            double lonI = normalizedLongitudes[i];
+            double lonJ = normalizedLongitudes[j];
+            if (lonJ == lonI) {
+                constant[i] = longitudes[i];
                 multiple[i] = 0;
             } else {
-                constant[i] = coordinates.get(i).lat()
-                        - (normalizeLon(coordinates.get(i).lon()) * coordinates.get(j).lat())
-                        / (normalizeLon(coordinates.get(j).lon()) - normalizeLon(coordinates.get(i).lon()))
-                        + (normalizeLon(coordinates.get(i).lon()) * coordinates.get(i).lat())
-                        / (normalizeLon(coordinates.get(j).lon()) - normalizeLon(coordinates.get(i).lon()));
-                multiple[i] = (coordinates.get(j).lat() - coordinates.get(i).lat())
-                        / (normalizeLon(coordinates.get(j).lon()) - normalizeLon(coordinates.get(i).lon()));
+                constant[i] = latitudes[i]
+                        - (lonI * latitudes[j]) / (lonJ - lonI)
+                        + (lonI * latitudes[i]) / (lonJ - lonI);
+                multiple[i] = (latitudes[j] - latitudes[i]) / (lonJ - lonI);
             }
         }
     }
@@ -82,17 +92,16 @@ public class GeofencePolygon extends GeofenceGeometry {
     @Override
     protected boolean containsPointInternal(double latitude, double longitude) {
 
-        int polyCorners = coordinates.size();
+        double[] lons = normalizedLongitudes;
+        int polyCorners = lons.length;
         int i;
         int j = polyCorners - 1;
         double longitudeNorm = normalizeLon(longitude);
         boolean oddNodes = false;
 
         for (i = 0; i < polyCorners; j = i++) {
-            if (normalizeLon(coordinates.get(i).lon()) < longitudeNorm
-                    && normalizeLon(coordinates.get(j).lon()) >= longitudeNorm
-                    || normalizeLon(coordinates.get(j).lon()) < longitudeNorm
-                    && normalizeLon(coordinates.get(i).lon()) >= longitudeNorm) {
+            if (lons[i] < longitudeNorm && lons[j] >= longitudeNorm
+                    || lons[j] < longitudeNorm && lons[i] >= longitudeNorm) {
                 oddNodes ^= longitudeNorm * multiple[i] + constant[i] < latitude;
             }
         }
@@ -103,8 +112,8 @@ public class GeofencePolygon extends GeofenceGeometry {
     public double calculateArea() {
         JtsShapeFactory jtsShapeFactory = new JtsSpatialContextFactory().newSpatialContext().getShapeFactory();
         ShapeFactory.PolygonBuilder polygonBuilder = jtsShapeFactory.polygon();
-        for (Coordinate coordinate : coordinates) {
-            polygonBuilder.pointXY(coordinate.lon(), coordinate.lat());
+        for (int i = 0; i < latitudes.length; i++) {
+            polygonBuilder.pointXY(longitudes[i], latitudes[i]);
         }
         return polygonBuilder.build().getArea(SpatialContext.GEO) * DistanceUtils.DEG_TO_KM * DistanceUtils.DEG_TO_KM;
     }
@@ -113,10 +122,10 @@ public class GeofencePolygon extends GeofenceGeometry {
     public String toWkt() {
         StringBuilder buf = new StringBuilder();
         buf.append("POLYGON ((");
-        for (Coordinate coordinate : coordinates) {
-            buf.append(coordinate.lat());
+        for (int i = 0; i < latitudes.length; i++) {
+            buf.append(latitudes[i]);
             buf.append(" ");
-            buf.append(coordinate.lon());
+            buf.append(longitudes[i]);
             buf.append(", ");
         }
         return buf.substring(0, buf.length() - 2) + "))";
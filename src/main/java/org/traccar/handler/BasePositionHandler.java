@@ -29,6 +29,13 @@ public abstract class BasePositionHandler {
 
     public abstract void onPosition(Position position, Callback callback);
 
+    /**
+     * Whether the handler performs blocking I/O, like database queries, and should not run on network event loops.
+     */
+    public boolean isBlocking() {
+        return false;
+    }
+
     public void handlePosition(Position position, Callback callback) {
         try {
             onPosition(position, callback);
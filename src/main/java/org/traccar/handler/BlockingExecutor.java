@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.handler;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for position handlers that block on database or other I/O. Handlers resume processing on the channel
+ * event loop through their callback, so only the blocking part runs here.
+ */
+@Singleton
+public class BlockingExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockingExecutor.class);
+
+    private final ExecutorService executor;
+    private final MetricsManager.Summary waitSummary;
+
+    @Inject
+    public BlockingExecutor(Config config, MetricsManager metricsManager) {
+        int threads = config.getInteger(Keys.PROCESSING_BLOCKING_THREADS);
+        ExecutorService virtualExecutor = null;
+        if (config.getBoolean(Keys.PROCESSING_VIRTUAL_THREADS)) {
+            try {
+                virtualExecutor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Virtual threads are not supported by this Java version");
+            }
+        }
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+        } else if (threads > 0) {
+            AtomicInteger index = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "blocking-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            metricsManager.gauge("processing.blocking.queue", ((ThreadPoolExecutor) executor).getQueue()::size);
+        } else {
+            executor = null;
+        }
+        waitSummary = metricsManager.summary("processing.blocking.wait");
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    public void execute(Runnable task) {
+        long submitTime = System.nanoTime();
+        executor.execute(() -> {
+            waitSummary.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitTime));
+            task.run();
+        });
+    }
+
+}
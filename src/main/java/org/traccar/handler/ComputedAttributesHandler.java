@@ -18,18 +18,22 @@ package org.traccar.handler;
 
 import jakarta.inject.Inject;
 import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlFeatures;
-import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.introspection.JexlSandbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.ReflectionCache;
 import org.traccar.model.Attribute;
+import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
 
@@ -38,15 +42,42 @@ import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class ComputedAttributesHandler extends BasePositionHandler {
+public class ComputedAttributesHandler extends BasePositionHandler implements BroadcastInterface {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ComputedAttributesHandler.class);
 
+    private static final Map<String, Method> PROPERTIES = new HashMap<>();
+    private static final Set<String> ATTRIBUTE_OVERRIDES = new HashSet<>();
+
+    static {
+        boolean attributesVisited = false;
+        for (var entry : ReflectionCache.getProperties(Position.class, "get").entrySet()) {
+            Method method = entry.getValue().method();
+            String name = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+            if (method.getReturnType().equals(Map.class)) {
+                attributesVisited = true;
+            } else {
+                PROPERTIES.put(name, method);
+                if (!attributesVisited) {
+                    ATTRIBUTE_OVERRIDES.add(name);
+                }
+            }
+        }
+    }
+
+    private record ScriptKey(long attributeId, String expression) {
+    }
+
+    private final Map<ScriptKey, JexlScript> scripts = new ConcurrentHashMap<>();
+
     private final CacheManager cacheManager;
     private final boolean early;
 
@@ -94,47 +125,109 @@ public class ComputedAttributesHandler extends BasePositionHandler {
                 .create();
         includeDeviceAttributes = config.getBoolean(Keys.PROCESSING_COMPUTED_ATTRIBUTES_DEVICE_ATTRIBUTES);
         includeLastAttributes = config.getBoolean(Keys.PROCESSING_COMPUTED_ATTRIBUTES_LAST_ATTRIBUTES);
+        if (cacheManager != null) {
+            cacheManager.registerListener(this);
+        }
     }
 
-    private MapContext prepareContext(Position position) {
-        MapContext result = new MapContext();
+    /**
+     * Context that resolves only variables referenced by the script. Precedence matches the previous eager context:
+     * position values, then last position values, then device attributes.
+     */
+    private static final class LazyContext implements JexlContext {
+
+        private static final Object MISSING = new Object();
+
+        private final Map<String, Object> locals = new HashMap<>();
+        private final Position position;
+        private final Position last;
+        private final Map<String, Object> deviceAttributes;
+
+        private LazyContext(Position position, Position last, Map<String, Object> deviceAttributes) {
+            this.position = position;
+            this.last = last;
+            this.deviceAttributes = deviceAttributes;
+        }
+
+        private static Object lookup(Position position, String name) {
+            Method method = PROPERTIES.get(name);
+            Map<String, Object> attributes = position.getAttributes();
+            if (attributes.containsKey(name) && (method == null || ATTRIBUTE_OVERRIDES.contains(name))) {
+                return attributes.get(name);
+            }
+            if (method != null) {
+                try {
+                    return method.invoke(position);
+                } catch (IllegalAccessException | InvocationTargetException error) {
+                    LOGGER.warn("Attribute reflection error", error);
+                }
+            }
+            return MISSING;
+        }
+
+        private Object lookup(String name) {
+            if (locals.containsKey(name)) {
+                return locals.get(name);
+            }
+            Object value = lookup(position, name);
+            if (value == MISSING && last != null && name.length() > 4 && name.startsWith("last")) {
+                String key = name.substring(4);
+                value = lookup(last, Character.toLowerCase(key.charAt(0)) + key.substring(1));
+                if (value == MISSING) {
+                    value = lookup(last, key);
+                }
+            }
+            if (value == MISSING && deviceAttributes != null && deviceAttributes.containsKey(name)) {
+                value = deviceAttributes.get(name);
+            }
+            return value;
+        }
+
+        @Override
+        public Object get(String name) {
+            Object value = lookup(name);
+            return value != MISSING ? value : null;
+        }
+
+        @Override
+        public void set(String name, Object value) {
+            locals.put(name, value);
+        }
+
+        @Override
+        public boolean has(String name) {
+            return lookup(name) != MISSING;
+        }
+
+    }
+
+    private JexlContext prepareContext(Position position) {
+        Map<String, Object> deviceAttributes = null;
         if (includeDeviceAttributes) {
             Device device = cacheManager.getObject(Device.class, position.getDeviceId());
             if (device != null) {
-                for (String key : device.getAttributes().keySet()) {
-                    result.set(key, device.getAttributes().get(key));
-                }
+                deviceAttributes = device.getAttributes();
             }
         }
         Position last = includeLastAttributes ? cacheManager.getPosition(position.getDeviceId()) : null;
-        ReflectionCache.getProperties(Position.class, "get").forEach((key, value) -> {
-            Method method = value.method();
-            String name = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
-            try {
-                if (!method.getReturnType().equals(Map.class)) {
-                    result.set(name, method.invoke(position));
-                    if (last != null) {
-                        result.set(prefixAttribute("last", name), method.invoke(last));
-                    }
-                } else {
-                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) method.invoke(position)).entrySet()) {
-                        result.set((String) entry.getKey(), entry.getValue());
-                    }
-                    if (last != null) {
-                        for (Map.Entry<?, ?> entry : ((Map<?, ?>) method.invoke(last)).entrySet()) {
-                            result.set(prefixAttribute("last", (String) entry.getKey()), entry.getValue());
-                        }
-                    }
-                }
-            } catch (IllegalAccessException | InvocationTargetException error) {
-                LOGGER.warn("Attribute reflection error", error);
-            }
-        });
-        return result;
+        return new LazyContext(position, last, deviceAttributes);
+    }
+
+    private JexlScript getScript(Attribute attribute) {
+        if (attribute.getId() == 0) {
+            return engine.createScript(features, engine.createInfo(), attribute.getExpression());
+        }
+        return scripts.computeIfAbsent(
+                new ScriptKey(attribute.getId(), attribute.getExpression()),
+                key -> engine.createScript(features, engine.createInfo(), key.expression()));
     }
 
-    private String prefixAttribute(String prefix, String key) {
-        return prefix + Character.toUpperCase(key.charAt(0)) + key.substring(1);
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) {
+        if (clazz.equals(Attribute.class)) {
+            scripts.keySet().removeIf(key -> key.attributeId() == id);
+        }
     }
 
     /**
@@ -142,9 +235,7 @@ public class ComputedAttributesHandler extends BasePositionHandler {
      */
     @Deprecated
     public Object computeAttribute(Attribute attribute, Position position) throws JexlException {
-        return engine
-                .createScript(features, engine.createInfo(), attribute.getExpression())
-                .execute(prepareContext(position));
+        return getScript(attribute).execute(prepareContext(position));
     }
 
     @Override
@@ -15,9 +15,11 @@
  */
 package org.traccar.handler;
 
+import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.database.PositionBatchWriter;
 import org.traccar.database.StatisticsManager;
 import org.traccar.model.Position;
 import org.traccar.storage.Storage;
@@ -30,16 +32,34 @@ public class DatabaseHandler extends BasePositionHandler {
 
     private final Storage storage;
     private final StatisticsManager statisticsManager;
+    private final PositionBatchWriter batchWriter;
 
     @Inject
-    public DatabaseHandler(Storage storage, StatisticsManager statisticsManager) {
+    public DatabaseHandler(
+            Storage storage, StatisticsManager statisticsManager, @Nullable PositionBatchWriter batchWriter) {
         this.storage = storage;
         this.statisticsManager = statisticsManager;
+        this.batchWriter = batchWriter;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return batchWriter == null;
     }
 
     @Override
     public void onPosition(Position position, Callback callback) {
 
+        if (batchWriter != null) {
+            batchWriter.write(position, () -> {
+                if (position.getId() != 0) {
+                    statisticsManager.registerMessageStored(position.getDeviceId(), position.getProtocol());
+                }
+                callback.processed(false);
+            });
+            return;
+        }
+
         try {
             position.setId(storage.addObject(position, new Request(new Columns.Exclude("id"))));
             statisticsManager.registerMessageStored(position.getDeviceId(), position.getProtocol());
@@ -87,6 +87,11 @@ public class FilterHandler extends BasePositionHandler {
         this.statisticsManager = statisticsManager;
     }
 
+    @Override
+    public boolean isBlocking() {
+        return filterRelative;
+    }
+
     private Position getPrecedingPosition(long deviceId, Date date) throws StorageException {
         return storage.getObject(Position.class, new Request(
                 new Columns.All(),
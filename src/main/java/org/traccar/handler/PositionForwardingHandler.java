@@ -24,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.forward.ForwardSpool;
+import org.traccar.forward.ForwardSpoolManager;
 import org.traccar.forward.PositionData;
 import org.traccar.forward.PositionForwarder;
 import org.traccar.forward.ResultHandler;
@@ -31,6 +33,7 @@ import org.traccar.model.Device;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -42,6 +45,7 @@ public class PositionForwardingHandler extends BasePositionHandler {
     private final Timer timer;
 
     private final PositionForwarder positionForwarder;
+    private final ForwardSpool<PositionData> spool;
 
     private final boolean retryEnabled;
     private final int retryDelay;
@@ -52,12 +56,21 @@ public class PositionForwardingHandler extends BasePositionHandler {
 
     @Inject
     public PositionForwardingHandler(
-            Config config, CacheManager cacheManager, Timer timer, @Nullable PositionForwarder positionForwarder) {
+            Config config, CacheManager cacheManager, Timer timer, @Nullable PositionForwarder positionForwarder,
+            ForwardSpoolManager spoolManager) throws IOException {
 
         this.cacheManager = cacheManager;
         this.timer = timer;
         this.positionForwarder = positionForwarder;
 
+        if (positionForwarder != null && spoolManager.isEnabled()) {
+            spool = spoolManager.create(
+                    "positions", PositionData.class,
+                    data -> data.getPosition().getDeviceId(), positionForwarder::forward);
+        } else {
+            spool = null;
+        }
+
         this.retryEnabled = config.getBoolean(Keys.FORWARD_RETRY_ENABLE);
         this.retryDelay = config.getInteger(Keys.FORWARD_RETRY_DELAY);
         this.retryCount = config.getInteger(Keys.FORWARD_RETRY_COUNT);
@@ -129,7 +142,16 @@ public class PositionForwardingHandler extends BasePositionHandler {
             PositionData positionData = new PositionData();
             positionData.setPosition(position);
             positionData.setDevice(cacheManager.getObject(Device.class, position.getDeviceId()));
-            new AsyncRequestAndCallback(positionData).send();
+            if (spool != null) {
+                try {
+                    spool.append(positionData);
+                } catch (IOException e) {
+                    LOGGER.warn("Position spooling failed", e);
+                    new AsyncRequestAndCallback(positionData).send();
+                }
+            } else {
+                new AsyncRequestAndCallback(positionData).send();
+            }
         }
         callback.processed(false);
     }
@@ -28,6 +28,7 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.BufferUtil;
 import org.traccar.helper.NetworkUtil;
+import org.traccar.journal.TrafficJournal;
 import org.traccar.model.LogRecord;
 import org.traccar.session.ConnectionManager;
 
@@ -39,6 +40,7 @@ public class StandardLoggingHandler extends ChannelDuplexHandler {
 
     private final String protocol;
     private ConnectionManager connectionManager;
+    private TrafficJournal trafficJournal;
     private boolean decodeTextData;
 
     public StandardLoggingHandler(String protocol) {
@@ -55,10 +57,26 @@ public class StandardLoggingHandler extends ChannelDuplexHandler {
         this.connectionManager = connectionManager;
     }
 
+    @Inject
+    public void setTrafficJournal(TrafficJournal trafficJournal) {
+        this.trafficJournal = trafficJournal;
+    }
+
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
-        LogRecord record = createLogRecord(ctx, msg);
-        log(ctx, false, record);
+        LogRecord record = null;
+        if (msg instanceof NetworkMessage networkMessage && networkMessage.getMessage() instanceof ByteBuf data) {
+            boolean logged = isLogged();
+            if (trafficJournal.isEnabled()) {
+                trafficJournal.write(protocol, false, ctx.channel(), networkMessage.getRemoteAddress(), data);
+            }
+            if (logged || connectionManager.hasListeners()) {
+                record = createLogRecord(ctx, networkMessage, data);
+                if (logged) {
+                    log(ctx, false, record);
+                }
+            }
+        }
         super.channelRead(ctx, msg);
         if (record != null) {
             connectionManager.updateLog(record);
@@ -67,39 +85,43 @@ public class StandardLoggingHandler extends ChannelDuplexHandler {
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-        log(ctx, true, createLogRecord(ctx, msg));
+        if (msg instanceof NetworkMessage networkMessage && networkMessage.getMessage() instanceof ByteBuf data) {
+            if (trafficJournal.isEnabled()) {
+                trafficJournal.write(protocol, true, ctx.channel(), networkMessage.getRemoteAddress(), data);
+            }
+            if (isLogged()) {
+                log(ctx, true, createLogRecord(ctx, networkMessage, data));
+            }
+        }
         super.write(ctx, msg, promise);
     }
 
-    private LogRecord createLogRecord(ChannelHandlerContext ctx, Object msg) {
-        if (msg instanceof NetworkMessage networkMessage) {
-            if (networkMessage.getMessage() instanceof ByteBuf data) {
-                LogRecord record = new LogRecord(ctx.channel().localAddress(), networkMessage.getRemoteAddress());
-                record.setProtocol(protocol);
-                if (decodeTextData && BufferUtil.isPrintable(data, data.readableBytes())) {
-                    record.setData(data.getCharSequence(
-                            data.readerIndex(), data.readableBytes(), StandardCharsets.US_ASCII).toString()
-                            .replace("\r", "\\r").replace("\n", "\\n"));
-                } else {
-                    record.setData(ByteBufUtil.hexDump(data));
-                }
-                return record;
-            }
+    private boolean isLogged() {
+        return !trafficJournal.isEnabled() && LOGGER.isInfoEnabled();
+    }
+
+    private LogRecord createLogRecord(ChannelHandlerContext ctx, NetworkMessage networkMessage, ByteBuf data) {
+        LogRecord record = new LogRecord(ctx.channel().localAddress(), networkMessage.getRemoteAddress());
+        record.setProtocol(protocol);
+        if (decodeTextData && BufferUtil.isPrintable(data, data.readableBytes())) {
+            record.setData(data.getCharSequence(
+                    data.readerIndex(), data.readableBytes(), StandardCharsets.US_ASCII).toString()
+                    .replace("\r", "\\r").replace("\n", "\\n"));
+        } else {
+            record.setData(ByteBufUtil.hexDump(data));
         }
-        return null;
+        return record;
     }
 
     private void log(ChannelHandlerContext ctx, boolean downstream, LogRecord record) {
-        if (record != null) {
-            StringBuilder message = new StringBuilder();
-            message.append("[").append(NetworkUtil.session(ctx.channel())).append(": ");
-            message.append(protocol);
-            message.append(downstream ? " > " : " < ");
-            message.append(record.getAddress().getHostString());
-            message.append("] ");
-            message.append(record.getData());
-            LOGGER.info(message.toString());
-        }
+        StringBuilder message = new StringBuilder();
+        message.append("[").append(NetworkUtil.session(ctx.channel())).append(": ");
+        message.append(protocol);
+        message.append(downstream ? " > " : " < ");
+        message.append(record.getAddress().getHostString());
+        message.append("] ");
+        message.append(record.getData());
+        LOGGER.info(message.toString());
     }
 
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Splits delimited text messages into fields and parses numbers and dates directly from the buffer, without
+ * creating intermediate strings or running regular expressions. Methods follow {@link Parser} conventions, so decoders
+ * can be converted one by one: {@link #hasNext()} returns false and skips the field if it is empty, and nullable
+ * getters return null for empty fields. Buffer indexes are not modified.
+ */
+public class BufferTokenizer {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final ByteBuf buf;
+    private final byte delimiter;
+    private final int end;
+
+    private int position;
+    private boolean finished;
+
+    public BufferTokenizer(ByteBuf buf, char delimiter) {
+        this(buf, buf.readerIndex(), buf.writerIndex(), delimiter);
+    }
+
+    public BufferTokenizer(ByteBuf buf, int start, int end, char delimiter) {
+        this.buf = buf;
+        this.delimiter = (byte) delimiter;
+        this.end = end;
+        position = start;
+    }
+
+    private int fieldEnd() {
+        int index = buf.indexOf(position, end, delimiter);
+        return index < 0 ? end : index;
+    }
+
+    private void advance(int fieldEnd) {
+        if (fieldEnd >= end) {
+            position = end;
+            finished = true;
+        } else {
+            position = fieldEnd + 1;
+        }
+    }
+
+    /**
+     * Whether there are any fields left, including empty ones.
+     */
+    public boolean hasMore() {
+        return !finished;
+    }
+
+    /**
+     * Check that the next field is present and not empty. Missing or empty field is skipped.
+     */
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        int fieldEnd = fieldEnd();
+        if (fieldEnd == position) {
+            advance(fieldEnd);
+            return false;
+        }
+        return true;
+    }
+
+    public void skip() {
+        if (!finished) {
+            advance(fieldEnd());
+        }
+    }
+
+    public void skip(int number) {
+        for (int i = 0; i < number; i++) {
+            skip();
+        }
+    }
+
+    public String next() {
+        if (finished) {
+            return null;
+        }
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+        return buf.toString(start, fieldEnd - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Check whether the next field matches given ASCII text without consuming it.
+     */
+    public boolean nextEquals(String value) {
+        if (finished) {
+            return false;
+        }
+        int fieldEnd = fieldEnd();
+        if (fieldEnd - position != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (buf.getByte(position + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseLong(int start, int stop, int radix) {
+        if (start >= stop) {
+            throw new NumberFormatException("Empty field");
+        }
+        boolean negative = false;
+        int index = start;
+        byte first = buf.getByte(index);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            index += 1;
+            if (index == stop) {
+                throw new NumberFormatException("Invalid number");
+            }
+        }
+        long result = 0;
+        for (; index < stop; index++) {
+            int digit = Character.digit(buf.getByte(index), radix);
+            if (digit < 0) {
+                throw new NumberFormatException("Invalid number");
+            }
+            long next = result * radix - digit;
+            if (next > result) {
+                throw new NumberFormatException("Number out of range");
+            }
+            result = next;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                throw new NumberFormatException("Number out of range");
+            }
+            result = -result;
+        }
+        return result;
+    }
+
+    private long nextLongValue(int radix) {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+        return parseLong(start, fieldEnd, radix);
+    }
+
+    private int nextIntValue(int radix) {
+        long value = nextLongValue(radix);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Number out of range");
+        }
+        return (int) value;
+    }
+
+    public Integer nextInt() {
+        return hasNext() ? nextIntValue(10) : null;
+    }
+
+    public int nextInt(int defaultValue) {
+        return hasNext() ? nextIntValue(10) : defaultValue;
+    }
+
+    public Integer nextHexInt() {
+        return hasNext() ? nextIntValue(16) : null;
+    }
+
+    public int nextHexInt(int defaultValue) {
+        return hasNext() ? nextIntValue(16) : defaultValue;
+    }
+
+    public Long nextLong() {
+        return hasNext() ? nextLongValue(10) : null;
+    }
+
+    public long nextLong(long defaultValue) {
+        return hasNext() ? nextLongValue(10) : defaultValue;
+    }
+
+    public Long nextHexLong() {
+        return hasNext() ? nextLongValue(16) : null;
+    }
+
+    public long nextHexLong(long defaultValue) {
+        return hasNext() ? nextLongValue(16) : defaultValue;
+    }
+
+    /**
+     * Parse decimal number. Plain numbers with up to 15 significant digits are converted exactly, anything else
+     * falls back to {@link Double#parseDouble(String)}, so results are always identical.
+     */
+    private double nextDoubleValue() {
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+
+        int index = start;
+        boolean negative = false;
+        byte first = buf.getByte(index);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            index += 1;
+        }
+        long mantissa = 0;
+        int scale = -1;
+        boolean digits = false;
+        for (; index < fieldEnd; index++) {
+            byte b = buf.getByte(index);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits = true;
+                if (scale >= 0) {
+                    scale += 1;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    break;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+        if (index < fieldEnd || !digits || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(buf.toString(start, fieldEnd - start, StandardCharsets.US_ASCII));
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    public Double nextDouble() {
+        return hasNext() ? nextDoubleValue() : null;
+    }
+
+    public double nextDouble(double defaultValue) {
+        return hasNext() ? nextDoubleValue() : defaultValue;
+    }
+
+    private int digits(int index, int count) {
+        int result = 0;
+        for (int i = index; i < index + count; i++) {
+            byte b = buf.getByte(i);
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("Invalid date");
+            }
+            result = result * 10 + (b - '0');
+        }
+        return result;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        int era = (year >= 0 ? year : year - 399) / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Parse UTC date and time in "yyyyMMddHHmmss" format.
+     */
+    public Date nextDateTime() {
+        if (!hasNext()) {
+            return null;
+        }
+        int start = position;
+        int fieldEnd = fieldEnd();
+        advance(fieldEnd);
+        if (fieldEnd - start != 14) {
+            throw new NumberFormatException("Invalid date");
+        }
+        long days = daysFromCivil(digits(start, 4), digits(start + 4, 2), digits(start + 6, 2));
+        long seconds = days * 86400 + digits(start + 8, 2) * 3600L + digits(start + 10, 2) * 60L
+                + digits(start + 12, 2);
+        return new Date(seconds * 1000);
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hierarchical timing wheel holding one deadline per key. Scheduling, rescheduling and cancellation take constant
+ * time regardless of the number of keys or how far the deadline is. Each level has 64 slots, every slot of a level
+ * covering a full rotation of the level below. Entries move to lower levels as their deadline gets closer.
+ * <p>
+ * The class is not thread-safe.
+ */
+public class TimingWheel<K> {
+
+    private static final int LEVEL_BITS = 6;
+    private static final int SLOTS = 1 << LEVEL_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private static final class Entry<K> {
+        private final K key;
+        private long deadline;
+        private long tick;
+        private Entry<K> previous;
+        private Entry<K> next;
+        private Entry<K>[] slots;
+        private int slot;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+    }
+
+    private final long tickDuration;
+    private final Entry<K>[][] wheel;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickDuration resolution of deadlines in milliseconds
+     * @param currentTime initial time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, long currentTime) {
+        this.tickDuration = tickDuration;
+        wheel = new Entry[LEVELS][SLOTS];
+        currentTick = currentTime / tickDuration;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Set deadline for the key, replacing any existing one. Deadlines in the past expire on the next advance.
+     */
+    public void schedule(K key, long deadline) {
+        Entry<K> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.deadline = deadline;
+        entry.tick = Math.max((deadline + tickDuration - 1) / tickDuration, currentTick + 1);
+        link(entry);
+    }
+
+    public void cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Move time forward and report entries with deadlines up to the given time. Expired entries are removed before
+     * the callback is invoked, so the callback can schedule them again.
+     */
+    public void advance(long currentTime, ObjLongConsumer<K> callback) {
+        long targetTick = currentTime / tickDuration;
+        List<Entry<K>> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick += 1;
+            cascade();
+            int slot = (int) (currentTick & MASK);
+            Entry<K> entry = wheel[0][slot];
+            wheel[0][slot] = null;
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                entry.slots = null;
+                entry.previous = null;
+                entry.next = null;
+                entries.remove(entry.key);
+                expired.add(entry);
+                entry = next;
+            }
+        }
+        for (Entry<K> entry : expired) {
+            callback.accept(entry.key, entry.deadline);
+        }
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (LEVEL_BITS * level)) - 1)) != 0) {
+                break;
+            }
+            int slot = (int) ((currentTick >> (LEVEL_BITS * level)) & MASK);
+            Entry<K> entry = wheel[level][slot];
+            wheel[level][slot] = null;
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                entry.slots = null;
+                entry.previous = null;
+                entry.next = null;
+                link(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void link(Entry<K> entry) {
+        long delta = entry.tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (LEVEL_BITS * (level + 1))) {
+            level += 1;
+        }
+        long tick = entry.tick;
+        if (delta >= 1L << (LEVEL_BITS * LEVELS)) {
+            // beyond the wheel range, park in the farthest slot and recalculate on cascade
+            tick = currentTick + (1L << (LEVEL_BITS * LEVELS)) - 1;
+        }
+        Entry<K>[] slots = wheel[level];
+        int slot = (int) ((tick >> (LEVEL_BITS * level)) & MASK);
+        entry.slots = slots;
+        entry.slot = slot;
+        entry.next = slots[slot];
+        if (entry.next != null) {
+            entry.next.previous = entry;
+        }
+        slots[slot] = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        if (entry.slots != null) {
+            if (entry.previous != null) {
+                entry.previous.next = entry.next;
+            } else {
+                entry.slots[entry.slot] = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            }
+            entry.slots = null;
+            entry.previous = null;
+            entry.next = null;
+        }
+    }
+
+}
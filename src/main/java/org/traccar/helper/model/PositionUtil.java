@@ -15,7 +15,6 @@
  */
 package org.traccar.helper.model;
 
-import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Position;
 import org.traccar.model.User;
@@ -28,8 +27,9 @@ import org.traccar.storage.query.Order;
 import org.traccar.storage.query.Request;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import java.util.stream.Stream;
 
 public final class PositionUtil {
@@ -82,17 +82,36 @@ public final class PositionUtil {
                 new Order("fixTime", end, 1)));
     }
 
-    public static List<Position> getLatestPositions(Storage storage, long userId) throws StorageException {
+    /**
+     * Latest positions of all devices accessible by the user. Positions of devices present in the cache are taken from
+     * memory. Storage is only queried if some devices with positions are not cached.
+     */
+    public static List<Position> getLatestPositions(
+            Storage storage, CacheManager cacheManager, long userId) throws StorageException {
         var devices = storage.getObjects(Device.class, new Request(
-                new Columns.Include("id"),
+                new Columns.Include("id", "positionId"),
                 new Condition.Permission(User.class, userId, Device.class)));
-        var deviceIds = devices.stream().map(BaseModel::getId).collect(Collectors.toUnmodifiableSet());
 
-        var positions = storage.getObjects(Position.class, new Request(
-                new Columns.All(), new Condition.LatestPositions()));
-        return positions.stream()
-                .filter(position -> deviceIds.contains(position.getDeviceId()))
-                .toList();
+        Map<Long, Position> positions = new LinkedHashMap<>();
+        boolean complete = true;
+        for (Device device : devices) {
+            Position position = cacheManager.getPosition(device.getId());
+            if (position != null) {
+                positions.put(device.getId(), position);
+            } else if (device.getPositionId() > 0) {
+                complete = false;
+            }
+        }
+
+        if (!complete) {
+            try (var stream = storage.getObjectsStream(Position.class, new Request(
+                    new Columns.All(),
+                    new Condition.LatestPositions(new Condition.Permission(User.class, userId, Device.class))))) {
+                stream.forEach(position -> positions.putIfAbsent(position.getDeviceId(), position));
+            }
+        }
+
+        return List.copyOf(positions.values());
     }
 
 }
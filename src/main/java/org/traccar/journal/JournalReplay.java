@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.journal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replays incoming traffic from a journal against a running server. Each original remote endpoint gets its own
+ * connection, so the server sees the same sessions as in the recorded traffic. Timing between frames is preserved,
+ * divided by the speed factor. Zero speed sends frames without delay.
+ * <p>
+ * Usage: {@code JournalReplay <journal directory> <host> <port> [speed] [protocol]}
+ */
+public class JournalReplay implements AutoCloseable {
+
+    private final InetSocketAddress target;
+    private final double speed;
+    private final String protocol;
+
+    private final Map<InetSocketAddress, Socket> sockets = new HashMap<>();
+    private final Map<InetSocketAddress, DatagramSocket> datagramSockets = new HashMap<>();
+    private final byte[] discard = new byte[4096];
+
+    private long firstRecordTime;
+    private long startTime;
+    private long count;
+
+    public JournalReplay(InetSocketAddress target, double speed, String protocol) {
+        this.target = target;
+        this.speed = speed;
+        this.protocol = protocol;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void replay(Path directory) throws IOException {
+        TrafficJournal.read(directory, record -> {
+            try {
+                send(record);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private void send(JournalRecord record) throws IOException, InterruptedException {
+        if (record.downstream() || protocol != null && !protocol.equals(record.protocol())) {
+            return;
+        }
+        if (count == 0) {
+            firstRecordTime = record.time();
+            startTime = System.currentTimeMillis();
+        } else if (speed > 0) {
+            long delay = startTime + (long) ((record.time() - firstRecordTime) / speed) - System.currentTimeMillis();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+        }
+        InetSocketAddress source = record.remoteAddress() != null
+                ? record.remoteAddress() : new InetSocketAddress(0);
+        if (record.datagram()) {
+            DatagramSocket socket = datagramSockets.get(source);
+            if (socket == null) {
+                socket = new DatagramSocket();
+                datagramSockets.put(source, socket);
+            }
+            socket.send(new DatagramPacket(record.data(), record.data().length, target));
+        } else {
+            Socket socket = sockets.get(source);
+            if (socket == null || socket.isClosed()) {
+                socket = new Socket(target.getAddress(), target.getPort());
+                sockets.put(source, socket);
+            }
+            discardResponses(socket);
+            socket.getOutputStream().write(record.data());
+        }
+        count += 1;
+    }
+
+    private void discardResponses(Socket socket) throws IOException {
+        InputStream input = socket.getInputStream();
+        int available = input.available();
+        while (available > 0) {
+            int read = input.read(discard, 0, Math.min(available, discard.length));
+            if (read < 0) {
+                break;
+            }
+            available -= read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Socket socket : sockets.values()) {
+            socket.close();
+        }
+        for (DatagramSocket socket : datagramSockets.values()) {
+            socket.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: JournalReplay <journal directory> <host> <port> [speed] [protocol]");
+            System.exit(1);
+        }
+        InetSocketAddress target = new InetSocketAddress(args[1], Integer.parseInt(args[2]));
+        double speed = args.length > 3 ? Double.parseDouble(args[3]) : 1;
+        String protocol = args.length > 4 ? args[4] : null;
+        long startTime = System.currentTimeMillis();
+        try (JournalReplay replay = new JournalReplay(target, speed, protocol)) {
+            replay.replay(Paths.get(args[0]));
+            System.out.printf(
+                    "Replayed %d frames in %d ms%n", replay.getCount(), System.currentTimeMillis() - startTime);
+        }
+    }
+
+}
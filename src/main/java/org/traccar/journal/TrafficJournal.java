@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.journal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.socket.DatagramChannel;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Binary journal of raw network traffic. Frames are copied on the network thread and written by a background thread
+ * into memory-mapped segment files. Segments are rotated when full and the oldest ones are deleted when the
+ * configured number of segments is exceeded. Frames are dropped if the writer can't keep up.
+ */
+@Singleton
+public class TrafficJournal implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrafficJournal.class);
+
+    private static final String EXTENSION = ".journal";
+
+    // length (4), time (8), flags (1), local port (2), protocol length (1), address length (1), remote port (2)
+    private static final int HEADER_SIZE = 19;
+
+    private static final int FLAG_DOWNSTREAM = 1;
+    private static final int FLAG_DATAGRAM = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int segmentCount;
+    private final BlockingQueue<JournalRecord> queue;
+
+    private final LongAdder written;
+    private final LongAdder dropped;
+    private final LongAdder bytes;
+
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private MappedByteBuffer buffer;
+    private long nextIndex;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    @Inject
+    public TrafficJournal(Config config, MetricsManager metricsManager) {
+        String path = config.getString(Keys.LOGGER_JOURNAL_PATH);
+        directory = path != null ? Paths.get(path) : null;
+        segmentSize = config.getInteger(Keys.LOGGER_JOURNAL_SEGMENT_SIZE);
+        segmentCount = config.getInteger(Keys.LOGGER_JOURNAL_SEGMENTS);
+        queue = new ArrayBlockingQueue<>(config.getInteger(Keys.LOGGER_JOURNAL_QUEUE_SIZE));
+
+        written = metricsManager.counter("journal.written");
+        dropped = metricsManager.counter("journal.dropped");
+        bytes = metricsManager.counter("journal.bytes");
+        metricsManager.gauge("journal.queue", queue::size);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Queue network frame for writing. Buffer content is copied, indexes are not modified.
+     */
+    public void write(
+            String protocol, boolean downstream, Channel channel, SocketAddress remoteAddress, ByteBuf data) {
+        int localPort = channel.localAddress() instanceof InetSocketAddress address ? address.getPort() : 0;
+        write(new JournalRecord(
+                System.currentTimeMillis(), protocol, downstream, channel instanceof DatagramChannel, localPort,
+                remoteAddress instanceof InetSocketAddress address ? address : null,
+                ByteBufUtil.getBytes(data)));
+    }
+
+    public void write(JournalRecord record) {
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).sorted().forEach(segments::add);
+        }
+        if (!segments.isEmpty()) {
+            String fileName = segments.getLast().getFileName().toString();
+            nextIndex = Long.parseLong(fileName.substring(0, fileName.length() - EXTENSION.length())) + 1;
+        }
+        running = true;
+        thread = new Thread(this::run, "traffic-journal");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (thread != null) {
+            running = false;
+            thread.join();
+            thread = null;
+        }
+    }
+
+    private void run() {
+        List<JournalRecord> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                JournalRecord record = queue.poll(1, TimeUnit.SECONDS);
+                if (record != null) {
+                    batch.add(record);
+                    queue.drainTo(batch);
+                    for (JournalRecord item : batch) {
+                        append(item);
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Traffic journal write error", e);
+                batch.clear();
+            }
+        }
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+
+    private void rotate(int size) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        Path path = directory.resolve(String.format("%020d%s", nextIndex++, EXTENSION));
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segments.add(path);
+        while (segments.size() > segmentCount) {
+            Files.deleteIfExists(segments.poll());
+        }
+    }
+
+    private void append(JournalRecord record) throws IOException {
+        byte[] protocol = record.protocol().getBytes(StandardCharsets.US_ASCII);
+        InetSocketAddress remoteAddress = record.remoteAddress();
+        byte[] address = remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getAddress() : new byte[0];
+        int length = HEADER_SIZE + protocol.length + address.length + record.data().length;
+        if (buffer == null || buffer.remaining() < length) {
+            rotate(Math.max(segmentSize, length));
+        }
+
+        int offset = buffer.position();
+        buffer.position(offset + 4);
+        buffer.putLong(record.time());
+        buffer.put((byte) ((record.downstream() ? FLAG_DOWNSTREAM : 0) | (record.datagram() ? FLAG_DATAGRAM : 0)));
+        buffer.putShort((short) record.localPort());
+        buffer.put((byte) protocol.length);
+        buffer.put((byte) address.length);
+        buffer.putShort((short) (remoteAddress != null ? remoteAddress.getPort() : 0));
+        buffer.put(protocol);
+        buffer.put(address);
+        buffer.put(record.data());
+        // length is written last, so an interrupted record reads as the end of the segment
+        buffer.putInt(offset, length);
+
+        written.increment();
+        bytes.add(length);
+    }
+
+    /**
+     * Read all records from the journal directory in the order they were written.
+     */
+    public static void read(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).sorted().toList();
+        }
+        for (Path path : paths) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                if (length < HEADER_SIZE || offset + length > buffer.limit()) {
+                    break;
+                }
+                long time = buffer.getLong();
+                int flags = buffer.get();
+                int localPort = buffer.getShort() & 0xffff;
+                byte[] protocol = new byte[buffer.get() & 0xff];
+                byte[] address = new byte[buffer.get() & 0xff];
+                int remotePort = buffer.getShort() & 0xffff;
+                buffer.get(protocol);
+                buffer.get(address);
+                byte[] data = new byte[offset + length - buffer.position()];
+                buffer.get(data);
+                InetSocketAddress remoteAddress = address.length > 0
+                        ? new InetSocketAddress(InetAddress.getByAddress(address), remotePort) : null;
+                consumer.accept(new JournalRecord(
+                        time, new String(protocol, StandardCharsets.US_ASCII),
+                        (flags & FLAG_DOWNSTREAM) != 0, (flags & FLAG_DATAGRAM) != 0,
+                        localPort, remoteAddress, data));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.model;
+
+import org.traccar.storage.StorageName;
+
+/**
+ * Part of a rendered report file. Files are split into rows of limited size, so neither the server nor a single
+ * database row has to hold a large report.
+ */
+@StorageName("tc_report_artifact_chunks")
+public class ReportArtifactChunk extends BaseModel {
+
+    private long artifactId;
+
+    public long getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(long artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    private int attempt;
+
+    /**
+     * Attempt that wrote the chunk. Only chunks of the completed attempt belong to the file.
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public void setAttempt(int attempt) {
+        this.attempt = attempt;
+    }
+
+    private int chunkIndex;
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public void setChunkIndex(int chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    private byte[] data;
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+}
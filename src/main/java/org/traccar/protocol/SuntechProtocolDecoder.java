@@ -22,6 +22,7 @@ import io.netty.channel.Channel;
 import org.traccar.BaseProtocolDecoder;
 import org.traccar.config.Keys;
 import org.traccar.helper.BcdUtil;
+import org.traccar.helper.BufferTokenizer;
 import org.traccar.helper.BufferUtil;
 import org.traccar.helper.model.AttributeUtil;
 import org.traccar.session.DeviceSession;
@@ -43,8 +44,8 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.TimeZone;
-import java.util.stream.Collectors;
 
 public class SuntechProtocolDecoder extends BaseProtocolDecoder {
 
@@ -283,46 +284,52 @@ public class SuntechProtocolDecoder extends BaseProtocolDecoder {
         return position;
     }
 
+    private double decodeSerialAttribute(Position position, String attribute) {
+        double totalFuel = 0;
+        if (attribute.startsWith("CabAVL")) {
+            String[] data = attribute.split(",");
+            double fuel1 = Double.parseDouble(data[2]);
+            if (fuel1 > 0) {
+                totalFuel += fuel1;
+                position.set("fuel1", fuel1);
+            }
+            double fuel2 = Double.parseDouble(data[3]);
+            if (fuel2 > 0) {
+                totalFuel += fuel2;
+                position.set("fuel2", fuel2);
+            }
+        } else if (attribute.startsWith("GTSL")) {
+            position.set(Position.KEY_DRIVER_UNIQUE_ID, attribute.split("\\|")[4]);
+        } else if (attribute.contains("=")) {
+            String[] pair = attribute.split("=");
+            if (pair.length >= 2) {
+                String value = pair[1].trim();
+                if (value.contains(".")) {
+                    value = value.substring(0, value.indexOf('.'));
+                }
+                switch (pair[0].charAt(0)) {
+                    case 't' -> position.set(Position.PREFIX_TEMP + pair[0].charAt(2), Integer.parseInt(value, 16));
+                    case 'N' -> {
+                        int fuel = Integer.parseInt(value, 16);
+                        totalFuel += fuel;
+                        position.set("fuel" + pair[0].charAt(2), fuel);
+                    }
+                    case 'Q' -> position.set("drivingQuality", Integer.parseInt(value, 16));
+                }
+            }
+        } else {
+            position.set("serial", attribute.trim());
+        }
+        return totalFuel;
+    }
+
     private int decodeSerialData(Position position, String[] values, int index) {
 
         int remaining = Integer.parseInt(values[index++]);
         double totalFuel = 0;
         while (remaining > 0) {
             String attribute = values[index++];
-            if (attribute.startsWith("CabAVL")) {
-                String[] data = attribute.split(",");
-                double fuel1 = Double.parseDouble(data[2]);
-                if (fuel1 > 0) {
-                    totalFuel += fuel1;
-                    position.set("fuel1", fuel1);
-                }
-                double fuel2 = Double.parseDouble(data[3]);
-                if (fuel2 > 0) {
-                    totalFuel += fuel2;
-                    position.set("fuel2", fuel2);
-                }
-            } else if (attribute.startsWith("GTSL")) {
-                position.set(Position.KEY_DRIVER_UNIQUE_ID, attribute.split("\\|")[4]);
-            } else if (attribute.contains("=")) {
-                String[] pair = attribute.split("=");
-                if (pair.length >= 2) {
-                    String value = pair[1].trim();
-                    if (value.contains(".")) {
-                        value = value.substring(0, value.indexOf('.'));
-                    }
-                    switch (pair[0].charAt(0)) {
-                        case 't' -> position.set(Position.PREFIX_TEMP + pair[0].charAt(2), Integer.parseInt(value, 16));
-                        case 'N' -> {
-                            int fuel = Integer.parseInt(value, 16);
-                            totalFuel += fuel;
-                            position.set("fuel" + pair[0].charAt(2), fuel);
-                        }
-                        case 'Q' -> position.set("drivingQuality", Integer.parseInt(value, 16));
-                    }
-                }
-            } else {
-                position.set("serial", attribute.trim());
-            }
+            totalFuel += decodeSerialAttribute(position, attribute);
             remaining -= attribute.length() + 1;
         }
         if (totalFuel > 0) {
@@ -331,6 +338,21 @@ public class SuntechProtocolDecoder extends BaseProtocolDecoder {
         return index + 1; // checksum
     }
 
+    private void decodeSerialData(Position position, BufferTokenizer tokenizer) {
+
+        int remaining = tokenizer.nextInt(0);
+        double totalFuel = 0;
+        while (remaining > 0 && tokenizer.hasMore()) {
+            String attribute = tokenizer.next();
+            totalFuel += decodeSerialAttribute(position, attribute);
+            remaining -= attribute.length() + 1;
+        }
+        if (totalFuel > 0) {
+            position.set(Position.KEY_FUEL, totalFuel);
+        }
+        tokenizer.skip(); // checksum
+    }
+
     private Position decode2356(
             Channel channel, SocketAddress remoteAddress, String protocol, String[] values) throws ParseException {
         int index = 0;
@@ -477,17 +499,16 @@ public class SuntechProtocolDecoder extends BaseProtocolDecoder {
     }
 
     private Position decodeUniversal(
-            Channel channel, SocketAddress remoteAddress, String[] values) throws ParseException {
-        int index = 0;
+            Channel channel, SocketAddress remoteAddress, BufferTokenizer tokenizer) throws ParseException {
 
-        String type = values[index++];
+        String type = tokenizer.next();
 
         if (!type.equals("STT") && !type.equals("ALT") && !type.equals("BLE") && !type.equals("RES")
                 && !type.equals("UEX")) {
             return null;
         }
 
-        DeviceSession deviceSession = getDeviceSession(channel, remoteAddress, values[index++]);
+        DeviceSession deviceSession = getDeviceSession(channel, remoteAddress, tokenizer.next());
         if (deviceSession == null) {
             return null;
         }
@@ -498,9 +519,11 @@ public class SuntechProtocolDecoder extends BaseProtocolDecoder {
 
         if (type.equals("RES")) {
             getLastLocation(position, null);
-            position.set(
-                    Position.KEY_RESULT,
-                    Arrays.stream(values, index, values.length).collect(Collectors.joining(";")));
+            StringJoiner result = new StringJoiner(";");
+            while (tokenizer.hasMore()) {
+                result.add(tokenizer.next());
+            }
+            position.set(Position.KEY_RESULT, result.toString());
             return position;
         }
 
@@ -508,136 +531,139 @@ public class SuntechProtocolDecoder extends BaseProtocolDecoder {
         if (type.equals("BLE")) {
             mask = 0b1100000110110;
         } else {
-            mask = Integer.parseInt(values[index++], 16);
+            mask = tokenizer.nextHexInt(0);
         }
 
         if (BitUtil.check(mask, 1)) {
-            index += 1; // model
+            tokenizer.skip(); // model
         }
 
         if (BitUtil.check(mask, 2)) {
-            position.set(Position.KEY_VERSION_FW, values[index++]);
+            position.set(Position.KEY_VERSION_FW, tokenizer.next());
         }
 
-        if (BitUtil.check(mask, 3) && values[index++].equals("0")) {
-            position.set(Position.KEY_ARCHIVE, true);
+        if (BitUtil.check(mask, 3)) {
+            if (tokenizer.nextEquals("0")) {
+                position.set(Position.KEY_ARCHIVE, true);
+            }
+            tokenizer.skip();
         }
 
         if (BitUtil.check(mask, 4) && BitUtil.check(mask, 5)) {
             DateFormat dateFormat = new SimpleDateFormat("yyyyMMddHH:mm:ss");
             dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-            position.setTime(dateFormat.parse(values[index++] + values[index++]));
+            position.setTime(dateFormat.parse(tokenizer.next() + tokenizer.next()));
         }
 
         CellTower cellTower = new CellTower();
         if (BitUtil.check(mask, 6)) {
-            cellTower.setCellId(Long.parseLong(values[index++], 16));
+            cellTower.setCellId(tokenizer.nextHexLong());
         }
         if (BitUtil.check(mask, 7)) {
-            cellTower.setMobileCountryCode(Integer.parseInt(values[index++]));
+            cellTower.setMobileCountryCode(tokenizer.nextInt());
         }
         if (BitUtil.check(mask, 8)) {
-            cellTower.setMobileNetworkCode(Integer.parseInt(values[index++]));
+            cellTower.setMobileNetworkCode(tokenizer.nextInt());
         }
         if (BitUtil.check(mask, 9)) {
-            cellTower.setLocationAreaCode(Integer.parseInt(values[index++], 16));
+            cellTower.setLocationAreaCode(tokenizer.nextHexInt());
         }
         if (cellTower.getCellId() != null) {
             position.setNetwork(new Network(cellTower));
         }
 
         if (BitUtil.check(mask, 10)) {
-            position.set(Position.KEY_RSSI, Integer.parseInt(values[index++]));
+            position.set(Position.KEY_RSSI, tokenizer.nextInt());
         }
 
         if (BitUtil.check(mask, 11)) {
-            position.setLatitude(Double.parseDouble(values[index++]));
+            position.setLatitude(tokenizer.nextDouble(0));
         }
 
         if (BitUtil.check(mask, 12)) {
-            position.setLongitude(Double.parseDouble(values[index++]));
+            position.setLongitude(tokenizer.nextDouble(0));
         }
 
         if (type.equals("BLE")) {
 
             position.setValid(true);
 
-            int count = Integer.parseInt(values[index++]);
+            int count = tokenizer.nextInt(0);
 
             for (int i = 1; i <= count; i++) {
-                position.set("tag" + i + "Rssi", Integer.parseInt(values[index++]));
-                index += 1; // rssi min
-                index += 1; // rssi max
-                position.set("tag" + i + "Id", values[index++]);
-                position.set("tag" + i + "Samples", Integer.parseInt(values[index++]));
-                position.set("tag" + i + "Major", Integer.parseInt(values[index++]));
-                position.set("tag" + i + "Minor", Integer.parseInt(values[index++]));
+                position.set("tag" + i + "Rssi", tokenizer.nextInt());
+                tokenizer.skip(); // rssi min
+                tokenizer.skip(); // rssi max
+                position.set("tag" + i + "Id", tokenizer.next());
+                position.set("tag" + i + "Samples", tokenizer.nextInt());
+                position.set("tag" + i + "Major", tokenizer.nextInt());
+                position.set("tag" + i + "Minor", tokenizer.nextInt());
             }
 
         } else {
 
             if (BitUtil.check(mask, 13)) {
-                position.setSpeed(UnitsConverter.knotsFromKph(Double.parseDouble(values[index++])));
+                position.setSpeed(UnitsConverter.knotsFromKph(tokenizer.nextDouble(0)));
             }
 
             if (BitUtil.check(mask, 14)) {
-                position.setCourse(Double.parseDouble(values[index++]));
+                position.setCourse(tokenizer.nextDouble(0));
             }
 
             if (BitUtil.check(mask, 15)) {
-                position.set(Position.KEY_SATELLITES, Integer.parseInt(values[index++]));
+                position.set(Position.KEY_SATELLITES, tokenizer.nextInt());
             }
 
             if (BitUtil.check(mask, 16)) {
-                position.setValid(values[index++].equals("1"));
+                position.setValid(tokenizer.nextEquals("1"));
+                tokenizer.skip();
             }
 
             if (BitUtil.check(mask, 17)) {
-                int input = Integer.parseInt(values[index++]);
+                int input = tokenizer.nextInt(0);
                 position.set(Position.KEY_IGNITION, BitUtil.check(input, 0));
                 position.set(Position.KEY_INPUT, input);
             }
 
             if (BitUtil.check(mask, 18)) {
-                position.set(Position.KEY_OUTPUT, Integer.parseInt(values[index++]));
+                position.set(Position.KEY_OUTPUT, tokenizer.nextInt());
             }
 
             switch (type) {
                 case "ALT" -> {
                     if (BitUtil.check(mask, 19)) {
-                        int alertId = Integer.parseInt(values[index++]);
-                        position.addAlarm(decodeAlert(alertId));
+                        position.addAlarm(decodeAlert(tokenizer.nextInt(0)));
                     }
                     if (BitUtil.check(mask, 20)) {
-                        position.set("alertModifier", values[index++]);
+                        position.set("alertModifier", tokenizer.next());
                     }
                     if (BitUtil.check(mask, 21)) {
-                        position.set("alertData", values[index++]);
+                        position.set("alertData", tokenizer.next());
                     }
                 }
-                case "UEX" -> index = decodeSerialData(position, values, index);
+                case "UEX" -> decodeSerialData(position, tokenizer);
                 default -> {
                     if (BitUtil.check(mask, 19)) {
-                        position.set("mode", Integer.parseInt(values[index++]));
+                        position.set("mode", tokenizer.nextInt());
                     }
                     if (BitUtil.check(mask, 20)) {
-                        position.set("reason", Integer.parseInt(values[index++]));
+                        position.set("reason", tokenizer.nextInt());
                     }
                     if (BitUtil.check(mask, 21)) {
-                        position.set(Position.KEY_INDEX, Integer.parseInt(values[index++]));
+                        position.set(Position.KEY_INDEX, tokenizer.nextInt());
                     }
                 }
             }
 
             if (BitUtil.check(mask, 22)) {
-                index += 1; // reserved
+                tokenizer.skip(); // reserved
             }
 
             if (BitUtil.check(mask, 23) && !type.equals("UEX")) {
-                int assignMask = Integer.parseInt(values[index++], 16);
+                int assignMask = tokenizer.nextHexInt(0);
                 for (int i = 0; i <= 30; i++) {
                     if (BitUtil.check(assignMask, i)) {
-                        position.set(Position.PREFIX_IO + (i + 1), values[index++]);
+                        position.set(Position.PREFIX_IO + (i + 1), tokenizer.next());
                     }
                 }
             }
@@ -955,15 +981,21 @@ public class SuntechProtocolDecoder extends BaseProtocolDecoder {
 
         } else {
 
-            String[] values = buf.toString(StandardCharsets.US_ASCII).split(";", -1);
-            prefix = values[0];
+            int prefixEnd = buf.indexOf(buf.readerIndex(), buf.writerIndex(), (byte) ';');
+            if (prefixEnd < 0) {
+                prefixEnd = buf.writerIndex();
+            }
+            prefix = buf.toString(buf.readerIndex(), prefixEnd - buf.readerIndex(), StandardCharsets.US_ASCII);
 
             if (prefix.equals("CRR")) {
                 return decodeCrashReport(channel, remoteAddress, buf);
             } else if (prefix.length() < 5) {
                 universal = true;
-                return decodeUniversal(channel, remoteAddress, values);
-            } else if (prefix.endsWith("HTE")) {
+                return decodeUniversal(channel, remoteAddress, new BufferTokenizer(buf, ';'));
+            }
+
+            String[] values = buf.toString(StandardCharsets.US_ASCII).split(";", -1);
+            if (prefix.endsWith("HTE")) {
                 return decodeTravelReport(channel, remoteAddress, values);
             } else if (prefix.startsWith("ST9")) {
                 return decode9(channel, remoteAddress, values);
@@ -35,20 +35,34 @@ import org.traccar.model.Position;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
 
     private static final int IMAGE_PACKET_MAX = 2048;
 
-    private static final Map<Integer, Map<Predicate<String>, BiConsumer<Position, ByteBuf>>> PARAMETERS =
-            new HashMap<>();
+    private static final Pattern FMB6XX = Pattern.compile("FM.6..");
+
+    private record Parameter(int id, Predicate<String> predicate, BiConsumer<Position, ByteBuf> handler) {
+    }
+
+    private static final List<Parameter> PARAMETERS = new ArrayList<>();
+
+    /**
+     * Parameter handlers resolved for a device model, indexed by IO element id. Entries are null for ids that have
+     * no matching handler and are decoded as raw values.
+     */
+    private static final Map<String, BiConsumer<Position, ByteBuf>[]> PARAMETER_TABLES = new ConcurrentHashMap<>();
+    private static final BiConsumer<Position, ByteBuf>[] DEFAULT_PARAMETER_TABLE;
 
     private final boolean connectionless;
     private boolean extended;
@@ -189,13 +203,32 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
     }
 
     private static void register(int id, Predicate<String> predicate, BiConsumer<Position, ByteBuf> handler) {
-        PARAMETERS.computeIfAbsent(id, key -> new HashMap<>()).put(predicate, handler);
+        PARAMETERS.add(new Parameter(id, predicate, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Position, ByteBuf>[] createParameterTable(String model) {
+        int size = PARAMETERS.stream().mapToInt(Parameter::id).max().orElse(-1) + 1;
+        BiConsumer<Position, ByteBuf>[] table = new BiConsumer[size];
+        for (Parameter parameter : PARAMETERS) {
+            if (table[parameter.id()] == null && parameter.predicate().test(model)) {
+                table[parameter.id()] = parameter.handler();
+            }
+        }
+        return table;
+    }
+
+    private static BiConsumer<Position, ByteBuf>[] getParameterTable(String model) {
+        if (model == null) {
+            return DEFAULT_PARAMETER_TABLE;
+        }
+        return PARAMETER_TABLES.computeIfAbsent(model, TeltonikaProtocolDecoder::createParameterTable);
     }
 
     static {
         Predicate<String> any = (m) -> true;
         Predicate<String> fmbXXX = (m) -> m != null && (m.startsWith("FM") || m.equals("MTB100") || m.equals("MSP500"));
-        Predicate<String> fmb6XX = (m) -> m != null && m.matches("FM.6..");
+        Predicate<String> fmb6XX = (m) -> m != null && FMB6XX.matcher(m).matches();
 
         register(1, any, (p, b) -> p.set(Position.PREFIX_IN + 1, b.readUnsignedByte() > 0));
         register(2, any, (p, b) -> p.set(Position.PREFIX_IN + 2, b.readUnsignedByte() > 0));
@@ -294,6 +327,8 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
         register(10833, fmbXXX, (p, b) -> p.set("eyeRoll2", b.readShort()));
         register(10834, fmbXXX, (p, b) -> p.set("eyeRoll3", b.readShort()));
         register(10835, fmbXXX, (p, b) -> p.set("eyeRoll4", b.readShort()));
+
+        DEFAULT_PARAMETER_TABLE = createParameterTable(null);
     }
 
     private void decodeGh3000Parameter(Position position, int id, ByteBuf buf, int length) {
@@ -317,20 +352,16 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
         }
     }
 
-    private void decodeParameter(Position position, int id, ByteBuf buf, int length, int codec, String model) {
+    private void decodeParameter(
+            Position position, int id, ByteBuf buf, int length, int codec,
+            BiConsumer<Position, ByteBuf>[] parameters) {
         if (codec == CODEC_GH3000) {
             decodeGh3000Parameter(position, id, buf, length);
         } else {
-            int index = buf.readerIndex();
-            boolean decoded = false;
-            for (var entry : PARAMETERS.getOrDefault(id, new HashMap<>()).entrySet()) {
-                if (entry.getKey().test(model)) {
-                    entry.getValue().accept(position, buf);
-                    decoded = true;
-                    break;
-                }
-            }
-            if (decoded) {
+            BiConsumer<Position, ByteBuf> handler = id < parameters.length ? parameters[id] : null;
+            if (handler != null) {
+                int index = buf.readerIndex();
+                handler.accept(position, buf);
                 buf.readerIndex(index + length);
             } else {
                 position.set(Position.PREFIX_IO + id, readValue(buf, length));
@@ -401,6 +432,7 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
 
     private void decodeLocation(Position position, ByteBuf buf, int codec, String model) {
 
+        var parameters = getParameterTable(model);
         int globalMask = 0x0f;
 
         if (codec == CODEC_GH3000) {
@@ -496,7 +528,8 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
         if (BitUtil.check(globalMask, 1)) {
             int cnt = readExtByte(buf, codec, CODEC_8_EXT);
             for (int j = 0; j < cnt; j++) {
-                decodeParameter(position, readExtByte(buf, codec, CODEC_8_EXT, CODEC_16), buf, 1, codec, model);
+                int id = readExtByte(buf, codec, CODEC_8_EXT, CODEC_16);
+                decodeParameter(position, id, buf, 1, codec, parameters);
             }
         }
 
@@ -504,7 +537,8 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
         if (BitUtil.check(globalMask, 2)) {
             int cnt = readExtByte(buf, codec, CODEC_8_EXT);
             for (int j = 0; j < cnt; j++) {
-                decodeParameter(position, readExtByte(buf, codec, CODEC_8_EXT, CODEC_16), buf, 2, codec, model);
+                int id = readExtByte(buf, codec, CODEC_8_EXT, CODEC_16);
+                decodeParameter(position, id, buf, 2, codec, parameters);
             }
         }
 
@@ -512,7 +546,8 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
         if (BitUtil.check(globalMask, 3)) {
             int cnt = readExtByte(buf, codec, CODEC_8_EXT);
             for (int j = 0; j < cnt; j++) {
-                decodeParameter(position, readExtByte(buf, codec, CODEC_8_EXT, CODEC_16), buf, 4, codec, model);
+                int id = readExtByte(buf, codec, CODEC_8_EXT, CODEC_16);
+                decodeParameter(position, id, buf, 4, codec, parameters);
             }
         }
 
@@ -520,7 +555,8 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
         if (codec == CODEC_8 || codec == CODEC_8_EXT || codec == CODEC_16) {
             int cnt = readExtByte(buf, codec, CODEC_8_EXT);
             for (int j = 0; j < cnt; j++) {
-                decodeParameter(position, readExtByte(buf, codec, CODEC_8_EXT, CODEC_16), buf, 8, codec, model);
+                int id = readExtByte(buf, codec, CODEC_8_EXT, CODEC_16);
+                decodeParameter(position, id, buf, 8, codec, parameters);
             }
         }
 
@@ -619,7 +655,7 @@ public class TeltonikaProtocolDecoder extends BaseProtocolDecoder {
 
         decodeNetwork(position, model);
 
-        if (model != null && model.matches("FM.6..")) {
+        if (model != null && FMB6XX.matcher(model).matches()) {
             Long driverMsb = (Long) position.getAttributes().get("io195");
             Long driverLsb = (Long) position.getAttributes().get("io196");
             if (driverMsb != null && driverLsb != null) {
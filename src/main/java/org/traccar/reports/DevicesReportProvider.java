@@ -25,6 +25,7 @@ import org.traccar.model.Message;
 import org.traccar.model.User;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.DeviceReportItem;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -45,17 +46,19 @@ public class DevicesReportProvider {
     private final Config config;
     private final ReportUtils reportUtils;
     private final Storage storage;
+    private final CacheManager cacheManager;
 
     @Inject
-    public DevicesReportProvider(Config config, ReportUtils reportUtils, Storage storage) {
+    public DevicesReportProvider(Config config, ReportUtils reportUtils, Storage storage, CacheManager cacheManager) {
         this.config = config;
         this.reportUtils = reportUtils;
         this.storage = storage;
+        this.cacheManager = cacheManager;
     }
 
     public Collection<DeviceReportItem> getObjects(long userId) throws StorageException {
 
-        var positions = PositionUtil.getLatestPositions(storage, userId).stream()
+        var positions = PositionUtil.getLatestPositions(storage, cacheManager, userId).stream()
                 .collect(Collectors.toMap(Message::getDeviceId, p -> p));
 
         return storage.getObjects(Device.class, new Request(
@@ -22,6 +22,7 @@ import org.traccar.config.Keys;
 import org.traccar.helper.model.DeviceUtil;
 import org.traccar.model.Device;
 import org.traccar.model.Group;
+import org.traccar.reports.common.ReportTaskExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.DeviceReportSection;
 import org.traccar.reports.model.StopReportItem;
@@ -41,17 +42,21 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 public class StopsReportProvider {
 
     private final Config config;
     private final ReportUtils reportUtils;
+    private final ReportTaskExecutor reportTaskExecutor;
     private final Storage storage;
 
     @Inject
-    public StopsReportProvider(Config config, ReportUtils reportUtils, Storage storage) {
+    public StopsReportProvider(
+            Config config, ReportUtils reportUtils, ReportTaskExecutor reportTaskExecutor, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.reportTaskExecutor = reportTaskExecutor;
         this.storage = storage;
     }
 
@@ -61,9 +66,10 @@ public class StopsReportProvider {
         reportUtils.checkPeriodLimit(from, to);
 
         ArrayList<StopReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            result.addAll(reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class));
-        }
+        reportTaskExecutor.execute(
+                DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds),
+                device -> reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class))
+                .forEach(result::addAll);
         return result;
     }
 
@@ -74,8 +80,12 @@ public class StopsReportProvider {
 
         ArrayList<DeviceReportSection> devicesStops = new ArrayList<>();
         ArrayList<String> sheetNames = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            Collection<StopReportItem> stops = reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class);
+        var devices = List.copyOf(DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds));
+        var results = reportTaskExecutor.execute(
+                devices, device -> reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class));
+        for (int i = 0; i < devices.size(); i++) {
+            Device device = devices.get(i);
+            Collection<StopReportItem> stops = results.get(i);
             DeviceReportSection deviceStops = new DeviceReportSection();
             deviceStops.setDeviceName(device.getName());
             sheetNames.add(WorkbookUtil.createSafeSheetName(deviceStops.getDeviceName()));
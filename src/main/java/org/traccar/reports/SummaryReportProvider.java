@@ -27,6 +27,7 @@ import org.traccar.helper.model.PositionUtil;
 import org.traccar.helper.model.UserUtil;
 import org.traccar.model.Device;
 import org.traccar.model.Position;
+import org.traccar.reports.common.ReportTaskExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.common.TripsConfig;
 import org.traccar.reports.model.SummaryReportItem;
@@ -52,14 +53,17 @@ public class SummaryReportProvider {
 
     private final Config config;
     private final ReportUtils reportUtils;
+    private final ReportTaskExecutor reportTaskExecutor;
     private final PermissionsService permissionsService;
     private final Storage storage;
 
     @Inject
     public SummaryReportProvider(
-            Config config, ReportUtils reportUtils, PermissionsService permissionsService, Storage storage) {
+            Config config, ReportUtils reportUtils, ReportTaskExecutor reportTaskExecutor,
+            PermissionsService permissionsService, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.reportTaskExecutor = reportTaskExecutor;
         this.permissionsService = permissionsService;
         this.storage = storage;
     }
@@ -148,9 +152,11 @@ public class SummaryReportProvider {
         var tz = UserUtil.getTimezone(permissionsService.getServer(), permissionsService.getUser(userId)).toZoneId();
 
         ArrayList<SummaryReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            var deviceResults = calculateDeviceResults(
-                    device, from.toInstant().atZone(tz), to.toInstant().atZone(tz), daily);
+        var devicesResults = reportTaskExecutor.execute(
+                DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds),
+                device -> calculateDeviceResults(
+                        device, from.toInstant().atZone(tz), to.toInstant().atZone(tz), daily));
+        for (var deviceResults : devicesResults) {
             for (SummaryReportItem summaryReport : deviceResults) {
                 if (summaryReport.getStartTime() != null && summaryReport.getEndTime() != null) {
                     result.add(summaryReport);
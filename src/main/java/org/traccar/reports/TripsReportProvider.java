@@ -22,6 +22,7 @@ import org.traccar.config.Keys;
 import org.traccar.helper.model.DeviceUtil;
 import org.traccar.model.Device;
 import org.traccar.model.Group;
+import org.traccar.reports.common.ReportTaskExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.DeviceReportSection;
 import org.traccar.reports.model.TripReportItem;
@@ -41,17 +42,21 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 public class TripsReportProvider {
 
     private final Config config;
     private final ReportUtils reportUtils;
+    private final ReportTaskExecutor reportTaskExecutor;
     private final Storage storage;
 
     @Inject
-    public TripsReportProvider(Config config, ReportUtils reportUtils, Storage storage) {
+    public TripsReportProvider(
+            Config config, ReportUtils reportUtils, ReportTaskExecutor reportTaskExecutor, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.reportTaskExecutor = reportTaskExecutor;
         this.storage = storage;
     }
 
@@ -61,9 +66,10 @@ public class TripsReportProvider {
         reportUtils.checkPeriodLimit(from, to);
 
         ArrayList<TripReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            result.addAll(reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class));
-        }
+        reportTaskExecutor.execute(
+                DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds),
+                device -> reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class))
+                .forEach(result::addAll);
         return result;
     }
 
@@ -74,8 +80,12 @@ public class TripsReportProvider {
 
         ArrayList<DeviceReportSection> devicesTrips = new ArrayList<>();
         ArrayList<String> sheetNames = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            Collection<TripReportItem> trips = reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class);
+        var devices = List.copyOf(DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds));
+        var results = reportTaskExecutor.execute(
+                devices, device -> reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class));
+        for (int i = 0; i < devices.size(); i++) {
+            Device device = devices.get(i);
+            Collection<TripReportItem> trips = results.get(i);
             DeviceReportSection deviceTrips = new DeviceReportSection();
             deviceTrips.setDeviceName(device.getName());
             sheetNames.add(WorkbookUtil.createSafeSheetName(deviceTrips.getDeviceName()));
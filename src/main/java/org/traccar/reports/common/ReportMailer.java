@@ -67,17 +67,11 @@ public class ReportMailer {
         }).start();
     }
 
-    public void sendAsync(User user, String url) {
-        new Thread(() -> {
-            try {
-                var velocityContext = textTemplateFormatter.prepareContext(permissionsService.getServer(), user);
-                velocityContext.put("reportUrl", url);
-                var fullMessage = textTemplateFormatter.formatMessage(velocityContext, "scheduledReport", false);
-                mailManager.sendMessage(user, false, fullMessage.subject(), fullMessage.body());
-            } catch (StorageException | MessagingException e) {
-                LOGGER.warn("Email report failed", e);
-            }
-        }).start();
+    public void send(User user, String url) throws StorageException, MessagingException {
+        var velocityContext = textTemplateFormatter.prepareContext(permissionsService.getServer(), user);
+        velocityContext.put("reportUrl", url);
+        var fullMessage = textTemplateFormatter.formatMessage(velocityContext, "scheduledReport", false);
+        mailManager.sendMessage(user, false, fullMessage.subject(), fullMessage.body());
     }
 
 }
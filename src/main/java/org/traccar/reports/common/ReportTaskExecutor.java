@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.reports.common;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.model.Device;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Computes per-device report results in parallel. A shared pool caps the total number of devices processed at once,
+ * and each request uses at most a fixed number of workers from it. Results are returned in device order.
+ */
+@Singleton
+public class ReportTaskExecutor {
+
+    private static final int DEFAULT_POOL_SIZE = 10; // HikariCP default
+    private static final long CANCELLATION_CHECK_INTERVAL = 100;
+
+    private static final ThreadLocal<BooleanSupplier> CANCELLATION = new ThreadLocal<>();
+
+    public interface DeviceTask<T> {
+        T compute(Device device) throws StorageException;
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final ExecutorService executor;
+    private final int requestThreads;
+
+    private final MetricsManager.Summary queueWaitSummary;
+    private final MetricsManager.Summary computeTimeSummary;
+
+    @Inject
+    public ReportTaskExecutor(Config config, MetricsManager metricsManager) {
+        int threads = config.getInteger(Keys.REPORT_THREADS);
+        if (threads == 0) {
+            int poolSize = config.getInteger(Keys.DATABASE_MAX_POOL_SIZE);
+            threads = Math.max((poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE) / 2, 1);
+        }
+        requestThreads = Math.min(config.getInteger(Keys.REPORT_REQUEST_THREADS), threads);
+        if (threads > 1 && requestThreads > 1) {
+            AtomicInteger index = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "report-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            executor = null;
+        }
+
+        queueWaitSummary = metricsManager.summary("report.queue.wait");
+        computeTimeSummary = metricsManager.summary("report.device.time");
+    }
+
+    /**
+     * Set cancellation condition for reports executed on the current thread until the scope is closed, for example a
+     * closed client connection. Device tasks that have not started yet are skipped once the condition is met.
+     */
+    public Scope cancellable(BooleanSupplier cancelled) {
+        CANCELLATION.set(cancelled);
+        return CANCELLATION::remove;
+    }
+
+    private static boolean isCancelled(BooleanSupplier cancelled) {
+        return cancelled != null && cancelled.getAsBoolean();
+    }
+
+    private <T> T compute(DeviceTask<T> task, Device device) throws StorageException {
+        long startTime = System.nanoTime();
+        try {
+            return task.compute(device);
+        } finally {
+            computeTimeSummary.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+
+    public <T> List<T> execute(Collection<Device> devices, DeviceTask<T> task) throws StorageException {
+        List<Device> deviceList = List.copyOf(devices);
+        BooleanSupplier cancelled = CANCELLATION.get();
+
+        if (executor == null || deviceList.size() <= 1) {
+            List<T> result = new ArrayList<>(deviceList.size());
+            for (Device device : deviceList) {
+                if (isCancelled(cancelled)) {
+                    throw new CancellationException("Report cancelled");
+                }
+                result.add(compute(task, device));
+            }
+            return result;
+        }
+
+        Object[] results = new Object[deviceList.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        long submitTime = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < Math.min(requestThreads, deviceList.size()); i++) {
+            futures.add(executor.submit(() -> {
+                queueWaitSummary.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitTime));
+                int index;
+                while (!stopped.get() && (index = next.getAndIncrement()) < deviceList.size()) {
+                    results[index] = compute(task, deviceList.get(index));
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(CANCELLATION_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if (isCancelled(cancelled)) {
+                            throw new CancellationException("Report cancelled");
+                        }
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StorageException storageException) {
+                throw storageException;
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Report interrupted");
+        } finally {
+            stopped.set(true);
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) Arrays.asList(results);
+        return result;
+    }
+
+}
@@ -60,10 +60,9 @@ import java.io.OutputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 public class ReportUtils {
 
@@ -297,55 +296,63 @@ public class ReportUtils {
         boolean ignoreOdometer = tripsConfig.getIgnoreOdometer();
         boolean trips = reportClass.equals(TripReportItem.class);
 
-        List<Event> events = new ArrayList<>();
-        Map<Long, Position> positionMap = new HashMap<>();
         Position startPosition = null;
         double maxSpeed = 0;
-        var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
-        if (!positions.isEmpty()) {
+        try (var positions = PositionUtil.getPositionsStream(storage, device.getId(), from, to)) {
             MotionState motionState = new MotionState();
-            boolean initialValue = positions.get(0).getBoolean(Position.KEY_MOTION);
-            motionState.setMotionStreak(initialValue);
-            motionState.setMotionState(initialValue);
-            if (initialValue == trips) {
-                startPosition = positions.get(0);
-                maxSpeed = startPosition.getSpeed();
-            }
+            Position last = null;
+            Position motionPosition = null;
+            Iterator<Position> iterator = positions.iterator();
+            while (iterator.hasNext()) {
+                Position position = iterator.next();
+                if (last == null) {
+                    boolean initialValue = position.getBoolean(Position.KEY_MOTION);
+                    motionState.setMotionStreak(initialValue);
+                    motionState.setMotionState(initialValue);
+                    if (initialValue == trips) {
+                        startPosition = position;
+                        maxSpeed = startPosition.getSpeed();
+                    }
+                }
 
-            for (int i = 0; i < positions.size(); i++) {
-                Position last = i > 0 ? positions.get(i - 1) : null;
-                Position position = positions.get(i);
                 maxSpeed = Math.max(maxSpeed, position.getSpeed());
-                positionMap.put(position.getId(), position);
                 boolean motion = position.getBoolean(Position.KEY_MOTION);
-                MotionProcessor.updateState(motionState, last, positions.get(i), motion, tripsConfig);
-                if (motionState.getEvent() != null) {
-                    motionState.getEvent().set("maxSpeed", maxSpeed);
-                    events.add(motionState.getEvent());
-                    maxSpeed = 0;
+                MotionProcessor.updateState(motionState, last, position, motion, tripsConfig);
+                if (motionState.getMotionPositionId() == position.getId()) {
+                    motionPosition = position;
                 }
-            }
-        }
 
-        for (Event event : events) {
-            boolean motion = event.getType().equals(Event.TYPE_DEVICE_MOVING);
-            if (motion == trips) {
-                startPosition = positionMap.get(event.getPositionId());
-            } else if (startPosition != null) {
-                Position endPosition = positionMap.get(event.getPositionId());
-                if (endPosition != null) {
-                    result.add(calculateTripOrStop(
-                            device, startPosition, endPosition,
-                            event.getDouble("maxSpeed"), ignoreOdometer, reportClass));
+                Event event = motionState.getEvent();
+                if (event != null) {
+                    // event always refers to the previous position, the current one or the streak start
+                    Position eventPosition = null;
+                    if (last != null && event.getPositionId() == last.getId()) {
+                        eventPosition = last;
+                    } else if (event.getPositionId() == position.getId()) {
+                        eventPosition = position;
+                    } else if (motionPosition != null && event.getPositionId() == motionPosition.getId()) {
+                        eventPosition = motionPosition;
+                    }
+
+                    if (event.getType().equals(Event.TYPE_DEVICE_MOVING) == trips) {
+                        startPosition = eventPosition;
+                    } else if (startPosition != null) {
+                        if (eventPosition != null) {
+                            result.add(calculateTripOrStop(
+                                    device, startPosition, eventPosition, maxSpeed, ignoreOdometer, reportClass));
+                        }
+                        startPosition = null;
+                    }
+                    maxSpeed = 0;
                 }
-                startPosition = null;
+
+                last = position;
             }
-        }
 
-        if (startPosition != null) {
-            Position endPosition = positions.get(positions.size() - 1);
-            result.add(calculateTripOrStop(
-                    device, startPosition, endPosition, maxSpeed, ignoreOdometer, reportClass));
+            if (startPosition != null) {
+                result.add(calculateTripOrStop(
+                        device, startPosition, last, maxSpeed, ignoreOdometer, reportClass));
+            }
         }
 
         return result;
@@ -0,0 +1,628 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.reports.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Injector;
+import com.google.inject.servlet.RequestScoper;
+import com.google.inject.servlet.ServletScopes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.mail.MessagingException;
+import org.apache.commons.codec.binary.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.api.signature.CryptoManager;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.helper.DateUtil;
+import org.traccar.helper.LogAction;
+import org.traccar.helper.model.DeviceUtil;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.Report;
+import org.traccar.model.ReportArtifact;
+import org.traccar.model.ReportArtifactChunk;
+import org.traccar.model.User;
+import org.traccar.reports.EventsReportProvider;
+import org.traccar.reports.RouteReportProvider;
+import org.traccar.reports.StopsReportProvider;
+import org.traccar.reports.SummaryReportProvider;
+import org.traccar.reports.TripsReportProvider;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders scheduled reports in a bounded background pool. Each report period is rendered once per distinct set of
+ * accessible devices and stored in the database, so it can be served to every recipient with the same access by any
+ * server in a cluster. Job state is stored with the artifact, so unfinished jobs are resumed after a restart. Report
+ * types without a file format are sent as a link to the live report.
+ */
+@Singleton
+public class ScheduledReportManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScheduledReportManager.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final Set<String> RENDERED_TYPES = Set.of("route", "events", "trips", "stops", "summary");
+
+    private final Storage storage;
+    private final ObjectMapper objectMapper;
+    private final CryptoManager cryptoManager;
+    private final Injector injector;
+    private final LogAction actionLogger;
+    private final long retention;
+    private final long retryDelay;
+    private final long lease;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final LongAdder completed;
+    private final LongAdder failed;
+    private final MetricsManager.Summary renderTimeSummary;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    public static class KeyData {
+        @JsonProperty("a")
+        private long artifactId;
+        @JsonProperty("u")
+        private long userId;
+        @JsonProperty("e")
+        private Date expiration;
+    }
+
+    @Inject
+    public ScheduledReportManager(
+            Config config, Storage storage, ObjectMapper objectMapper, CryptoManager cryptoManager,
+            Injector injector, LogAction actionLogger, MetricsManager metricsManager) {
+        this.storage = storage;
+        this.objectMapper = objectMapper;
+        this.cryptoManager = cryptoManager;
+        this.injector = injector;
+        this.actionLogger = actionLogger;
+        retention = TimeUnit.DAYS.toMillis(config.getLong(Keys.REPORT_SCHEDULED_RETENTION));
+        retryDelay = TimeUnit.SECONDS.toMillis(config.getLong(Keys.REPORT_SCHEDULED_RETRY_DELAY));
+        lease = TimeUnit.SECONDS.toMillis(config.getLong(Keys.REPORT_SCHEDULED_LEASE));
+
+        int threads = config.getInteger(Keys.REPORT_SCHEDULED_THREADS);
+        AtomicInteger index = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-report-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        completed = metricsManager.counter("report.scheduled.completed");
+        failed = metricsManager.counter("report.scheduled.failed");
+        renderTimeSummary = metricsManager.summary("report.scheduled.time");
+        metricsManager.gauge("report.scheduled.backlog", () -> executor.getQueue().size() + executor.getActiveCount());
+    }
+
+    /**
+     * Resume jobs that were waiting to be rendered or delivered when the server stopped, and jobs whose lease expired.
+     */
+    public void start() throws StorageException {
+        if (started.compareAndSet(false, true)) {
+            resume(new Condition.Or(
+                    new Condition.Or(
+                            new Condition.Equals("status", ReportArtifact.STATUS_PENDING),
+                            new Condition.Equals("status", ReportArtifact.STATUS_COMPLETED)),
+                    getLeaseExpired()));
+        }
+    }
+
+    /**
+     * Resume claimed jobs whose lease expired, for example because the server that claimed them stopped.
+     */
+    public void resumeExpired() throws StorageException {
+        if (started.get()) {
+            resume(getLeaseExpired());
+        }
+    }
+
+    private Condition getLeaseExpired() {
+        return new Condition.And(
+                new Condition.Or(
+                        new Condition.Equals("status", ReportArtifact.STATUS_RUNNING),
+                        new Condition.Equals("status", ReportArtifact.STATUS_NOTIFYING)),
+                new Condition.Compare("startTime", "<", new Date(System.currentTimeMillis() - lease)));
+    }
+
+    private void resume(Condition condition) throws StorageException {
+        var artifacts = storage.getObjects(ReportArtifact.class, new Request(new Columns.Include("id"), condition));
+        if (!artifacts.isEmpty()) {
+            LOGGER.info("Resuming {} scheduled reports", artifacts.size());
+        }
+        artifacts.forEach(artifact -> submit(artifact.getId()));
+    }
+
+    private List<Long> getLinkedIds(Class<? extends BaseModel> clazz, long reportId) throws StorageException {
+        return storage.getObjects(clazz, new Request(
+                new Columns.Include("id"),
+                new Condition.Permission(clazz, Report.class, reportId)))
+                .stream().map(BaseModel::getId).toList();
+    }
+
+    private Set<Long> getDeviceIds(
+            long userId, List<Long> deviceIds, List<Long> groupIds) throws StorageException {
+        return DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)
+                .stream().map(Device::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Whether the user sees the same devices as the user the artifact was rendered for.
+     */
+    public boolean isAccessible(long userId, ReportArtifact artifact) throws StorageException {
+        if (userId == artifact.getUserId()) {
+            return true;
+        }
+        var deviceIds = getLinkedIds(Device.class, artifact.getReportId());
+        var groupIds = getLinkedIds(Group.class, artifact.getReportId());
+        return getDeviceIds(userId, deviceIds, groupIds).equals(
+                getDeviceIds(artifact.getUserId(), deviceIds, groupIds));
+    }
+
+    /**
+     * Create jobs for the finished report period. Recipients are grouped by accessible devices, so every group
+     * shares one rendered artifact.
+     */
+    public void schedule(Report report, Date from, Date to) throws StorageException {
+        var users = storage.getObjects(User.class, new Request(
+                new Columns.All(),
+                new Condition.Permission(User.class, Report.class, report.getId())));
+        if (users.isEmpty()) {
+            return;
+        }
+        var deviceIds = getLinkedIds(Device.class, report.getId());
+        var groupIds = getLinkedIds(Group.class, report.getId());
+
+        if (!RENDERED_TYPES.contains(report.getType())) {
+            String url = getLiveUrl(report.getType(), deviceIds, groupIds, from, to);
+            Map<User, String> links = new LinkedHashMap<>();
+            users.forEach(user -> links.put(user, url));
+            executor.execute(() -> sendLinks(links, report.getType(), from, to, deviceIds, groupIds));
+            return;
+        }
+
+        Map<Set<Long>, User> audiences = new LinkedHashMap<>();
+        for (User user : users) {
+            audiences.putIfAbsent(getDeviceIds(user.getId(), deviceIds, groupIds), user);
+        }
+        for (User user : audiences.values()) {
+            ReportArtifact artifact = new ReportArtifact();
+            artifact.setReportId(report.getId());
+            artifact.setUserId(user.getId());
+            artifact.setType(report.getType());
+            artifact.setPeriodStart(from);
+            artifact.setPeriodEnd(to);
+            artifact.setStatus(ReportArtifact.STATUS_PENDING);
+            artifact.setCreateTime(new Date());
+            submit(storage.addObject(artifact, new Request(new Columns.Exclude("id"))));
+        }
+    }
+
+    private void submit(long artifactId) {
+        executor.execute(() -> process(artifactId));
+    }
+
+    private record State(String status, int attempts, int notifyAttempts) {
+        static State of(ReportArtifact artifact) {
+            return new State(artifact.getStatus(), artifact.getAttempts(), artifact.getNotifyAttempts());
+        }
+    }
+
+    /**
+     * Update the artifact only if it is still in the expected state. Every claim changes the state, so a server that
+     * lost the job to another one can no longer change it.
+     */
+    private boolean updateArtifact(
+            ReportArtifact artifact, State expected, String... columns) throws StorageException {
+        return storage.compareAndUpdate(artifact, new Request(
+                new Columns.Include(columns),
+                new Condition.And(
+                        new Condition.Equals("id", artifact.getId()),
+                        new Condition.And(
+                                new Condition.Equals("status", expected.status()),
+                                new Condition.And(
+                                        new Condition.Equals("attempts", expected.attempts()),
+                                        new Condition.Equals("notifyAttempts", expected.notifyAttempts()))))));
+    }
+
+    /**
+     * Take ownership of the next step of a job. Pending jobs are claimed for rendering and completed jobs for
+     * delivery. Claimed jobs are taken over only after their lease expired.
+     */
+    private boolean claim(ReportArtifact artifact) throws StorageException {
+        State expected = State.of(artifact);
+        String status = artifact.getStatus();
+        boolean expired = artifact.getStartTime() != null
+                && artifact.getStartTime().getTime() < System.currentTimeMillis() - lease;
+        if (status.equals(ReportArtifact.STATUS_PENDING)
+                || (status.equals(ReportArtifact.STATUS_RUNNING) && expired)) {
+            artifact.setStatus(ReportArtifact.STATUS_RUNNING);
+            artifact.setAttempts(artifact.getAttempts() + 1);
+        } else if (status.equals(ReportArtifact.STATUS_COMPLETED)
+                || (status.equals(ReportArtifact.STATUS_NOTIFYING) && expired)) {
+            artifact.setStatus(ReportArtifact.STATUS_NOTIFYING);
+            artifact.setNotifyAttempts(artifact.getNotifyAttempts() + 1);
+        } else {
+            return false;
+        }
+        artifact.setStartTime(new Date());
+        return updateArtifact(artifact, expected, "status", "attempts", "notifyAttempts", "startTime");
+    }
+
+    private void process(long artifactId) {
+        process(artifactId, null);
+    }
+
+    /**
+     * Run the next step of a job, rendering followed by delivery.
+     *
+     * @param pending links that still have to be sent, or null for all recipients
+     */
+    private void process(long artifactId, Map<User, String> pending) {
+        ReportArtifact artifact;
+        try {
+            artifact = storage.getObject(ReportArtifact.class, new Request(
+                    new Columns.All(), new Condition.Equals("id", artifactId)));
+            if (artifact == null || !claim(artifact)) {
+                return;
+            }
+            if (artifact.getStatus().equals(ReportArtifact.STATUS_RUNNING)
+                    && (!renderArtifact(artifact) || !claim(artifact))) {
+                return;
+            }
+        } catch (StorageException e) {
+            LOGGER.warn("Scheduled report state error", e);
+            return;
+        }
+        notify(artifact, pending);
+    }
+
+    /**
+     * Render the claimed job. Returns whether the job was completed.
+     */
+    private boolean renderArtifact(ReportArtifact artifact) {
+        State claimed = State.of(artifact);
+        long artifactId = artifact.getId();
+        long startTime = System.nanoTime();
+        RequestScoper scope = ServletScopes.scopeRequest(Collections.emptyMap());
+        try (RequestScoper.CloseableScope ignored = scope.open()) {
+            var deviceIds = getLinkedIds(Device.class, artifact.getReportId());
+            var groupIds = getLinkedIds(Group.class, artifact.getReportId());
+
+            removeChunks(artifactId);
+            ChunkOutputStream outputStream = new ChunkOutputStream(artifactId, artifact.getAttempts());
+            render(artifact, deviceIds, groupIds, outputStream);
+            outputStream.close();
+
+            artifact.setStatus(ReportArtifact.STATUS_COMPLETED);
+            artifact.setCompleteTime(new Date());
+            artifact.setFileSize(outputStream.getSize());
+            if (!updateArtifact(artifact, claimed, "status", "completeTime", "fileSize")) {
+                LOGGER.info("Scheduled report {} was claimed by another server", artifactId);
+                return false;
+            }
+            completed.increment();
+            renderTimeSummary.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            return true;
+        } catch (StorageException | IOException | RuntimeException e) {
+            LOGGER.warn("Scheduled report error", e);
+            boolean retry = artifact.getAttempts() < MAX_ATTEMPTS;
+            artifact.setStatus(retry ? ReportArtifact.STATUS_PENDING : ReportArtifact.STATUS_FAILED);
+            try {
+                if (!updateArtifact(artifact, claimed, "status")) {
+                    return false;
+                }
+            } catch (StorageException error) {
+                LOGGER.warn("Scheduled report state error", error);
+                return false;
+            }
+            if (retry) {
+                long delay = retryDelay << (artifact.getAttempts() - 1);
+                executor.schedule(() -> process(artifactId), delay, TimeUnit.MILLISECONDS);
+            } else {
+                failed.increment();
+                try {
+                    removeChunks(artifactId);
+                } catch (StorageException error) {
+                    LOGGER.warn("Scheduled report cleanup error", error);
+                }
+            }
+            return false;
+        }
+    }
+
+    private Map<User, String> getLinks(
+            ReportArtifact artifact, List<Long> deviceIds, List<Long> groupIds)
+            throws StorageException, IOException, GeneralSecurityException {
+        Set<Long> audience = getDeviceIds(artifact.getUserId(), deviceIds, groupIds);
+        Map<User, String> links = new LinkedHashMap<>();
+        for (User user : storage.getObjects(User.class, new Request(
+                new Columns.All(),
+                new Condition.Permission(User.class, Report.class, artifact.getReportId())))) {
+            if (user.getId() == artifact.getUserId()
+                    || getDeviceIds(user.getId(), deviceIds, groupIds).equals(audience)) {
+                links.put(user, getArtifactUrl(artifact, user.getId()));
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Email the claimed job to its recipients. The job is marked as notified only after every email was sent. Failed
+     * emails are retried with the same backoff as rendering, then the job is marked as failed.
+     */
+    private void notify(ReportArtifact artifact, Map<User, String> pending) {
+        State claimed = State.of(artifact);
+        Map<User, String> remaining;
+        try {
+            var deviceIds = getLinkedIds(Device.class, artifact.getReportId());
+            var groupIds = getLinkedIds(Group.class, artifact.getReportId());
+            Map<User, String> links = pending != null ? pending : getLinks(artifact, deviceIds, groupIds);
+            remaining = sendLinks(
+                    links, artifact.getType(), artifact.getPeriodStart(), artifact.getPeriodEnd(),
+                    deviceIds, groupIds);
+        } catch (StorageException | IOException | GeneralSecurityException e) {
+            LOGGER.warn("Scheduled report recipients error", e);
+            remaining = pending;
+        }
+
+        boolean delivered = remaining != null && remaining.isEmpty();
+        boolean retry = !delivered && artifact.getNotifyAttempts() < MAX_ATTEMPTS;
+        if (delivered) {
+            artifact.setStatus(ReportArtifact.STATUS_NOTIFIED);
+        } else if (retry) {
+            artifact.setStatus(ReportArtifact.STATUS_COMPLETED);
+        } else {
+            artifact.setStatus(ReportArtifact.STATUS_FAILED);
+        }
+        try {
+            if (!updateArtifact(artifact, claimed, "status")) {
+                return;
+            }
+        } catch (StorageException e) {
+            LOGGER.warn("Scheduled report state error", e);
+            return;
+        }
+        if (retry) {
+            long artifactId = artifact.getId();
+            Map<User, String> links = remaining;
+            long delay = retryDelay << (artifact.getNotifyAttempts() - 1);
+            executor.schedule(() -> process(artifactId, links), delay, TimeUnit.MILLISECONDS);
+        } else if (!delivered) {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Stores the file in fixed size chunks while it is rendered.
+     */
+    private class ChunkOutputStream extends OutputStream {
+
+        private final long artifactId;
+        private final int attempt;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int position;
+        private int index;
+        private long size;
+
+        ChunkOutputStream(long artifactId, int attempt) {
+            this.artifactId = artifactId;
+            this.attempt = attempt;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            while (length > 0) {
+                int count = Math.min(length, buffer.length - position);
+                System.arraycopy(data, offset, buffer, position, count);
+                position += count;
+                offset += count;
+                length -= count;
+                size += count;
+                if (position == buffer.length) {
+                    flushChunk();
+                }
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if (position > 0) {
+                ReportArtifactChunk chunk = new ReportArtifactChunk();
+                chunk.setArtifactId(artifactId);
+                chunk.setAttempt(attempt);
+                chunk.setChunkIndex(index++);
+                chunk.setData(Arrays.copyOf(buffer, position));
+                position = 0;
+                try {
+                    storage.addObject(chunk, new Request(new Columns.Exclude("id")));
+                } catch (StorageException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+        }
+
+    }
+
+    private void removeChunks(long artifactId) throws StorageException {
+        storage.removeObject(ReportArtifactChunk.class, new Request(new Condition.Equals("artifactId", artifactId)));
+    }
+
+    /**
+     * Copies the stored file to the output one chunk at a time. Chunks written by abandoned attempts are skipped.
+     */
+    public void writeArtifact(
+            ReportArtifact artifact, OutputStream outputStream) throws StorageException, IOException {
+        try (var chunks = storage.getObjectsStream(ReportArtifactChunk.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("artifactId", artifact.getId()),
+                        new Condition.Equals("attempt", artifact.getAttempts())),
+                new Order("chunkIndex")))) {
+            for (var iterator = chunks.iterator(); iterator.hasNext();) {
+                outputStream.write(iterator.next().getData());
+            }
+        }
+    }
+
+    private void render(
+            ReportArtifact artifact, List<Long> deviceIds, List<Long> groupIds,
+            OutputStream outputStream) throws StorageException, IOException {
+        long userId = artifact.getUserId();
+        Date from = artifact.getPeriodStart();
+        Date to = artifact.getPeriodEnd();
+        switch (artifact.getType()) {
+            case "route" -> injector.getInstance(RouteReportProvider.class)
+                    .getExcel(outputStream, userId, deviceIds, groupIds, from, to);
+            case "events" -> injector.getInstance(EventsReportProvider.class)
+                    .getExcel(outputStream, userId, deviceIds, groupIds, List.of(), List.of(), from, to);
+            case "trips" -> injector.getInstance(TripsReportProvider.class)
+                    .getExcel(outputStream, userId, deviceIds, groupIds, from, to);
+            case "stops" -> injector.getInstance(StopsReportProvider.class)
+                    .getExcel(outputStream, userId, deviceIds, groupIds, from, to);
+            case "summary" -> injector.getInstance(SummaryReportProvider.class)
+                    .getExcel(outputStream, userId, deviceIds, groupIds, from, to, false);
+            default -> throw new IllegalArgumentException("Unsupported report type " + artifact.getType());
+        }
+    }
+
+    /**
+     * Download link with a signed key, so the recipient does not need a session. The key is limited to one artifact
+     * and one user and expires together with the artifact.
+     */
+    private String getArtifactUrl(
+            ReportArtifact artifact, long userId) throws IOException, GeneralSecurityException, StorageException {
+        KeyData data = new KeyData();
+        data.artifactId = artifact.getId();
+        data.userId = userId;
+        data.expiration = new Date(artifact.getCreateTime().getTime() + retention);
+        byte[] encoded = objectMapper.writeValueAsBytes(data);
+        String key = Base64.encodeBase64URLSafeString(cryptoManager.sign(encoded));
+        return "/api/reports/artifacts/" + artifact.getId() + "?key=" + key;
+    }
+
+    /**
+     * Returns the user a download key was issued to.
+     */
+    public long verifyKey(
+            long artifactId, String key) throws IOException, GeneralSecurityException, StorageException {
+        byte[] encoded = cryptoManager.verify(Base64.decodeBase64(key));
+        KeyData data = objectMapper.readValue(encoded, KeyData.class);
+        if (data.artifactId != artifactId) {
+            throw new SecurityException("Invalid report key");
+        }
+        if (data.expiration.before(new Date())) {
+            throw new SecurityException("Report key has expired");
+        }
+        return data.userId;
+    }
+
+    private static String getLiveUrl(
+            String type, List<Long> deviceIds, List<Long> groupIds, Date from, Date to) {
+        StringBuilder url = new StringBuilder("/reports/");
+        url.append(type).append('?');
+        Stream.concat(
+                deviceIds.stream().map(id -> "deviceId=" + id),
+                groupIds.stream().map(id -> "groupId=" + id))
+                .forEach(parameter -> url.append(parameter).append('&'));
+        url.append("from=").append(URLEncoder.encode(DateUtil.formatDate(from, true), StandardCharsets.UTF_8));
+        url.append('&');
+        url.append("to=").append(URLEncoder.encode(DateUtil.formatDate(to, true), StandardCharsets.UTF_8));
+        return url.toString();
+    }
+
+    /**
+     * Returns the links that could not be sent.
+     */
+    private Map<User, String> sendLinks(
+            Map<User, String> links, String type, Date from, Date to,
+            List<Long> deviceIds, List<Long> groupIds) {
+        Map<User, String> failedLinks = new LinkedHashMap<>();
+        RequestScoper scope = ServletScopes.scopeRequest(Collections.emptyMap());
+        try (RequestScoper.CloseableScope ignored = scope.open()) {
+            ReportMailer reportMailer = injector.getInstance(ReportMailer.class);
+            for (var entry : links.entrySet()) {
+                User user = entry.getKey();
+                actionLogger.report(null, user.getId(), true, type, from, to, deviceIds, groupIds);
+                try {
+                    reportMailer.send(user, entry.getValue());
+                } catch (StorageException | MessagingException e) {
+                    LOGGER.warn("Email report failed", e);
+                    failedLinks.put(user, entry.getValue());
+                }
+            }
+        }
+        return failedLinks;
+    }
+
+    /**
+     * Delete artifacts older than the retention period.
+     */
+    public void removeExpired() throws StorageException {
+        if (!started.get()) {
+            return;
+        }
+        Date threshold = new Date(System.currentTimeMillis() - retention);
+        storage.removeObject(ReportArtifact.class, new Request(new Condition.Compare("createTime", "<", threshold)));
+    }
+
+}
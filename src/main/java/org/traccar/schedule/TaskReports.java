@@ -15,38 +15,27 @@
  */
 package org.traccar.schedule;
 
-import com.google.inject.Injector;
-import com.google.inject.servlet.RequestScoper;
-import com.google.inject.servlet.ServletScopes;
 import net.fortuna.ical4j.model.Period;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.traccar.helper.DateUtil;
-import org.traccar.helper.LogAction;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Calendar;
-import org.traccar.model.Device;
-import org.traccar.model.Group;
 import org.traccar.model.Report;
-import org.traccar.model.User;
-import org.traccar.reports.common.ReportMailer;
+import org.traccar.reports.common.ScheduledReportManager;
 import org.traccar.storage.Storage;
-import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
-import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
 import jakarta.inject.Inject;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class TaskReports extends SingleScheduleTask {
@@ -55,19 +44,24 @@ public class TaskReports extends SingleScheduleTask {
 
     private static final long CHECK_PERIOD_MINUTES = 15;
 
-    private final LogAction actionLogger;
     private final Storage storage;
-    private final Injector injector;
+    private final ScheduledReportManager scheduledReportManager;
 
     @Inject
-    public TaskReports(LogAction actionLogger, Storage storage, Injector injector) {
-        this.actionLogger = actionLogger;
+    public TaskReports(Storage storage, ScheduledReportManager scheduledReportManager) {
         this.storage = storage;
-        this.injector = injector;
+        this.scheduledReportManager = scheduledReportManager;
     }
 
     @Override
     public void schedule(ScheduledExecutorService executor) {
+        executor.execute(() -> {
+            try {
+                scheduledReportManager.start();
+            } catch (Exception e) {
+                LOGGER.warn("Scheduled reports start error", e);
+            }
+        });
         executor.scheduleAtFixedRate(this, CHECK_PERIOD_MINUTES, CHECK_PERIOD_MINUTES, TimeUnit.MINUTES);
     }
 
@@ -77,9 +71,16 @@ public class TaskReports extends SingleScheduleTask {
         Date lastCheck = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(CHECK_PERIOD_MINUTES));
 
         try {
-            for (Report report : storage.getObjects(Report.class, new Request(new Columns.All()))) {
-                Calendar calendar = storage.getObject(Calendar.class, new Request(
-                        new Columns.All(), new Condition.Equals("id", report.getCalendarId())));
+            var reports = storage.getObjects(Report.class, new Request(new Columns.All()));
+            Map<Long, Calendar> calendars = reports.isEmpty() ? Map.of()
+                    : storage.getObjects(Calendar.class, new Request(new Columns.All())).stream()
+                            .collect(Collectors.toMap(BaseModel::getId, Function.identity()));
+
+            for (Report report : reports) {
+                Calendar calendar = calendars.get(report.getCalendarId());
+                if (calendar == null) {
+                    continue;
+                }
 
                 var lastEvents = calendar.findPeriods(lastCheck);
                 var currentEvents = calendar.findPeriods(currentCheck);
@@ -87,56 +88,15 @@ public class TaskReports extends SingleScheduleTask {
                 Set<Period<Instant>> finishedEvents = new HashSet<>(lastEvents);
                 finishedEvents.removeAll(currentEvents);
                 for (Period<Instant> period : finishedEvents) {
-                    RequestScoper scope = ServletScopes.scopeRequest(Collections.emptyMap());
-                    try (RequestScoper.CloseableScope ignored = scope.open()) {
-                        executeReport(report, Date.from(period.getStart()), Date.from(period.getEnd()));
-                    }
+                    scheduledReportManager.schedule(report, Date.from(period.getStart()), Date.from(period.getEnd()));
                 }
             }
+
+            scheduledReportManager.resumeExpired();
+            scheduledReportManager.removeExpired();
         } catch (Exception e) {
             LOGGER.warn("Scheduled reports error", e);
         }
     }
 
-    private void executeReport(Report report, Date from, Date to) throws StorageException {
-
-        var deviceIds = storage.getObjects(Device.class, new Request(
-                new Columns.Include("id"),
-                new Condition.Permission(Device.class, Report.class, report.getId())))
-                .stream().map(BaseModel::getId).toList();
-        var deviceIdsPart = deviceIds.stream()
-                .map(id -> "deviceId=" + id)
-                .collect(Collectors.joining("&"));
-
-        var groupIds = storage.getObjects(Group.class, new Request(
-                new Columns.Include("id"),
-                new Condition.Permission(Group.class, Report.class, report.getId())))
-                .stream().map(BaseModel::getId).toList();
-        var groupIdsPart = groupIds.stream()
-                .map(id -> "groupId=" + id)
-                .collect(Collectors.joining("&"));
-
-        var users = storage.getObjects(User.class, new Request(
-                new Columns.All(),
-                new Condition.Permission(User.class, Report.class, report.getId())));
-
-        StringBuilder url = new StringBuilder("/reports/");
-        url.append(report.getType()).append('?');
-        if (!deviceIdsPart.isEmpty()) {
-            url.append(deviceIdsPart).append('&');
-        }
-        if (!groupIdsPart.isEmpty()) {
-            url.append(groupIdsPart).append('&');
-        }
-        url.append("from=").append(URLEncoder.encode(DateUtil.formatDate(from, true), StandardCharsets.UTF_8));
-        url.append('&');
-        url.append("to=").append(URLEncoder.encode(DateUtil.formatDate(to, true), StandardCharsets.UTF_8));
-
-        ReportMailer reportMailer = injector.getInstance(ReportMailer.class);
-        for (User user : users) {
-            actionLogger.report(null, user.getId(), true, report.getType(), from, to, deviceIds, groupIds);
-            reportMailer.sendAsync(user, url.toString());
-        }
-    }
-
 }
@@ -15,6 +15,8 @@
  */
 package org.traccar.session;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.channel.Channel;
 import io.netty.util.Timeout;
 import io.netty.util.Timer;
@@ -26,11 +28,14 @@ import org.traccar.broadcast.BroadcastService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.DeviceLookupService;
+import org.traccar.database.DeviceInactivityManager;
+import org.traccar.database.DeviceStateWriter;
 import org.traccar.database.NotificationManager;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Event;
 import org.traccar.model.LogRecord;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.Position;
 import org.traccar.model.User;
 import org.traccar.session.cache.CacheManager;
@@ -45,17 +50,14 @@ import jakarta.inject.Singleton;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 @Singleton
 public class ConnectionManager implements BroadcastInterface {
@@ -76,10 +78,13 @@ public class ConnectionManager implements BroadcastInterface {
     private final Timer timer;
     private final BroadcastService broadcastService;
     private final DeviceLookupService deviceLookupService;
+    private final DeviceStateWriter deviceStateWriter;
+    private final DeviceInactivityManager deviceInactivityManager;
+    private final ObjectMapper objectMapper;
 
-    private final Map<Long, Set<UpdateListener>> listeners = new HashMap<>();
-    private final Map<Long, Set<Long>> userDevices = new HashMap<>();
-    private final Map<Long, Set<Long>> deviceUsers = new HashMap<>();
+    private final Map<Long, Set<UpdateListener>> listeners = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> userDevices = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> deviceUsers = new ConcurrentHashMap<>();
 
     private final Map<Long, Timeout> timeouts = new ConcurrentHashMap<>();
 
@@ -87,7 +92,8 @@ public class ConnectionManager implements BroadcastInterface {
     public ConnectionManager(
             Config config, CacheManager cacheManager, Storage storage,
             NotificationManager notificationManager, Timer timer, BroadcastService broadcastService,
-            DeviceLookupService deviceLookupService) {
+            DeviceLookupService deviceLookupService, DeviceStateWriter deviceStateWriter,
+            DeviceInactivityManager deviceInactivityManager, ObjectMapper objectMapper) {
         this.config = config;
         this.cacheManager = cacheManager;
         this.storage = storage;
@@ -95,6 +101,9 @@ public class ConnectionManager implements BroadcastInterface {
         this.timer = timer;
         this.broadcastService = broadcastService;
         this.deviceLookupService = deviceLookupService;
+        this.deviceStateWriter = deviceStateWriter;
+        this.deviceInactivityManager = deviceInactivityManager;
+        this.objectMapper = objectMapper;
         deviceTimeout = config.getLong(Keys.STATUS_TIMEOUT);
         showUnknownDevices = config.getBoolean(Keys.WEB_SHOW_UNKNOWN_DEVICES);
         broadcastService.registerListener(this);
@@ -180,11 +189,16 @@ public class ConnectionManager implements BroadcastInterface {
         try {
             device.setId(storage.addObject(device, new Request(new Columns.Exclude("id"))));
             LOGGER.info("Automatically registered " + uniqueId);
-            return device;
         } catch (StorageException e) {
             LOGGER.warn("Automatic registration failed", e);
             return null;
         }
+        try {
+            cacheManager.invalidateObject(true, Device.class, device.getId(), ObjectOperation.ADD);
+        } catch (Exception e) {
+            LOGGER.warn("Registered device invalidation failed", e);
+        }
+        return device;
     }
 
     public void deviceDisconnected(Channel channel, boolean supportsOffline) {
@@ -268,18 +282,30 @@ public class ConnectionManager implements BroadcastInterface {
             }, deviceTimeout, TimeUnit.SECONDS));
         }
 
-        try {
-            storage.updateObject(device, new Request(
-                    new Columns.Include("status", "lastUpdate"),
-                    new Condition.Equals("id", deviceId)));
-        } catch (StorageException e) {
-            LOGGER.warn("Update device status error", e);
-        }
+        deviceStateWriter.update(device, "status", "lastUpdate");
 
         updateDevice(true, device);
     }
 
-    public synchronized void sendKeepalive() {
+    @Override
+    public boolean hasDevice(long deviceId) {
+        return sessionsByDeviceId.containsKey(deviceId) || timeouts.containsKey(deviceId)
+                || deviceUsers.containsKey(deviceId) || deviceInactivityManager.hasDevice(deviceId);
+    }
+
+    @Override
+    public boolean hasUser(long userId) {
+        return listeners.containsKey(userId);
+    }
+
+    /**
+     * Whether any user is subscribed to updates. Allows skipping preparation of updates nobody receives.
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    public void sendKeepalive() {
         for (Set<UpdateListener> userListeners : listeners.values()) {
             for (UpdateListener listener : userListeners) {
                 listener.onKeepalive();
@@ -287,47 +313,44 @@ public class ConnectionManager implements BroadcastInterface {
         }
     }
 
+    private <T> void notifyUsers(Set<Long> userIds, Update<T> update, BiConsumer<UpdateListener, Update<T>> action) {
+        for (long userId : userIds) {
+            for (UpdateListener listener : listeners.getOrDefault(userId, Set.of())) {
+                action.accept(listener, update);
+            }
+        }
+    }
+
     @Override
-    public synchronized void updateDevice(boolean local, Device device) {
+    public void updateDevice(boolean local, Device device) {
+        deviceInactivityManager.updateDevice(device);
         if (local) {
             broadcastService.updateDevice(true, device);
         } else if (Device.STATUS_ONLINE.equals(device.getStatus())) {
             timeouts.remove(device.getId());
             removeDeviceSession(device.getId());
         }
-        for (long userId : deviceUsers.getOrDefault(device.getId(), Collections.emptySet())) {
-            if (listeners.containsKey(userId)) {
-                for (UpdateListener listener : listeners.get(userId)) {
-                    listener.onUpdateDevice(device);
-                }
-            }
-        }
+        notifyUsers(
+                deviceUsers.getOrDefault(device.getId(), Set.of()), new Update<>(objectMapper, device),
+                UpdateListener::onUpdateDevice);
     }
 
     @Override
-    public synchronized void updatePosition(boolean local, Position position) {
+    public void updatePosition(boolean local, Position position) {
         if (local) {
             broadcastService.updatePosition(true, position);
         }
-        for (long userId : deviceUsers.getOrDefault(position.getDeviceId(), Collections.emptySet())) {
-            if (listeners.containsKey(userId)) {
-                for (UpdateListener listener : listeners.get(userId)) {
-                    listener.onUpdatePosition(position);
-                }
-            }
-        }
+        notifyUsers(
+                deviceUsers.getOrDefault(position.getDeviceId(), Set.of()), new Update<>(objectMapper, position),
+                UpdateListener::onUpdatePosition);
     }
 
     @Override
-    public synchronized void updateEvent(boolean local, long userId, Event event) {
+    public void updateEvent(boolean local, long userId, Event event) {
         if (local) {
             broadcastService.updateEvent(true, userId, event);
         }
-        if (listeners.containsKey(userId)) {
-            for (UpdateListener listener : listeners.get(userId)) {
-                listener.onUpdateEvent(event);
-            }
-        }
+        notifyUsers(Set.of(userId), new Update<>(objectMapper, event), UpdateListener::onUpdateEvent);
     }
 
     @Override
@@ -336,51 +359,79 @@ public class ConnectionManager implements BroadcastInterface {
         if (link && clazz1.equals(User.class) && clazz2.equals(Device.class)) {
             if (listeners.containsKey(id1)) {
                 userDevices.get(id1).add(id2);
-                deviceUsers.put(id2, new HashSet<>(List.of(id1)));
+                deviceUsers.computeIfAbsent(id2, id -> ConcurrentHashMap.newKeySet()).add(id1);
             }
         }
     }
 
-    public synchronized void updateLog(LogRecord record) {
+    public void updateLog(LogRecord record) {
         var sessions = sessionsByEndpoint.getOrDefault(record.getConnectionKey(), Map.of());
         if (sessions.isEmpty()) {
             String unknownUniqueId = unknownByEndpoint.get(record.getConnectionKey());
             if (unknownUniqueId != null && showUnknownDevices) {
                 record.setUniqueId(unknownUniqueId);
-                listeners.values().stream()
-                        .flatMap(Set::stream)
-                        .forEach((listener) -> listener.onUpdateLog(record));
+                notifyUsers(listeners.keySet(), new Update<>(objectMapper, record), UpdateListener::onUpdateLog);
             }
         } else {
             var firstEntry = sessions.entrySet().iterator().next();
             record.setUniqueId(firstEntry.getKey());
             record.setDeviceId(firstEntry.getValue().getDeviceId());
-            for (long userId : deviceUsers.getOrDefault(record.getDeviceId(), Set.of())) {
-                for (UpdateListener listener : listeners.getOrDefault(userId, Set.of())) {
-                    listener.onUpdateLog(record);
-                }
+            notifyUsers(
+                    deviceUsers.getOrDefault(record.getDeviceId(), Set.of()), new Update<>(objectMapper, record),
+                    UpdateListener::onUpdateLog);
+        }
+    }
+
+    /**
+     * Object pushed to listeners. JSON is produced on first use and shared by all listeners of the same update.
+     */
+    public static final class Update<T> {
+
+        private final ObjectMapper objectMapper;
+        private final T value;
+        private volatile String json;
+
+        public Update(ObjectMapper objectMapper, T value) {
+            this.objectMapper = objectMapper;
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public String getJson() throws JsonProcessingException {
+            String result = json;
+            if (result == null) {
+                result = objectMapper.writeValueAsString(value);
+                json = result;
             }
+            return result;
         }
+
     }
 
     public interface UpdateListener {
         void onKeepalive();
-        void onUpdateDevice(Device device);
-        void onUpdatePosition(Position position);
-        void onUpdateEvent(Event event);
-        void onUpdateLog(LogRecord record);
+        void onUpdateDevice(Update<Device> update);
+        void onUpdatePosition(Update<Position> update);
+        void onUpdateEvent(Update<Event> update);
+        void onUpdateLog(Update<LogRecord> update);
     }
 
     public synchronized void addListener(long userId, UpdateListener listener) throws StorageException {
         var set = listeners.get(userId);
         if (set == null) {
-            set = new HashSet<>();
-            listeners.put(userId, set);
+            set = ConcurrentHashMap.newKeySet();
 
             var devices = storage.getObjects(Device.class, new Request(
                     new Columns.Include("id"), new Condition.Permission(User.class, userId, Device.class)));
-            userDevices.put(userId, devices.stream().map(BaseModel::getId).collect(Collectors.toSet()));
-            devices.forEach(device -> deviceUsers.computeIfAbsent(device.getId(), id -> new HashSet<>()).add(userId));
+            Set<Long> deviceIds = ConcurrentHashMap.newKeySet();
+            devices.forEach(device -> deviceIds.add(device.getId()));
+            userDevices.put(userId, deviceIds);
+            devices.forEach(device -> deviceUsers.computeIfAbsent(
+                    device.getId(), id -> ConcurrentHashMap.newKeySet()).add(userId));
+            listeners.put(userId, set);
         }
         set.add(listener);
     }
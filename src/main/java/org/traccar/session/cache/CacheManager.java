@@ -22,6 +22,10 @@ import org.slf4j.LoggerFactory;
 import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.broadcast.BroadcastService;
 import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.geofence.GeofenceGeometry;
+import org.traccar.geofence.GeofenceIndex;
 import org.traccar.model.Attribute;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Calendar;
@@ -44,10 +48,13 @@ import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -68,14 +75,49 @@ public class CacheManager implements BroadcastInterface {
     private volatile Server server;
     private final Map<Long, Position> devicePositions = new ConcurrentHashMap<>();
     private final Map<Long, HashSet<Object>> deviceReferences = new ConcurrentHashMap<>();
+    private final Set<BroadcastInterface> listeners = ConcurrentHashMap.newKeySet();
+
+    private record GeofenceIndexEntry(long version, GeofenceIndex index) {
+    }
+
+    private final AtomicLong geofenceVersion = new AtomicLong();
+    private final Map<Long, GeofenceIndexEntry> geofenceIndexes = new ConcurrentHashMap<>();
+
+    private volatile PermissionIndex permissionIndex;
+    private final long permissionIndexExpiration;
+
+    private final MetricsManager.Summary fillTime;
 
     @Inject
-    public CacheManager(Config config, Storage storage, BroadcastService broadcastService) throws StorageException {
+    public CacheManager(
+            Config config, Storage storage, BroadcastService broadcastService,
+            MetricsManager metricsManager) throws StorageException {
         this.config = config;
         this.storage = storage;
         this.broadcastService = broadcastService;
         server = storage.getObject(Server.class, new Request(new Columns.All()));
         broadcastService.registerListener(this);
+
+        fillTime = metricsManager.summary("cache.fill.time");
+        metricsManager.gauge("cache.devices", deviceReferences::size);
+
+        long warmup = config.getLong(Keys.SERVER_CACHE_WARMUP);
+        if (warmup > 0) {
+            long startTime = System.currentTimeMillis();
+            PermissionIndex index = new PermissionIndex();
+            index.load(storage, User.class, Notification.class);
+            for (Class<? extends BaseModel> ownerClass : List.of(Device.class, Group.class)) {
+                index.load(storage, User.class, ownerClass);
+                for (Class<? extends BaseModel> clazz : GROUPED_CLASSES) {
+                    index.load(storage, ownerClass, clazz);
+                }
+            }
+            permissionIndex = index;
+            permissionIndexExpiration = System.currentTimeMillis() + warmup * 1000;
+            LOGGER.info("Cache warmup loaded permissions in {} ms", System.currentTimeMillis() - startTime);
+        } else {
+            permissionIndexExpiration = 0;
+        }
     }
 
     @Override
@@ -87,6 +129,13 @@ public class CacheManager implements BroadcastInterface {
         return config;
     }
 
+    /**
+     * Register listener notified after cached objects are invalidated, both for local and remote changes.
+     */
+    public void registerListener(BroadcastInterface listener) {
+        listeners.add(listener);
+    }
+
     public <T extends BaseModel> T getObject(Class<T> clazz, long id) {
         return graph.getObject(clazz, id);
     }
@@ -96,6 +145,29 @@ public class CacheManager implements BroadcastInterface {
                 .collect(Collectors.toUnmodifiableSet());
     }
 
+    /**
+     * Spatial index of geofences linked to the device. Index is rebuilt lazily after geofence links or areas change.
+     */
+    public GeofenceIndex getDeviceGeofenceIndex(long deviceId) {
+        long version = geofenceVersion.get();
+        GeofenceIndexEntry entry = geofenceIndexes.get(deviceId);
+        if (entry == null || entry.version() != version) {
+            Map<Long, GeofenceGeometry> geometries = new HashMap<>();
+            for (Geofence geofence : getDeviceObjects(deviceId, Geofence.class)) {
+                try {
+                    geometries.put(geofence.getId(), geofence.getGeometry());
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Geofence {} geometry error", geofence.getId(), e);
+                }
+            }
+            entry = new GeofenceIndexEntry(version, new GeofenceIndex(geometries));
+            if (deviceReferences.containsKey(deviceId)) {
+                geofenceIndexes.put(deviceId, entry);
+            }
+        }
+        return entry.index();
+    }
+
     public Position getPosition(long deviceId) {
         return devicePositions.get(deviceId);
     }
@@ -123,6 +195,7 @@ public class CacheManager implements BroadcastInterface {
     public synchronized void addDevice(long deviceId, Object key) throws Exception {
         var references = deviceReferences.computeIfAbsent(deviceId, k -> new HashSet<>());
         if (references.isEmpty()) {
+            long startTime = System.currentTimeMillis();
             Device device = storage.getObject(Device.class, new Request(
                     new Columns.All(), new Condition.Equals("id", deviceId)));
             graph.addObject(device);
@@ -134,6 +207,7 @@ public class CacheManager implements BroadcastInterface {
                     devicePositions.put(deviceId, position);
                 }
             }
+            fillTime.record(System.currentTimeMillis() - startTime);
         }
         references.add(key);
         LOGGER.debug("Cache add device {} references {} key {}", deviceId, references.size(), key);
@@ -146,6 +220,7 @@ public class CacheManager implements BroadcastInterface {
             graph.removeObject(Device.class, deviceId);
             devicePositions.remove(deviceId);
             deviceReferences.remove(deviceId);
+            geofenceIndexes.remove(deviceId);
         }
         LOGGER.debug("Cache remove device {} references {} key {}", deviceId, references.size(), key);
     }
@@ -165,55 +240,71 @@ public class CacheManager implements BroadcastInterface {
         }
 
         synchronized (this) {
-            if (operation == ObjectOperation.DELETE) {
-                graph.removeObject(clazz, id);
+            PermissionIndex index = permissionIndex;
+            if (operation == ObjectOperation.DELETE && index != null) {
+                index.removeObject(clazz, id);
             }
-            if (operation != ObjectOperation.UPDATE) {
-                return;
+            updateObject(clazz, id, operation);
+            if (clazz.equals(Geofence.class) || clazz.equals(Group.class) || clazz.equals(Device.class)) {
+                geofenceVersion.incrementAndGet();
             }
+        }
 
-            if (clazz.equals(Server.class)) {
-                server = storage.getObject(Server.class, new Request(new Columns.All()));
-                return;
-            }
+        for (BroadcastInterface listener : listeners) {
+            listener.invalidateObject(local, clazz, id, operation);
+        }
+    }
 
-            var after = storage.getObject(clazz, new Request(
-                    new Columns.All(), new Condition.Equals("id", id)));
-            if (after == null) {
-                return;
-            }
-            var before = getObject(after.getClass(), after.getId());
-            if (before == null) {
-                return;
-            }
+    private <T extends BaseModel> void updateObject(
+            Class<T> clazz, long id, ObjectOperation operation) throws Exception {
+        if (operation == ObjectOperation.DELETE) {
+            graph.removeObject(clazz, id);
+        }
+        if (operation != ObjectOperation.UPDATE) {
+            return;
+        }
 
-            if (after instanceof GroupedModel) {
-                long beforeGroupId = ((GroupedModel) before).getGroupId();
-                long afterGroupId = ((GroupedModel) after).getGroupId();
-                if (beforeGroupId != afterGroupId) {
-                    if (beforeGroupId > 0) {
-                        invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
-                    }
-                    if (afterGroupId > 0) {
-                        invalidatePermission(clazz, id, Group.class, afterGroupId, true);
-                    }
+        if (clazz.equals(Server.class)) {
+            server = storage.getObject(Server.class, new Request(new Columns.All()));
+            return;
+        }
+
+        var after = storage.getObject(clazz, new Request(
+                new Columns.All(), new Condition.Equals("id", id)));
+        if (after == null) {
+            return;
+        }
+        var before = getObject(after.getClass(), after.getId());
+        if (before == null) {
+            return;
+        }
+
+        if (after instanceof GroupedModel) {
+            long beforeGroupId = ((GroupedModel) before).getGroupId();
+            long afterGroupId = ((GroupedModel) after).getGroupId();
+            if (beforeGroupId != afterGroupId) {
+                if (beforeGroupId > 0) {
+                    invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
                 }
-            } else if (after instanceof Schedulable) {
-                long beforeCalendarId = ((Schedulable) before).getCalendarId();
-                long afterCalendarId = ((Schedulable) after).getCalendarId();
-                if (beforeCalendarId != afterCalendarId) {
-                    if (beforeCalendarId > 0) {
-                        invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
-                    }
-                    if (afterCalendarId > 0) {
-                        invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
-                    }
+                if (afterGroupId > 0) {
+                    invalidatePermission(clazz, id, Group.class, afterGroupId, true);
                 }
-                // TODO handle notification always change
             }
-
-            graph.updateObject(after);
+        } else if (after instanceof Schedulable) {
+            long beforeCalendarId = ((Schedulable) before).getCalendarId();
+            long afterCalendarId = ((Schedulable) after).getCalendarId();
+            if (beforeCalendarId != afterCalendarId) {
+                if (beforeCalendarId > 0) {
+                    invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
+                }
+                if (afterCalendarId > 0) {
+                    invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
+                }
+            }
+            // TODO handle notification always change
         }
+
+        graph.updateObject(after);
     }
 
     @Override
@@ -224,11 +315,18 @@ public class CacheManager implements BroadcastInterface {
         }
 
         synchronized (this) {
+            PermissionIndex index = permissionIndex;
+            if (index != null) {
+                index.update(clazz1, id1, clazz2, id2, link);
+            }
             if (clazz1.equals(User.class) && GroupedModel.class.isAssignableFrom(clazz2)) {
                 invalidatePermission(clazz2, id2, clazz1, id1, link);
             } else {
                 invalidatePermission(clazz1, id1, clazz2, id2, link);
             }
+            if (clazz2.equals(Geofence.class) || clazz2.equals(Group.class)) {
+                geofenceVersion.incrementAndGet();
+            }
         }
     }
 
@@ -255,14 +353,26 @@ public class CacheManager implements BroadcastInterface {
         }
     }
 
+    private List<Permission> getPermissions(
+            Class<? extends BaseModel> ownerClass, long ownerId,
+            Class<? extends BaseModel> propertyClass, long propertyId) throws StorageException {
+        PermissionIndex index = permissionIndex;
+        if (index != null) {
+            if (System.currentTimeMillis() > permissionIndexExpiration) {
+                permissionIndex = null;
+            } else if (index.contains(ownerClass, propertyClass)) {
+                return index.getPermissions(ownerClass, ownerId, propertyClass, propertyId);
+            }
+        }
+        return storage.getPermissions(ownerClass, ownerId, propertyClass, propertyId);
+    }
+
     private void initializeCache(BaseModel object) throws Exception {
         if (object instanceof User) {
-            for (Permission permission : storage.getPermissions(User.class, Notification.class)) {
-                if (permission.getOwnerId() == object.getId()) {
-                    invalidatePermission(
-                            permission.getOwnerClass(), permission.getOwnerId(),
-                            permission.getPropertyClass(), permission.getPropertyId(), true);
-                }
+            for (Permission permission : getPermissions(User.class, object.getId(), Notification.class, 0)) {
+                invalidatePermission(
+                        permission.getOwnerClass(), permission.getOwnerId(),
+                        permission.getPropertyClass(), permission.getPropertyId(), true);
             }
         } else {
             if (object instanceof GroupedModel groupedModel) {
@@ -271,19 +381,15 @@ public class CacheManager implements BroadcastInterface {
                     invalidatePermission(object.getClass(), object.getId(), Group.class, groupId, true);
                 }
 
-                for (Permission permission : storage.getPermissions(User.class, object.getClass())) {
-                    if (permission.getPropertyId() == object.getId()) {
-                        invalidatePermission(
-                                object.getClass(), object.getId(), User.class, permission.getOwnerId(), true);
-                    }
+                for (Permission permission : getPermissions(User.class, 0, object.getClass(), object.getId())) {
+                    invalidatePermission(
+                            object.getClass(), object.getId(), User.class, permission.getOwnerId(), true);
                 }
 
                 for (Class<? extends BaseModel> clazz : GROUPED_CLASSES) {
-                    for (Permission permission : storage.getPermissions(object.getClass(), clazz)) {
-                        if (permission.getOwnerId() == object.getId()) {
-                            invalidatePermission(
-                                    object.getClass(), object.getId(), clazz, permission.getPropertyId(), true);
-                        }
+                    for (Permission permission : getPermissions(object.getClass(), object.getId(), clazz, 0)) {
+                        invalidatePermission(
+                                object.getClass(), object.getId(), clazz, permission.getPropertyId(), true);
                     }
                 }
             }
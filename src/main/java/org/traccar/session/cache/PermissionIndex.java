@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.session.cache;
+
+import org.traccar.model.BaseModel;
+import org.traccar.model.Permission;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Preloaded copy of permission link tables used to fill the cache without per-object queries. Each table is loaded
+ * with a single query and kept in sync with link changes.
+ */
+public class PermissionIndex {
+
+    private record Key(Class<? extends BaseModel> ownerClass, Class<? extends BaseModel> propertyClass) {
+    }
+
+    private final Map<Key, Map<Long, Set<Long>>> owners = new ConcurrentHashMap<>();
+    private final Map<Key, Map<Long, Set<Long>>> properties = new ConcurrentHashMap<>();
+
+    public void load(
+            Storage storage, Class<? extends BaseModel> ownerClass,
+            Class<? extends BaseModel> propertyClass) throws StorageException {
+        Key key = new Key(ownerClass, propertyClass);
+        Map<Long, Set<Long>> ownerMap = new ConcurrentHashMap<>();
+        Map<Long, Set<Long>> propertyMap = new ConcurrentHashMap<>();
+        for (Permission permission : storage.getPermissions(ownerClass, propertyClass)) {
+            ownerMap.computeIfAbsent(permission.getOwnerId(), k -> ConcurrentHashMap.newKeySet())
+                    .add(permission.getPropertyId());
+            propertyMap.computeIfAbsent(permission.getPropertyId(), k -> ConcurrentHashMap.newKeySet())
+                    .add(permission.getOwnerId());
+        }
+        owners.put(key, ownerMap);
+        properties.put(key, propertyMap);
+    }
+
+    public boolean contains(Class<? extends BaseModel> ownerClass, Class<? extends BaseModel> propertyClass) {
+        return owners.containsKey(new Key(ownerClass, propertyClass));
+    }
+
+    /**
+     * Return permissions for the given owner or property id. Exactly one of the ids is expected to be set.
+     */
+    public List<Permission> getPermissions(
+            Class<? extends BaseModel> ownerClass, long ownerId,
+            Class<? extends BaseModel> propertyClass, long propertyId) {
+        Key key = new Key(ownerClass, propertyClass);
+        if (ownerId > 0) {
+            return owners.get(key).getOrDefault(ownerId, Set.of()).stream()
+                    .map(id -> new Permission(ownerClass, ownerId, propertyClass, id))
+                    .toList();
+        } else {
+            return properties.get(key).getOrDefault(propertyId, Set.of()).stream()
+                    .map(id -> new Permission(ownerClass, id, propertyClass, propertyId))
+                    .toList();
+        }
+    }
+
+    public void update(
+            Class<? extends BaseModel> ownerClass, long ownerId,
+            Class<? extends BaseModel> propertyClass, long propertyId, boolean link) {
+        Key key = new Key(ownerClass, propertyClass);
+        var ownerMap = owners.get(key);
+        var propertyMap = properties.get(key);
+        if (ownerMap == null || propertyMap == null) {
+            return;
+        }
+        if (link) {
+            ownerMap.computeIfAbsent(ownerId, k -> ConcurrentHashMap.newKeySet()).add(propertyId);
+            propertyMap.computeIfAbsent(propertyId, k -> ConcurrentHashMap.newKeySet()).add(ownerId);
+        } else {
+            ownerMap.computeIfPresent(ownerId, (k, ids) -> {
+                ids.remove(propertyId);
+                return ids;
+            });
+            propertyMap.computeIfPresent(propertyId, (k, ids) -> {
+                ids.remove(ownerId);
+                return ids;
+            });
+        }
+    }
+
+    public void removeObject(Class<? extends BaseModel> clazz, long id) {
+        for (Key key : owners.keySet()) {
+            if (key.ownerClass().equals(clazz)) {
+                Set<Long> propertyIds = owners.get(key).remove(id);
+                if (propertyIds != null) {
+                    propertyIds.forEach(
+                            propertyId -> update(key.ownerClass(), id, key.propertyClass(), propertyId, false));
+                }
+            }
+            if (key.propertyClass().equals(clazz)) {
+                Set<Long> ownerIds = properties.get(key).remove(id);
+                if (ownerIds != null) {
+                    ownerIds.forEach(ownerId -> update(key.ownerClass(), ownerId, key.propertyClass(), id, false));
+                }
+            }
+        }
+    }
+
+}
@@ -16,7 +16,10 @@
 package org.traccar.storage;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.traccar.config.Config;
+import org.traccar.database.MetricsManager;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Group;
@@ -33,23 +36,55 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class DatabaseStorage extends Storage {
 
+    private static final int QUERY_CACHE_LIMIT = 1000;
+
+    /**
+     * Identifies generated SQL. Condition and order are reduced to their shape, so queries that differ only in
+     * parameter values share the same text.
+     */
+    private record QueryKey(String operation, Class<?> clazz, List<String> columns, Object condition, Object order) {
+    }
+
+    private interface QueryFormatter {
+        String format() throws StorageException;
+    }
+
     private final Config config;
     private final DataSource dataSource;
     private final ObjectMapper objectMapper;
     private final String databaseType;
 
+    private final Map<QueryKey, String> queries = new ConcurrentHashMap<>();
+    private final LongAdder queryCacheHits;
+    private final LongAdder queryCacheMisses;
+
     @Inject
-    public DatabaseStorage(Config config, DataSource dataSource, ObjectMapper objectMapper) {
+    public DatabaseStorage(
+            Config config, DataSource dataSource, ObjectMapper objectMapper, MetricsManager metricsManager) {
         this.config = config;
         this.dataSource = dataSource;
         this.objectMapper = objectMapper;
 
+        queryCacheHits = metricsManager.counter("database.query.cache.hit");
+        queryCacheMisses = metricsManager.counter("database.query.cache.miss");
+        metricsManager.gauge("database.query.cache.size", queries::size);
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            poolGauge(metricsManager, "database.pool.active", hikariDataSource, HikariPoolMXBean::getActiveConnections);
+            poolGauge(metricsManager, "database.pool.idle", hikariDataSource, HikariPoolMXBean::getIdleConnections);
+            poolGauge(metricsManager, "database.pool.waiting", hikariDataSource,
+                    HikariPoolMXBean::getThreadsAwaitingConnection);
+        }
+
         try (var connection = dataSource.getConnection()) {
             databaseType = connection.getMetaData().getDatabaseProductName();
         } catch (SQLException e) {
@@ -57,6 +92,15 @@ public class DatabaseStorage extends Storage {
         }
     }
 
+    private static void poolGauge(
+            MetricsManager metricsManager, String name, HikariDataSource dataSource,
+            ToIntFunction<HikariPoolMXBean> getter) {
+        metricsManager.gauge(name, () -> {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? getter.applyAsInt(pool) : 0;
+        });
+    }
+
     @Override
     public <T> List<T> getObjects(Class<T> clazz, Request request) throws StorageException {
         try (var objects = getObjectsStream(clazz, request)) {
@@ -66,17 +110,24 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public <T> Stream<T> getObjectsStream(Class<T> clazz, Request request) throws StorageException {
-        StringBuilder query = new StringBuilder("SELECT ");
-        if (request.getColumns() instanceof Columns.All) {
-            query.append('*');
-        } else {
-            query.append(formatColumns(request.getColumns().getColumns(clazz, "set"), c -> c));
-        }
-        query.append(" FROM ").append(getStorageName(clazz));
-        query.append(formatCondition(request.getCondition()));
-        query.append(formatOrder(request.getOrder()));
+        List<String> columns = request.getColumns() instanceof Columns.All
+                ? null : request.getColumns().getColumns(clazz, "set");
+        QueryKey key = new QueryKey(
+                "select", clazz, columns, getConditionKey(request.getCondition()), getOrderKey(request.getOrder()));
+        String query = getQuery(key, () -> {
+            StringBuilder result = new StringBuilder("SELECT ");
+            if (columns == null) {
+                result.append('*');
+            } else {
+                result.append(formatColumns(columns, c -> c));
+            }
+            result.append(" FROM ").append(getStorageName(clazz));
+            result.append(formatCondition(request.getCondition()));
+            result.append(formatOrder(request.getOrder()));
+            return result.toString();
+        });
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query);
             List<Object> values = getConditionVariables(request.getCondition());
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
@@ -90,15 +141,9 @@ public class DatabaseStorage extends Storage {
     @Override
     public <T> long addObject(T entity, Request request) throws StorageException {
         List<String> columns = request.getColumns().getColumns(entity.getClass(), "get");
-        StringBuilder query = new StringBuilder("INSERT INTO ");
-        query.append(getStorageName(entity.getClass()));
-        query.append("(");
-        query.append(formatColumns(columns, c -> c));
-        query.append(") VALUES (");
-        query.append(formatColumns(columns, c -> "?"));
-        query.append(")");
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString(), true);
+            QueryBuilder builder = QueryBuilder.create(
+                    config, dataSource, objectMapper, formatInsert(entity.getClass(), columns), true);
             builder.setObject(entity, columns);
             return builder.executeUpdate();
         } catch (SQLException e) {
@@ -106,22 +151,83 @@ public class DatabaseStorage extends Storage {
         }
     }
 
+    @Override
+    public <T> List<Long> addObjects(List<T> entities, Request request) throws StorageException {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+        if (databaseType.equals("Microsoft SQL Server")) {
+            return super.addObjects(entities, request); // driver does not return batch generated keys
+        }
+        Class<?> clazz = entities.get(0).getClass();
+        List<String> columns = request.getColumns().getColumns(clazz, "get");
+        try {
+            QueryBuilder builder = QueryBuilder.create(
+                    config, dataSource, objectMapper, formatInsert(clazz, columns), true);
+            for (T entity : entities) {
+                builder.setObject(entity, columns);
+                builder.addBatch();
+            }
+            List<Long> result = builder.executeBatch();
+            if (result.size() != entities.size()) {
+                throw new StorageException("Generated keys count does not match batch size");
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
     @Override
     public <T> void updateObject(T entity, Request request) throws StorageException {
+        executeUpdate(entity, request);
+    }
+
+    @Override
+    public <T> boolean compareAndUpdate(T entity, Request request) throws StorageException {
+        return executeUpdate(entity, request) > 0;
+    }
+
+    private <T> long executeUpdate(T entity, Request request) throws StorageException {
         List<String> columns = request.getColumns().getColumns(entity.getClass(), "get");
-        StringBuilder query = new StringBuilder("UPDATE ");
-        query.append(getStorageName(entity.getClass()));
-        query.append(" SET ");
-        query.append(formatColumns(columns, c -> c + " = ?"));
-        query.append(formatCondition(request.getCondition()));
+        QueryKey key = new QueryKey(
+                "update", entity.getClass(), columns, getConditionKey(request.getCondition()), null);
+        String query = getQuery(key, () -> "UPDATE " + getStorageName(entity.getClass())
+                + " SET " + formatColumns(columns, c -> c + " = ?")
+                + formatCondition(request.getCondition()));
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query);
             builder.setObject(entity, columns);
             List<Object> values = getConditionVariables(request.getCondition());
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(columns.size() + index, values.get(index));
             }
-            builder.executeUpdate();
+            return builder.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    @Override
+    public <T extends BaseModel> void updateObjects(List<T> entities, Columns columns) throws StorageException {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Class<?> clazz = entities.get(0).getClass();
+        List<String> columnList = columns.getColumns(clazz, "get");
+        Condition condition = new Condition.Equals("id", 0);
+        QueryKey key = new QueryKey("update", clazz, columnList, getConditionKey(condition), null);
+        String query = getQuery(key, () -> "UPDATE " + getStorageName(clazz)
+                + " SET " + formatColumns(columnList, c -> c + " = ?")
+                + formatCondition(condition));
+        try {
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query);
+            for (T entity : entities) {
+                builder.setObject(entity, columnList);
+                builder.setLong(columnList.size(), entity.getId());
+                builder.addBatch();
+            }
+            builder.executeBatch();
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -129,11 +235,11 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public void removeObject(Class<?> clazz, Request request) throws StorageException {
-        StringBuilder query = new StringBuilder("DELETE FROM ");
-        query.append(getStorageName(clazz));
-        query.append(formatCondition(request.getCondition()));
+        QueryKey key = new QueryKey("delete", clazz, null, getConditionKey(request.getCondition()), null);
+        String query = getQuery(key, () -> "DELETE FROM " + getStorageName(clazz)
+                + formatCondition(request.getCondition()));
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query);
             List<Object> values = getConditionVariables(request.getCondition());
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
@@ -148,8 +254,6 @@ public class DatabaseStorage extends Storage {
     public List<Permission> getPermissions(
             Class<? extends BaseModel> ownerClass, long ownerId,
             Class<? extends BaseModel> propertyClass, long propertyId) throws StorageException {
-        StringBuilder query = new StringBuilder("SELECT * FROM ");
-        query.append(Permission.getStorageName(ownerClass, propertyClass));
         var conditions = new LinkedList<Condition>();
         if (ownerId > 0) {
             conditions.add(new Condition.Equals(Permission.getKey(ownerClass), ownerId));
@@ -158,9 +262,12 @@ public class DatabaseStorage extends Storage {
             conditions.add(new Condition.Equals(Permission.getKey(propertyClass), propertyId));
         }
         Condition combinedCondition = Condition.merge(conditions);
-        query.append(formatCondition(combinedCondition));
+        QueryKey key = new QueryKey(
+                "permissions", ownerClass, null, List.of(propertyClass, getConditionKey(combinedCondition)), null);
+        String query = getQuery(key, () -> "SELECT * FROM " + Permission.getStorageName(ownerClass, propertyClass)
+                + formatCondition(combinedCondition));
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query);
             List<Object> values = getConditionVariables(combinedCondition);
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
@@ -174,13 +281,12 @@ public class DatabaseStorage extends Storage {
     @Override
     public void addPermission(Permission permission) throws StorageException {
         var entries = permission.get().entrySet().stream().toList();
-        StringBuilder query = new StringBuilder("INSERT INTO ");
-        query.append(permission.getStorageName());
-        query.append(" VALUES (");
-        query.append(entries.stream().map(e -> "?").collect(Collectors.joining(", ")));
-        query.append(")");
+        List<String> columns = entries.stream().map(Map.Entry::getKey).toList();
+        QueryKey key = new QueryKey("linkInsert", Permission.class, columns, permission.getStorageName(), null);
+        String query = getQuery(key, () -> "INSERT INTO " + permission.getStorageName()
+                + " VALUES (" + formatColumns(columns, c -> "?") + ")");
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString(), true);
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query, true);
             for (int index = 0; index < entries.size(); index++) {
                 builder.setLong(index, entries.get(index).getValue());
             }
@@ -193,12 +299,12 @@ public class DatabaseStorage extends Storage {
     @Override
     public void removePermission(Permission permission) throws StorageException {
         var entries = permission.get().entrySet().stream().toList();
-        StringBuilder query = new StringBuilder("DELETE FROM ");
-        query.append(permission.getStorageName());
-        query.append(" WHERE ");
-        query.append(entries.stream().map(e -> e.getKey() + " = ?").collect(Collectors.joining(" AND ")));
+        List<String> columns = entries.stream().map(Map.Entry::getKey).toList();
+        QueryKey key = new QueryKey("linkDelete", Permission.class, columns, permission.getStorageName(), null);
+        String query = getQuery(key, () -> "DELETE FROM " + permission.getStorageName()
+                + " WHERE " + columns.stream().map(c -> c + " = ?").collect(Collectors.joining(" AND ")));
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString(), true);
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query, true);
             for (int index = 0; index < entries.size(); index++) {
                 builder.setLong(index, entries.get(index).getValue());
             }
@@ -208,6 +314,53 @@ public class DatabaseStorage extends Storage {
         }
     }
 
+    private String formatInsert(Class<?> clazz, List<String> columns) throws StorageException {
+        return getQuery(new QueryKey("insert", clazz, columns, null, null), () -> "INSERT INTO " + getStorageName(clazz)
+                + "(" + formatColumns(columns, c -> c) + ")"
+                + " VALUES (" + formatColumns(columns, c -> "?") + ")");
+    }
+
+    private String getQuery(QueryKey key, QueryFormatter formatter) throws StorageException {
+        String query = queries.get(key);
+        if (query != null) {
+            queryCacheHits.increment();
+            return query;
+        }
+        queryCacheMisses.increment();
+        query = formatter.format();
+        if (queries.size() < QUERY_CACHE_LIMIT) {
+            queries.put(key, query);
+        }
+        return query;
+    }
+
+    private Object getConditionKey(Condition genericCondition) {
+        if (genericCondition instanceof Condition.Compare condition) {
+            return List.of("compare", condition.getColumn(), condition.getOperator());
+        } else if (genericCondition instanceof Condition.Between condition) {
+            return List.of("between", condition.getColumn());
+        } else if (genericCondition instanceof Condition.Binary condition) {
+            return List.of(
+                    genericCondition instanceof Condition.Or ? "or" : "binary", condition.getOperator(),
+                    getConditionKey(condition.getFirst()), getConditionKey(condition.getSecond()));
+        } else if (genericCondition instanceof Condition.Permission condition) {
+            return List.of(
+                    "permission", condition.getOwnerClass(), condition.getPropertyClass(),
+                    condition.getOwnerId() > 0, condition.getIncludeGroups());
+        } else if (genericCondition instanceof Condition.LatestPositions condition) {
+            return List.of(
+                    "latest", condition.getDeviceId() > 0, getConditionKey(condition.getDevicePermission()));
+        }
+        return List.of();
+    }
+
+    private Object getOrderKey(Order order) {
+        if (order != null) {
+            return List.of(order.getColumn(), order.getDescending(), order.getLimit());
+        }
+        return null;
+    }
+
     private String getStorageName(Class<?> clazz) throws StorageException {
         StorageName storageName = clazz.getAnnotation(StorageName.class);
         if (storageName == null) {
@@ -235,6 +388,8 @@ public class DatabaseStorage extends Storage {
         } else if (genericCondition instanceof Condition.LatestPositions condition) {
             if (condition.getDeviceId() > 0) {
                 results.add(condition.getDeviceId());
+            } else if (condition.getDevicePermission() != null) {
+                results.addAll(getConditionVariables(condition.getDevicePermission()));
             }
         }
         return results;
@@ -293,6 +448,8 @@ public class DatabaseStorage extends Storage {
                 result.append(getStorageName(Device.class));
                 if (condition.getDeviceId() > 0) {
                     result.append(" WHERE id = ?");
+                } else if (condition.getDevicePermission() != null) {
+                    result.append(formatCondition(condition.getDevicePermission()));
                 }
                 result.append(")");
 
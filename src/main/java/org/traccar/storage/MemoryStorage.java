@@ -24,7 +24,6 @@ import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
 import java.lang.reflect.Method;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -134,13 +133,14 @@ public class MemoryStorage extends Storage {
 
     @Override
     public <T> void updateObject(T entity, Request request) {
-        Collection<Object> items;
-        if (request.getCondition() != null) {
-            long id = (Long) ((Condition.Equals) request.getCondition()).getValue();
-            items = List.of(objects.computeIfAbsent(entity.getClass(), key -> new HashMap<>()).get(id));
-        } else {
-            items = objects.computeIfAbsent(entity.getClass(), key -> new HashMap<>()).values();
-        }
+        compareAndUpdate(entity, request);
+    }
+
+    @Override
+    public <T> boolean compareAndUpdate(T entity, Request request) {
+        List<Object> items = objects.computeIfAbsent(entity.getClass(), key -> new HashMap<>()).values().stream()
+                .filter(object -> checkCondition(request.getCondition(), object))
+                .toList();
         var getters = ReflectionCache.getProperties(entity.getClass(), "get");
         var setters = ReflectionCache.getProperties(entity.getClass(), "set");
         for (String column : request.getColumns().getColumns(entity.getClass(), "get")) {
@@ -154,12 +154,13 @@ public class MemoryStorage extends Storage {
                 throw new RuntimeException(e);
             }
         }
+        return !items.isEmpty();
     }
 
     @Override
     public void removeObject(Class<?> clazz, Request request) {
-        long id = (Long) ((Condition.Equals) request.getCondition()).getValue();
-        objects.computeIfAbsent(clazz, key -> new HashMap<>()).remove(id);
+        objects.computeIfAbsent(clazz, key -> new HashMap<>()).values()
+                .removeIf(object -> checkCondition(request.getCondition(), object));
     }
 
     private Set<Pair<Long, Long>> getPermissionsSet(Class<?> ownerClass, Class<?> propertyClass) {
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.traccar.helper.ReflectionCache;
+
+import java.io.IOException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-model column accessors generated once with {@link LambdaMetafactory}, so reading and writing rows does not go
+ * through reflective calls or boxing for primitive columns.
+ */
+final class ModelMapper {
+
+    interface Reader {
+        void read(Object object, ResultSet resultSet, int index, ObjectMapper objectMapper)
+                throws SQLException, IOException;
+    }
+
+    interface Writer {
+        void write(QueryBuilder builder, int index, Object object, ObjectMapper objectMapper)
+                throws SQLException, JsonProcessingException;
+    }
+
+    interface ObjBooleanConsumer<T> {
+        void accept(T object, boolean value);
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<Class<?>, ModelMapper> CACHE = new ConcurrentHashMap<>();
+
+    private final Supplier<Object> constructor;
+    private final Map<String, Reader> readers = new HashMap<>();
+    private final Map<String, Writer> writers = new HashMap<>();
+
+    private ModelMapper(Class<?> clazz) {
+        Supplier<Object> constructor = null;
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(clazz, MethodType.methodType(void.class));
+            constructor = createLambda(Supplier.class, "get", MethodType.methodType(Object.class), handle);
+        } catch (ReflectiveOperationException ignored) {
+            // class can only be used for writing
+        }
+        this.constructor = constructor;
+
+        for (var entry : ReflectionCache.getProperties(clazz, "set").entrySet()) {
+            readers.put(entry.getKey().toLowerCase(Locale.ROOT), createReader(entry.getValue().method()));
+        }
+        for (var entry : ReflectionCache.getProperties(clazz, "get").entrySet()) {
+            writers.put(entry.getKey(), createWriter(entry.getKey(), entry.getValue().method()));
+        }
+    }
+
+    public static ModelMapper get(Class<?> clazz) {
+        return CACHE.computeIfAbsent(clazz, ModelMapper::new);
+    }
+
+    public Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException("Default constructor is missing");
+        }
+        return constructor.get();
+    }
+
+    /**
+     * Find reader for a result set column. Column labels are matched ignoring case.
+     */
+    public Reader getReader(String label) {
+        return readers.get(label.toLowerCase(Locale.ROOT));
+    }
+
+    public Writer getWriter(String column) {
+        return writers.get(column);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <F> F createLambda(Class<? super F> type, String name, MethodType samType, MethodHandle target) {
+        MethodType instantiatedType = target.type();
+        if (samType.returnType().equals(void.class)) {
+            instantiatedType = instantiatedType.changeReturnType(void.class);
+        }
+        try {
+            return (F) LambdaMetafactory.metafactory(
+                    LOOKUP, name, MethodType.methodType(type), samType, target, instantiatedType)
+                    .getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create accessor for " + target, e);
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodType setterType(Class<?> valueType) {
+        return MethodType.methodType(void.class, Object.class, valueType);
+    }
+
+    private static Reader createReader(Method method) {
+        Class<?> parameterType = method.getParameterTypes()[0];
+        MethodHandle handle = unreflect(method);
+        if (parameterType.equals(boolean.class)) {
+            ObjBooleanConsumer<Object> setter = createLambda(
+                    ObjBooleanConsumer.class, "accept", setterType(boolean.class), handle);
+            return (object, resultSet, index, objectMapper) -> setter.accept(object, resultSet.getBoolean(index));
+        } else if (parameterType.equals(int.class)) {
+            ObjIntConsumer<Object> setter = createLambda(ObjIntConsumer.class, "accept", setterType(int.class), handle);
+            return (object, resultSet, index, objectMapper) -> setter.accept(object, resultSet.getInt(index));
+        } else if (parameterType.equals(long.class)) {
+            ObjLongConsumer<Object> setter = createLambda(
+                    ObjLongConsumer.class, "accept", setterType(long.class), handle);
+            return (object, resultSet, index, objectMapper) -> setter.accept(object, resultSet.getLong(index));
+        } else if (parameterType.equals(double.class)) {
+            ObjDoubleConsumer<Object> setter = createLambda(
+                    ObjDoubleConsumer.class, "accept", setterType(double.class), handle);
+            return (object, resultSet, index, objectMapper) -> setter.accept(object, resultSet.getDouble(index));
+        }
+        BiConsumer<Object, Object> setter = createLambda(BiConsumer.class, "accept", setterType(Object.class), handle);
+        if (parameterType.equals(String.class)) {
+            return (object, resultSet, index, objectMapper) -> setter.accept(object, resultSet.getString(index));
+        } else if (parameterType.equals(Date.class)) {
+            return (object, resultSet, index, objectMapper) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                if (timestamp != null) {
+                    setter.accept(object, new Date(timestamp.getTime()));
+                }
+            };
+        } else if (parameterType.equals(byte[].class)) {
+            return (object, resultSet, index, objectMapper) -> setter.accept(object, resultSet.getBytes(index));
+        } else {
+            return (object, resultSet, index, objectMapper) -> {
+                String value = resultSet.getString(index);
+                if (value != null && !value.isEmpty()) {
+                    setter.accept(object, objectMapper.readValue(value, parameterType));
+                }
+            };
+        }
+    }
+
+    private static Writer createWriter(String column, Method method) {
+        Class<?> returnType = method.getReturnType();
+        MethodHandle handle = unreflect(method);
+        if (returnType.equals(boolean.class)) {
+            Predicate<Object> getter = createLambda(
+                    Predicate.class, "test", MethodType.methodType(boolean.class, Object.class), handle);
+            return (builder, index, object, objectMapper) -> builder.setBoolean(index, getter.test(object));
+        } else if (returnType.equals(int.class)) {
+            ToIntFunction<Object> getter = createLambda(
+                    ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), handle);
+            return (builder, index, object, objectMapper) -> builder.setInteger(index, getter.applyAsInt(object));
+        } else if (returnType.equals(long.class)) {
+            ToLongFunction<Object> getter = createLambda(
+                    ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class), handle);
+            boolean nullIfZero = column.endsWith("Id");
+            return (builder, index, object, objectMapper) ->
+                    builder.setLong(index, getter.applyAsLong(object), nullIfZero);
+        } else if (returnType.equals(double.class)) {
+            ToDoubleFunction<Object> getter = createLambda(
+                    ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class), handle);
+            return (builder, index, object, objectMapper) -> builder.setDouble(index, getter.applyAsDouble(object));
+        }
+        Function<Object, Object> getter = createLambda(
+                Function.class, "apply", MethodType.methodType(Object.class, Object.class), handle);
+        if (returnType.equals(String.class)) {
+            return (builder, index, object, objectMapper) -> builder.setString(index, (String) getter.apply(object));
+        } else if (returnType.equals(Date.class)) {
+            return (builder, index, object, objectMapper) -> builder.setDate(index, (Date) getter.apply(object));
+        } else if (returnType.equals(byte[].class)) {
+            return (builder, index, object, objectMapper) -> builder.setBlob(index, (byte[]) getter.apply(object));
+        } else {
+            return (builder, index, object, objectMapper) ->
+                    builder.setString(index, objectMapper.writeValueAsString(getter.apply(object)));
+        }
+    }
+
+}
@@ -21,12 +21,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
-import org.traccar.helper.ReflectionCache;
 import org.traccar.model.Permission;
 
 import javax.sql.DataSource;
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -37,9 +35,11 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
@@ -181,71 +181,18 @@ public final class QueryBuilder {
     }
 
     public QueryBuilder setObject(Object object, List<String> columns) throws SQLException {
+        ModelMapper mapper = ModelMapper.get(object.getClass());
         try {
             for (int index = 0; index < columns.size(); index++) {
-                String column = columns.get(index);
-                Method method = ReflectionCache.getProperties(object.getClass(), "get").get(column).method();
-                if (method.getReturnType().equals(boolean.class)) {
-                    setBoolean(index, (Boolean) method.invoke(object));
-                } else if (method.getReturnType().equals(int.class)) {
-                    setInteger(index, (Integer) method.invoke(object));
-                } else if (method.getReturnType().equals(long.class)) {
-                    setLong(index, (Long) method.invoke(object), column.endsWith("Id"));
-                } else if (method.getReturnType().equals(double.class)) {
-                    setDouble(index, (Double) method.invoke(object));
-                } else if (method.getReturnType().equals(String.class)) {
-                    setString(index, (String) method.invoke(object));
-                } else if (method.getReturnType().equals(Date.class)) {
-                    setDate(index, (Date) method.invoke(object));
-                } else if (method.getReturnType().equals(byte[].class)) {
-                    setBlob(index, (byte[]) method.invoke(object));
-                } else {
-                    setString(index, objectMapper.writeValueAsString(method.invoke(object)));
-                }
+                mapper.getWriter(columns.get(index)).write(this, index, object, objectMapper);
             }
-        } catch (ReflectiveOperationException | JsonProcessingException e) {
+        } catch (JsonProcessingException e) {
             LOGGER.warn("Set object error", e);
         }
 
         return this;
     }
 
-    private interface ResultSetProcessor<T> {
-        void process(T object, ResultSet resultSet) throws ReflectiveOperationException, IOException, SQLException;
-    }
-
-    private <T> void addProcessors(
-            List<ResultSetProcessor<T>> processors,
-            final Class<?> parameterType, final Method method, final String name) {
-        if (parameterType.equals(boolean.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getBoolean(name)));
-        } else if (parameterType.equals(int.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getInt(name)));
-        } else if (parameterType.equals(long.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getLong(name)));
-        } else if (parameterType.equals(double.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getDouble(name)));
-        } else if (parameterType.equals(String.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getString(name)));
-        } else if (parameterType.equals(Date.class)) {
-            processors.add((object, resultSet) -> {
-                Timestamp timestamp = resultSet.getTimestamp(name);
-                if (timestamp != null) {
-                    method.invoke(object, new Date(timestamp.getTime()));
-                }
-            });
-        } else if (parameterType.equals(byte[].class)) {
-            processors.add((object, resultSet) -> method.invoke(object, (Object) resultSet.getBytes(name)));
-        } else {
-            processors.add((object, resultSet) -> {
-                String value = resultSet.getString(name);
-                if (value != null && !value.isEmpty()) {
-                    method.invoke(object, objectMapper.readValue(value, parameterType));
-                }
-            });
-        }
-    }
-
     private void logQuery() {
         if (config.getBoolean(Keys.LOGGER_QUERIES)) {
             LOGGER.info(query);
@@ -269,21 +216,19 @@ public final class QueryBuilder {
             resultSet = statement.executeQuery();
             ResultSetMetaData resultMetaData = resultSet.getMetaData();
 
-            List<ResultSetProcessor<T>> processors = new ArrayList<>();
-            for (var entry : ReflectionCache.getProperties(clazz, "set").entrySet()) {
-                final String name = entry.getKey();
-                boolean column = false;
-                for (int i = 1; i <= resultMetaData.getColumnCount(); i++) {
-                    if (name.equalsIgnoreCase(resultMetaData.getColumnLabel(i))) {
-                        column = true;
-                        break;
-                    }
-                }
-                if (column) {
-                    Method method = entry.getValue().method();
-                    addProcessors(processors, method.getParameterTypes()[0], method, name);
+            ModelMapper mapper = ModelMapper.get(clazz);
+            List<ModelMapper.Reader> readerList = new ArrayList<>();
+            List<Integer> indexList = new ArrayList<>();
+            Set<ModelMapper.Reader> used = new HashSet<>();
+            for (int i = 1; i <= resultMetaData.getColumnCount(); i++) {
+                ModelMapper.Reader reader = mapper.getReader(resultMetaData.getColumnLabel(i));
+                if (reader != null && used.add(reader)) {
+                    readerList.add(reader);
+                    indexList.add(i);
                 }
             }
+            ModelMapper.Reader[] readers = readerList.toArray(new ModelMapper.Reader[0]);
+            int[] indexes = indexList.stream().mapToInt(Integer::intValue).toArray();
 
             final ResultSet retainedResultSet = resultSet;
             return StreamSupport.stream(
@@ -292,11 +237,11 @@ public final class QueryBuilder {
                         public boolean tryAdvance(Consumer<? super T> action) {
                             try {
                                 if (retainedResultSet.next()) {
-                                    T object = clazz.getDeclaredConstructor().newInstance();
-                                    for (ResultSetProcessor<T> processor : processors) {
+                                    T object = clazz.cast(mapper.newInstance());
+                                    for (int i = 0; i < readers.length; i++) {
                                         try {
-                                            processor.process(object, retainedResultSet);
-                                        } catch (ReflectiveOperationException | IOException error) {
+                                            readers[i].read(object, retainedResultSet, indexes[i], objectMapper);
+                                        } catch (IOException error) {
                                             LOGGER.warn("Set property error", error);
                                         }
                                     }
@@ -305,7 +250,7 @@ public final class QueryBuilder {
                                 } else {
                                     return false;
                                 }
-                            } catch (SQLException | ReflectiveOperationException e) {
+                            } catch (SQLException e) {
                                 throw new RuntimeException(e);
                             }
                         }
@@ -329,6 +274,9 @@ public final class QueryBuilder {
         }
     }
 
+    /**
+     * Returns the generated key, or the number of affected rows for statements without generated keys.
+     */
     public long executeUpdate() throws SQLException {
         if (query != null) {
             try {
@@ -340,6 +288,8 @@ public final class QueryBuilder {
                             return resultSet.getLong(1);
                         }
                     }
+                } else {
+                    return statement.getUpdateCount();
                 }
             } finally {
                 statement.close();
@@ -349,6 +299,31 @@ public final class QueryBuilder {
         return 0;
     }
 
+    public QueryBuilder addBatch() throws SQLException {
+        return setValue(() -> statement.addBatch());
+    }
+
+    public List<Long> executeBatch() throws SQLException {
+        List<Long> result = new ArrayList<>();
+        if (query != null) {
+            try {
+                logQuery();
+                statement.executeBatch();
+                if (returnGeneratedKeys) {
+                    try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                        while (resultSet.next()) {
+                            result.add(resultSet.getLong(1));
+                        }
+                    }
+                }
+            } finally {
+                statement.close();
+                connection.close();
+            }
+        }
+        return result;
+    }
+
     public List<Permission> executePermissionsQuery() throws SQLException {
         List<Permission> result = new LinkedList<>();
         if (query != null) {
@@ -17,8 +17,11 @@ package org.traccar.storage;
 
 import org.traccar.model.BaseModel;
 import org.traccar.model.Permission;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -32,6 +35,13 @@ public abstract class Storage {
 
     public abstract <T> void updateObject(T entity, Request request) throws StorageException;
 
+    /**
+     * Update the object only if the request condition matches, for example to take ownership of a job row.
+     *
+     * @return whether any row was updated
+     */
+    public abstract <T> boolean compareAndUpdate(T entity, Request request) throws StorageException;
+
     public abstract void removeObject(Class<?> clazz, Request request) throws StorageException;
 
     public abstract List<Permission> getPermissions(
@@ -48,6 +58,23 @@ public abstract class Storage {
         return getPermissions(ownerClass, 0, propertyClass, 0);
     }
 
+    public <T> List<Long> addObjects(List<T> entities, Request request) throws StorageException {
+        List<Long> result = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            result.add(addObject(entity, request));
+        }
+        return result;
+    }
+
+    /**
+     * Update the same set of columns for multiple objects, matching rows by id.
+     */
+    public <T extends BaseModel> void updateObjects(List<T> entities, Columns columns) throws StorageException {
+        for (T entity : entities) {
+            updateObject(entity, new Request(columns, new Condition.Equals("id", entity.getId())));
+        }
+    }
+
     public <T> T getObject(Class<T> clazz, Request request) throws StorageException {
         try (var objects = getObjectsStream(clazz, request)) {
             return objects.findFirst().orElse(null);
@@ -176,9 +176,19 @@ public interface Condition {
 
     class LatestPositions implements Condition {
         private final long deviceId;
+        private final Permission devicePermission;
 
         public LatestPositions(long deviceId) {
             this.deviceId = deviceId;
+            this.devicePermission = null;
+        }
+
+        /**
+         * Latest positions of devices matching the permission condition, for example all devices of a user.
+         */
+        public LatestPositions(Permission devicePermission) {
+            this.deviceId = 0;
+            this.devicePermission = devicePermission;
         }
 
         public LatestPositions() {
@@ -188,6 +198,10 @@ public interface Condition {
         public long getDeviceId() {
             return deviceId;
         }
+
+        public Permission getDevicePermission() {
+            return devicePermission;
+        }
     }
 
 }
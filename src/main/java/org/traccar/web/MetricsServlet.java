@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.web;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes {@link MetricsManager} values in Prometheus text format. Metric names get "traccar_" prefix and all
+ * characters not allowed by Prometheus are replaced with underscores.
+ */
+@Singleton
+public class MetricsServlet extends HttpServlet {
+
+    private static final String PREFIX = "traccar_";
+
+    private final boolean enabled;
+    private final MetricsManager metricsManager;
+
+    @Inject
+    public MetricsServlet(Config config, MetricsManager metricsManager) {
+        enabled = config.getBoolean(Keys.WEB_METRICS);
+        this.metricsManager = metricsManager;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (enabled) {
+            resp.setContentType("text/plain; version=0.0.4; charset=utf-8");
+            resp.getWriter().write(format(metricsManager));
+        } else {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    static String format(MetricsManager metricsManager) {
+        StringBuilder builder = new StringBuilder();
+
+        new TreeMap<>(metricsManager.getCounters()).forEach((name, counter) -> {
+            String metric = metricName(name) + "_total";
+            type(builder, metric, "counter");
+            sample(builder, metric, null, counter.sum());
+        });
+
+        new TreeMap<>(metricsManager.getLabeledCounters()).forEach((name, counter) -> {
+            String metric = metricName(name) + "_total";
+            type(builder, metric, "counter");
+            new TreeMap<>(counter.values()).forEach((value, adder) -> sample(
+                    builder, metric, label(counter.label(), value), adder.sum()));
+        });
+
+        new TreeMap<>(metricsManager.getGauges()).forEach((name, gauge) -> {
+            String metric = metricName(name);
+            type(builder, metric, "gauge");
+            sample(builder, metric, null, gauge.getAsLong());
+        });
+
+        new TreeMap<>(metricsManager.getLabeledGauges()).forEach((name, gauge) -> {
+            String metric = metricName(name);
+            type(builder, metric, "gauge");
+            Map<String, Long> values = gauge.supplier().get();
+            if (values != null) {
+                new TreeMap<>(values).forEach((value, sample) -> sample(
+                        builder, metric, label(gauge.label(), value), sample));
+            }
+        });
+
+        new TreeMap<>(metricsManager.getSummaries()).forEach((name, summary) -> {
+            String metric = metricName(name);
+            type(builder, metric, "summary");
+            sample(builder, metric + "_sum", null, summary.getSum());
+            sample(builder, metric + "_count", null, summary.getCount());
+            type(builder, metric + "_max", "gauge");
+            sample(builder, metric + "_max", null, summary.getMax());
+        });
+
+        new TreeMap<>(metricsManager.getHistograms()).forEach((name, histogram) -> {
+            String metric = metricName(name);
+            type(builder, metric, "histogram");
+            long[] bounds = histogram.getBounds();
+            long[] counts = histogram.getCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String bound = i < bounds.length ? String.valueOf(bounds[i]) : "+Inf";
+                sample(builder, metric + "_bucket", label("le", bound), cumulative);
+            }
+            sample(builder, metric + "_sum", null, histogram.getSum());
+            sample(builder, metric + "_count", null, cumulative);
+        });
+
+        return builder.toString();
+    }
+
+    private static String metricName(String name) {
+        StringBuilder builder = new StringBuilder(PREFIX.length() + name.length());
+        builder.append(PREFIX);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+            builder.append(valid ? c : '_');
+        }
+        return builder.toString();
+    }
+
+    private static String label(String name, String value) {
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return name + "=\"" + escaped + "\"";
+    }
+
+    private static void type(StringBuilder builder, String metric, String type) {
+        builder.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder builder, String metric, String label, long value) {
+        builder.append(metric);
+        if (label != null) {
+            builder.append('{').append(label).append('}');
+        }
+        builder.append(' ').append(value).append('\n');
+    }
+
+}
@@ -26,6 +26,7 @@ public class WebModule extends ServletModule {
         filter("/*").through(OverrideTextFilter.class);
         filter("/api/media/*").through(MediaFilter.class);
         serve("/.well-known/*").with(WellKnownServlet.class);
+        serve("/metrics").with(MetricsServlet.class);
         serve("/api/socket").with(AsyncSocketServlet.class);
     }
 }
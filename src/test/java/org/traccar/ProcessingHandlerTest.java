@@ -0,0 +1,171 @@
+package org.traccar;
+
+import com.google.inject.Injector;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.database.MetricsManager;
+import org.traccar.database.NotificationManager;
+import org.traccar.handler.BasePositionHandler;
+import org.traccar.handler.BlockingExecutor;
+import org.traccar.handler.DatabaseHandler;
+import org.traccar.handler.PostProcessHandler;
+import org.traccar.helper.PositionLogger;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProcessingHandlerTest {
+
+    private record Pending(Position position, BasePositionHandler.Callback callback) {
+    }
+
+    private final MetricsManager metricsManager = new MetricsManager();
+
+    private ProcessingHandler createHandler(DatabaseHandler databaseHandler) {
+        PostProcessHandler postProcessHandler = mock(PostProcessHandler.class);
+        doAnswer(invocation -> {
+            invocation.<BasePositionHandler.Callback>getArgument(1).processed(false);
+            return null;
+        }).when(postProcessHandler).handlePosition(any(), any());
+
+        Injector injector = mock(Injector.class);
+        when(injector.getInstance(DatabaseHandler.class)).thenReturn(databaseHandler);
+        when(injector.getInstance(PostProcessHandler.class)).thenReturn(postProcessHandler);
+
+        return new ProcessingHandler(
+                injector, mock(Config.class), mock(CacheManager.class), mock(NotificationManager.class),
+                mock(PositionLogger.class), metricsManager, mock(BlockingExecutor.class));
+    }
+
+    private ChannelHandlerContext createContext() {
+        ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+        when(context.executor()).thenReturn(ImmediateEventExecutor.INSTANCE);
+        return context;
+    }
+
+    private Position position(long deviceId, long id) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        position.setId(id);
+        return position;
+    }
+
+    private long gauge(String name) {
+        return metricsManager.getGauges().get(name).getAsLong();
+    }
+
+    @Test
+    public void testDeviceOrder() {
+        List<Pending> pending = new ArrayList<>();
+        DatabaseHandler databaseHandler = mock(DatabaseHandler.class);
+        doAnswer(invocation -> {
+            pending.add(new Pending(invocation.getArgument(0), invocation.getArgument(1)));
+            return null;
+        }).when(databaseHandler).handlePosition(any(), any());
+
+        ProcessingHandler handler = createHandler(databaseHandler);
+        ChannelHandlerContext context = createContext();
+
+        handler.onReleased(context, position(1, 1));
+        handler.onReleased(context, position(1, 2));
+        handler.onReleased(context, position(2, 3));
+
+        assertEquals(List.of(1L, 3L), pending.stream().map(p -> p.position().getId()).toList());
+        assertEquals(2, gauge("processing.devices"));
+        assertEquals(3, gauge("processing.backlog"));
+
+        pending.remove(0).callback().processed(false);
+        assertEquals(List.of(3L, 2L), pending.stream().map(p -> p.position().getId()).toList());
+        assertEquals(2, gauge("processing.backlog"));
+
+        pending.remove(0).callback().processed(false);
+        assertEquals(1, gauge("processing.devices"));
+
+        pending.remove(0).callback().processed(true);
+        assertTrue(pending.isEmpty());
+        assertEquals(0, gauge("processing.devices"));
+        assertEquals(0, gauge("processing.backlog"));
+
+        handler.onReleased(context, position(1, 4));
+        assertEquals(1, pending.size());
+        pending.remove(0).callback().processed(false);
+        assertEquals(0, gauge("processing.devices"));
+    }
+
+    @Test
+    public void testConcurrentDevices() throws Exception {
+        int devices = 20;
+        int count = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+        Map<Long, List<Long>> processed = new ConcurrentHashMap<>();
+        AtomicBoolean overlap = new AtomicBoolean();
+        CountDownLatch latch = new CountDownLatch(devices * count);
+
+        DatabaseHandler databaseHandler = mock(DatabaseHandler.class);
+        doAnswer(invocation -> {
+            Position position = invocation.getArgument(0);
+            BasePositionHandler.Callback callback = invocation.getArgument(1);
+            if (!inFlight.add(position.getDeviceId())) {
+                overlap.set(true);
+            }
+            executor.execute(() -> {
+                processed.computeIfAbsent(position.getDeviceId(), k -> new ArrayList<>()).add(position.getId());
+                inFlight.remove(position.getDeviceId());
+                latch.countDown();
+                callback.processed(false);
+            });
+            return null;
+        }).when(databaseHandler).handlePosition(any(), any());
+
+        ProcessingHandler handler = createHandler(databaseHandler);
+        ChannelHandlerContext context = createContext();
+
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (long deviceId = 1; deviceId <= devices; deviceId++) {
+            long id = deviceId;
+            producers.execute(() -> {
+                for (long index = 0; index < count; index++) {
+                    handler.onReleased(context, position(id, index));
+                }
+            });
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        producers.shutdown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertFalse(overlap.get());
+        assertEquals(devices, processed.size());
+        for (List<Long> ids : processed.values()) {
+            assertEquals(count, ids.size());
+            for (int index = 0; index < count; index++) {
+                assertEquals(index, ids.get(index));
+            }
+        }
+        assertEquals(0, gauge("processing.devices"));
+        assertEquals(0, gauge("processing.backlog"));
+    }
+
+}
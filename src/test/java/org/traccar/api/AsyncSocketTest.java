@@ -0,0 +1,63 @@
+package org.traccar.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.Timer;
+import org.eclipse.jetty.websocket.api.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.model.Position;
+import org.traccar.session.ConnectionManager;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncSocketTest {
+
+    private ConnectionManager.Update<Position> update(ObjectMapper objectMapper, long id, long time) {
+        Position position = new Position();
+        position.setId(id);
+        position.setDeviceId(1);
+        position.setFixTime(new Date(time));
+        return new ConnectionManager.Update<>(objectMapper, position);
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Storage storage = mock(Storage.class);
+        AsyncSocket socket = new AsyncSocket(
+                objectMapper, mock(ConnectionManager.class), mock(CacheManager.class), storage,
+                mock(Timer.class), 0, 1);
+
+        Session session = mock(Session.class);
+        when(session.isOpen()).thenReturn(true);
+        socket.onWebSocketOpen(session);
+
+        ArgumentCaptor<String> text = ArgumentCaptor.captor();
+        ArgumentCaptor<Callback> callback = ArgumentCaptor.captor();
+        verify(session).sendText(text.capture(), callback.capture());
+
+        socket.onUpdatePosition(update(objectMapper, 1, 1000));
+        socket.onUpdatePosition(update(objectMapper, 3, 3000));
+        socket.onUpdatePosition(update(objectMapper, 2, 2000));
+        socket.onKeepalive();
+        verify(session, times(1)).sendText(any(), any());
+
+        callback.getValue().succeed();
+        verify(session, times(2)).sendText(text.capture(), callback.capture());
+
+        var positions = objectMapper.readTree(text.getValue()).get("positions");
+        assertEquals(1, positions.size());
+        assertEquals(3, positions.get(0).get("id").asLong());
+    }
+
+}
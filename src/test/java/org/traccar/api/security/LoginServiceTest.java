@@ -0,0 +1,60 @@
+package org.traccar.api.security;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.api.signature.TokenManager;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.RevokedToken;
+import org.traccar.model.User;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LoginServiceTest {
+
+    @Test
+    public void testTokenCache() throws Exception {
+        Config config = mock(Config.class);
+        when(config.getLong(Keys.WEB_AUTH_CACHE_TIMEOUT)).thenReturn(60L);
+        when(config.getInteger(Keys.WEB_AUTH_CACHE_SIZE)).thenReturn(100);
+
+        TokenManager.TokenData tokenData = mock(TokenManager.TokenData.class);
+        when(tokenData.getId()).thenReturn(5L);
+        when(tokenData.getUserId()).thenReturn(1L);
+        when(tokenData.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60000));
+        TokenManager tokenManager = mock(TokenManager.class);
+        when(tokenManager.verifyToken("token")).thenReturn(tokenData);
+
+        User user = new User();
+        user.setId(1);
+        Storage storage = mock(Storage.class);
+        when(storage.getObject(eq(User.class), any())).thenReturn(user);
+
+        LoginService loginService = new LoginService(
+                config, storage, tokenManager, null, mock(CacheManager.class), new MetricsManager());
+
+        assertEquals(1, loginService.login("Bearer", "token").getUser().getId());
+        assertEquals(1, loginService.login("Bearer", "token").getUser().getId());
+        verify(tokenManager, times(1)).verifyToken("token");
+
+        loginService.invalidateObject(false, RevokedToken.class, 5, ObjectOperation.ADD);
+        loginService.login("Bearer", "token");
+        verify(tokenManager, times(2)).verifyToken("token");
+
+        loginService.invalidateObject(false, User.class, 1, ObjectOperation.UPDATE);
+        loginService.login("Bearer", "token");
+        verify(tokenManager, times(3)).verifyToken("token");
+    }
+
+}
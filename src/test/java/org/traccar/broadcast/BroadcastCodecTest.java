@@ -0,0 +1,105 @@
+package org.traccar.broadcast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Position;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BroadcastCodecTest {
+
+    @Test
+    public void testEncodeDecode() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BroadcastCodec sender = new BroadcastCodec(objectMapper, UUID.randomUUID());
+        BroadcastCodec receiver = new BroadcastCodec(objectMapper, UUID.randomUUID());
+
+        List<BroadcastMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Position position = new Position("test");
+            position.setDeviceId(i % 10);
+            position.setLatitude(i % 90);
+            BroadcastMessage message = new BroadcastMessage();
+            message.setPosition(position);
+            messages.add(message);
+        }
+        BroadcastMessage command = new BroadcastMessage();
+        command.setCommandDeviceId(5L);
+        messages.add(command);
+
+        List<byte[]> frames = sender.encode(messages, 20000);
+        assertTrue(frames.size() > 1);
+        assertTrue(frames.stream().mapToInt(frame -> frame.length).sum()
+                < objectMapper.writeValueAsBytes(messages).length / 4);
+
+        List<BroadcastMessage> received = new ArrayList<>();
+        int skipped = 0;
+        for (byte[] frame : frames) {
+            skipped += receiver.decode(
+                    frame, 0, frame.length, (type, key) -> type != BroadcastCodec.TYPE_DEVICE || key == 3,
+                    received::add);
+            assertEquals(0, sender.decode(frame, 0, frame.length, (type, key) -> true, received::add));
+        }
+        assertEquals(180, skipped);
+        assertEquals(21, received.size());
+        assertEquals(3, received.get(0).getPosition().getDeviceId());
+        assertEquals(5L, received.get(20).getCommandDeviceId());
+    }
+
+    @Test
+    public void testLegacy() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BroadcastCodec sender = new BroadcastCodec(objectMapper, UUID.randomUUID());
+        BroadcastCodec receiver = new BroadcastCodec(objectMapper, UUID.randomUUID());
+
+        Position position = new Position("test");
+        position.setDeviceId(3);
+        BroadcastMessage message = new BroadcastMessage();
+        message.setPosition(position);
+
+        List<BroadcastMessage> received = new ArrayList<>();
+        for (boolean senderPrefix : new boolean[] {false, true}) {
+            byte[] data = sender.encodeLegacy(message, senderPrefix);
+            assertEquals(0, receiver.decode(data, 0, data.length, (type, key) -> key == 3, received::add));
+            assertEquals(1, receiver.decode(data, 0, data.length, (type, key) -> key == 4, received::add));
+        }
+        byte[] own = sender.encodeLegacy(message, true);
+        assertEquals(0, sender.decode(own, 0, own.length, (type, key) -> true, received::add));
+
+        assertEquals(2, received.size());
+        assertEquals(3, received.get(1).getPosition().getDeviceId());
+    }
+
+    @Test
+    public void testInvalidLength() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BroadcastCodec sender = new BroadcastCodec(objectMapper, UUID.randomUUID());
+        BroadcastCodec receiver = new BroadcastCodec(objectMapper, UUID.randomUUID());
+
+        List<BroadcastMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            BroadcastMessage message = new BroadcastMessage();
+            message.setCommandDeviceId((long) i);
+            messages.add(message);
+        }
+
+        byte[] deflated = sender.encode(messages, 100000).get(0);
+        ByteBuffer.wrap(deflated).putInt(22, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> receiver.decode(
+                deflated, 0, deflated.length, (type, key) -> true, message -> { }));
+
+        byte[] plain = sender.encode(messages.subList(0, 1), 100000).get(0);
+        ByteBuffer.wrap(plain).putInt(22, plain.length);
+        assertThrows(IOException.class, () -> receiver.decode(
+                plain, 0, plain.length, (type, key) -> true, message -> { }));
+    }
+
+}
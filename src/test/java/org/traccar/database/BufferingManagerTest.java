@@ -0,0 +1,74 @@
+package org.traccar.database;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BufferingManagerTest {
+
+    private Position position(long deviceId, long time) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        position.setTime(new Date(time));
+        position.setServerTime(new Date());
+        return position;
+    }
+
+    @Test
+    public void testArchiveBurst() throws InterruptedException {
+        Config config = mock(Config.class);
+        when(config.getLong(Keys.SERVER_BUFFERING_THRESHOLD)).thenReturn(100L);
+        ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+        when(context.executor()).thenReturn(ImmediateEventExecutor.INSTANCE);
+
+        int devices = 10;
+        int count = 1000;
+        CountDownLatch latch = new CountDownLatch(devices * count);
+        Map<Long, List<Long>> released = new ConcurrentHashMap<>();
+        BufferingManager bufferingManager = new BufferingManager(config, (ctx, position) -> {
+            released.computeIfAbsent(position.getDeviceId(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(position.getFixTime().getTime());
+            latch.countDown();
+        });
+
+        Random random = new Random(42);
+        for (long deviceId = 1; deviceId <= devices; deviceId++) {
+            List<Long> times = new ArrayList<>();
+            for (long time = 0; time < count; time++) {
+                times.add(time * 1000);
+            }
+            Collections.shuffle(times, random);
+            for (long time : times) {
+                bufferingManager.accept(context, position(deviceId, time));
+            }
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(devices, released.size());
+        for (List<Long> times : released.values()) {
+            assertEquals(count, times.size());
+            for (int i = 1; i < times.size(); i++) {
+                assertTrue(times.get(i - 1) < times.get(i));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.Group;
+import org.traccar.model.ObjectOperation;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeviceInactivityManagerTest {
+
+    private static final long MINUTE = 60 * 1000;
+
+    private Device device(long id, long groupId, long lastUpdate) {
+        Device device = new Device();
+        device.setId(id);
+        device.setGroupId(groupId);
+        device.setLastUpdate(new Date(lastUpdate));
+        return device;
+    }
+
+    @Test
+    public void testInactivity() throws Exception {
+        long start = 1_700_000_000_000L;
+
+        Group group = new Group();
+        group.setId(1);
+        group.set(DeviceInactivityManager.ATTRIBUTE_DEVICE_INACTIVITY_START, 10 * MINUTE);
+        Group subgroup = new Group();
+        subgroup.setId(2);
+        subgroup.setGroupId(1);
+
+        Device grouped = device(1, 1, start);
+        Device periodic = device(2, 0, start);
+        periodic.set(DeviceInactivityManager.ATTRIBUTE_DEVICE_INACTIVITY_START, 5 * MINUTE);
+        periodic.set(DeviceInactivityManager.ATTRIBUTE_DEVICE_INACTIVITY_PERIOD, 5 * MINUTE);
+        Device inactive = device(3, 0, start);
+        Device nested = device(5, 2, start + 6 * MINUTE);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getObjects(eq(Group.class), any())).thenReturn(List.of(group, subgroup));
+        when(storage.getObjectsStream(eq(Device.class), any()))
+                .thenReturn(Stream.of(grouped, periodic, inactive, nested));
+
+        DeviceInactivityManager manager = new DeviceInactivityManager(
+                storage, mock(CacheManager.class), new MetricsManager());
+        manager.start(start);
+        assertTrue(manager.isStarted());
+        assertTrue(manager.hasDevice(1));
+        assertTrue(manager.hasDevice(2));
+        assertFalse(manager.hasDevice(3));
+        assertFalse(manager.hasDevice(4));
+        assertTrue(manager.hasDevice(5));
+
+        var events = manager.advance(start + 5 * MINUTE);
+        assertEquals(1, events.size());
+        Event event = events.keySet().iterator().next();
+        assertEquals(Event.TYPE_DEVICE_INACTIVE, event.getType());
+        assertEquals(2, event.getDeviceId());
+        assertEquals(start, event.getLong(DeviceInactivityManager.ATTRIBUTE_LAST_UPDATE));
+
+        manager.updateDevice(device(1, 1, start + 6 * MINUTE));
+        manager.updateDevice(device(4, 1, start + 6 * MINUTE));
+
+        events = manager.advance(start + 10 * MINUTE);
+        assertEquals(1, events.size());
+        assertEquals(2, events.keySet().iterator().next().getDeviceId());
+        assertFalse(manager.hasDevice(4));
+
+        Group updated = new Group();
+        updated.setId(1);
+        updated.set(DeviceInactivityManager.ATTRIBUTE_DEVICE_INACTIVITY_START, 5 * MINUTE);
+        when(storage.getObject(eq(Group.class), any())).thenReturn(updated);
+        manager.invalidateObject(true, Group.class, 1, ObjectOperation.UPDATE);
+
+        events = manager.advance(start + 11 * MINUTE);
+        assertEquals(2, events.size());
+        assertEquals(Set.of(1L, 5L), events.keySet().stream().map(Event::getDeviceId).collect(Collectors.toSet()));
+
+        manager.invalidateObject(true, Device.class, 2, ObjectOperation.DELETE);
+        assertFalse(manager.hasDevice(2));
+        assertTrue(manager.advance(start + 60 * MINUTE).isEmpty());
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.traccar.database;
+
+import io.netty.util.Timer;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.model.ObjectOperation;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeviceLookupServiceTest {
+
+    private Device device(long id, String uniqueId) {
+        Device device = new Device();
+        device.setId(id);
+        device.setUniqueId(uniqueId);
+        return device;
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.DATABASE_DEVICE_INDEX)).thenReturn(true);
+        Storage storage = mock(Storage.class);
+        when(storage.getObjectsStream(eq(Device.class), any())).thenReturn(Stream.of(device(1, "123")));
+        CacheManager cacheManager = mock(CacheManager.class);
+        Device cached = device(1, "123");
+        when(cacheManager.getObject(Device.class, 1)).thenReturn(cached);
+
+        DeviceLookupService lookupService = new DeviceLookupService(
+                config, storage, mock(Timer.class), cacheManager, new MetricsManager());
+
+        assertSame(cached, lookupService.lookup(new String[] {"456", "123"}));
+        assertNull(lookupService.lookup(new String[] {"789"}));
+        verify(storage, never()).getObject(eq(Device.class), any());
+
+        when(storage.getObject(eq(Device.class), any())).thenReturn(device(1, "789"));
+        lookupService.invalidateObject(false, Device.class, 1, ObjectOperation.UPDATE);
+        assertNull(lookupService.lookup(new String[] {"123"}));
+        assertSame(cached, lookupService.lookup(new String[] {"789"}));
+
+        lookupService.invalidateObject(false, Device.class, 1, ObjectOperation.DELETE);
+        assertNull(lookupService.lookup(new String[] {"789"}));
+    }
+
+}
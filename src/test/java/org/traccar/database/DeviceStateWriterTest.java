@@ -0,0 +1,57 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.storage.Storage;
+import org.traccar.storage.query.Columns;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeviceStateWriterTest {
+
+    @Test
+    public void testCoalesce() throws Exception {
+        Config config = mock(Config.class);
+        when(config.getLong(Keys.DATABASE_DEVICE_UPDATE_INTERVAL)).thenReturn(60000L);
+        Storage storage = mock(Storage.class);
+        MetricsManager metricsManager = new MetricsManager();
+
+        DeviceStateWriter writer = new DeviceStateWriter(config, storage, metricsManager);
+        writer.start();
+
+        Device device = new Device();
+        device.setId(1);
+        for (long positionId = 1; positionId <= 10; positionId++) {
+            device.setPositionId(positionId);
+            writer.update(device, "positionId");
+        }
+        device.setStatus(Device.STATUS_ONLINE);
+        writer.update(device, "status");
+        device.setPositionId(20);
+
+        verify(storage, never()).updateObjects(any(), any());
+        writer.stop();
+
+        ArgumentCaptor<List<Device>> captor = ArgumentCaptor.captor();
+        ArgumentCaptor<Columns> columnsCaptor = ArgumentCaptor.captor();
+        verify(storage).updateObjects(captor.capture(), columnsCaptor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(10, captor.getValue().get(0).getPositionId());
+        assertEquals(Device.STATUS_ONLINE, captor.getValue().get(0).getStatus());
+        assertEquals(List.of("positionId", "status"), columnsCaptor.getValue().getColumns(Device.class, "get"));
+
+        assertEquals(11, metricsManager.counter("device.state.updates").sum());
+        assertEquals(1, metricsManager.counter("device.state.writes").sum());
+    }
+
+}
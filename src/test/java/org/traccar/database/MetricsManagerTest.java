@@ -0,0 +1,26 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MetricsManagerTest {
+
+    @Test
+    public void testHistogram() {
+        MetricsManager metricsManager = new MetricsManager();
+        var histogram = metricsManager.histogram("test", 10, 100);
+        assertSame(histogram, metricsManager.histogram("test"));
+
+        histogram.record(0);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(1000);
+
+        assertArrayEquals(new long[] {2, 1, 1}, histogram.getCounts());
+        assertEquals(1021, histogram.getSum());
+    }
+
+}
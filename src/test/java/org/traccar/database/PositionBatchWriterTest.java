@@ -0,0 +1,100 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PositionBatchWriterTest {
+
+    private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private PositionBatchWriter createWriter(int batchSize, long delay) throws Exception {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.DATABASE_BATCH_SIZE)).thenReturn(batchSize);
+        when(config.getLong(Keys.DATABASE_BATCH_DELAY)).thenReturn(delay);
+        when(config.getInteger(Keys.DATABASE_BATCH_QUEUE_SIZE)).thenReturn(100);
+        Storage storage = mock(Storage.class);
+        when(storage.addObjects(any(), any())).thenAnswer(invocation -> {
+            List<Position> positions = invocation.getArgument(0);
+            batches.add(positions.size());
+            return positions.stream().map(position -> position.getDeviceId() + 1000).toList();
+        });
+        return new PositionBatchWriter(config, storage, new MetricsManager());
+    }
+
+    private Position position(long deviceId) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        return position;
+    }
+
+    @Test
+    public void testFlushOnSize() throws Exception {
+        PositionBatchWriter writer = createWriter(3, 60000);
+        writer.start();
+
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(3);
+        for (long deviceId = 1; deviceId <= 3; deviceId++) {
+            Position position = position(deviceId);
+            writer.write(position, () -> {
+                ids.add(position.getId() - position.getDeviceId());
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(3), batches);
+        assertEquals(List.of(1000L, 1000L, 1000L), ids);
+        writer.stop();
+    }
+
+    @Test
+    public void testFlushOnTime() throws Exception {
+        PositionBatchWriter writer = createWriter(100, 100);
+        writer.start();
+
+        CountDownLatch latch = new CountDownLatch(2);
+        Position first = position(1);
+        Position second = position(2);
+        writer.write(first, latch::countDown);
+        writer.write(second, latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2), batches);
+        assertEquals(1001, first.getId());
+        assertEquals(1002, second.getId());
+        writer.stop();
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        PositionBatchWriter writer = createWriter(100, 60000);
+        writer.start();
+
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        for (long deviceId = 1; deviceId <= 5; deviceId++) {
+            Position position = position(deviceId);
+            writer.write(position, () -> ids.add(position.getId()));
+        }
+        writer.stop();
+
+        assertEquals(List.of(1001L, 1002L, 1003L, 1004L, 1005L), ids);
+        assertEquals(5, batches.stream().mapToInt(Integer::intValue).sum());
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.model.Position;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ForwardSpoolTest {
+
+    public static class Item {
+        public long deviceId;
+        public int value;
+    }
+
+    private Item item(long deviceId, int value) {
+        Item item = new Item();
+        item.deviceId = deviceId;
+        item.value = value;
+        return item;
+    }
+
+    private Config config(Path directory) {
+        Config config = mock(Config.class);
+        when(config.getString(Keys.FORWARD_SPOOL_PATH)).thenReturn(directory.toString());
+        when(config.getInteger(Keys.FORWARD_SPOOL_SEGMENT_SIZE)).thenReturn(1024);
+        when(config.getInteger(Keys.FORWARD_SPOOL_BATCH_SIZE)).thenReturn(100);
+        when(config.getInteger(Keys.FORWARD_SPOOL_CONCURRENCY)).thenReturn(4);
+        when(config.getInteger(Keys.FORWARD_RETRY_DELAY)).thenReturn(1);
+        when(config.getLong(Keys.FORWARD_SPOOL_SYNC_INTERVAL)).thenReturn(100L);
+        return config;
+    }
+
+    @Test
+    public void testOrderAndRecovery(@TempDir Path directory) throws Exception {
+        int devices = 3;
+        int count = 100;
+
+        ForwardSpool<Item> failing = new ForwardSpool<>(
+                config(directory), new ObjectMapper(), new MetricsManager(), "test", Item.class,
+                item -> item.deviceId, (item, handler) -> handler.onResult(false, null));
+        for (int value = 0; value < count; value++) {
+            for (long deviceId = 1; deviceId <= devices; deviceId++) {
+                failing.append(item(deviceId, value));
+            }
+        }
+        assertEquals(devices * count, failing.getDepth());
+        assertTrue(failing.getSegmentCount() > 1);
+        failing.stop();
+
+        Map<Long, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(devices * count);
+        AtomicInteger attempts = new AtomicInteger();
+        ForwardSpool<Item> spool = new ForwardSpool<>(
+                config(directory), new ObjectMapper(), new MetricsManager(), "test", Item.class,
+                item -> item.deviceId, (item, handler) -> {
+                    if (attempts.incrementAndGet() % 3 == 0) {
+                        handler.onResult(false, null);
+                    } else {
+                        received.computeIfAbsent(item.deviceId, k -> Collections.synchronizedList(new ArrayList<>()))
+                                .add(item.value);
+                        latch.countDown();
+                        handler.onResult(true, null);
+                    }
+                });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (List<Integer> values : received.values()) {
+            assertEquals(count, values.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, values.get(i));
+            }
+        }
+        assertEquals(0, spool.getDepth());
+        spool.stop();
+    }
+
+    @Test
+    public void testPositionTypes(@TempDir Path directory) throws Exception {
+        Position position = new Position();
+        position.setDeviceId(1);
+        position.setOutdated(true);
+        position.setType("test");
+        position.set("long", 5L);
+        position.set("integer", 7);
+        position.set("double", 1.5);
+        position.set("string", "value");
+        position.set("boolean", true);
+        position.getAttributes().put("decimal", new BigDecimal("1.25"));
+
+        PositionData data = new PositionData();
+        data.setPosition(position);
+
+        AtomicReference<PositionData> received = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        ForwardSpool<PositionData> spool = new ForwardSpool<>(
+                config(directory), new ObjectMapper(), new MetricsManager(), "test", PositionData.class,
+                item -> item.getPosition().getDeviceId(), (item, handler) -> {
+                    received.set(item);
+                    latch.countDown();
+                    handler.onResult(true, null);
+                });
+        spool.append(data);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        spool.stop();
+
+        Position result = received.get().getPosition();
+        assertTrue(result.getOutdated());
+        assertEquals("test", result.getType());
+        assertEquals(position.getAttributes(), result.getAttributes());
+        for (var entry : position.getAttributes().entrySet()) {
+            assertEquals(entry.getValue().getClass(), result.getAttributes().get(entry.getKey()).getClass());
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.protobuf.forward.ForwardMessages;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PositionForwarderKafkaTest {
+
+    @Test
+    public void testProtobufDelivery() throws Exception {
+
+        Config config = new Config();
+        config.setString(Keys.FORWARD_KAFKA_FORMAT, "protobuf");
+
+        Position position = new Position();
+        position.setTime(Date.from(Instant.parse("2016-01-01T01:02:03Z")));
+        position.setValid(true);
+        position.setLatitude(20);
+        position.setLongitude(30);
+        position.set(Position.KEY_IGNITION, true);
+        position.set(Position.KEY_ODOMETER, 1000L);
+        position.getAttributes().put(Position.KEY_FUEL_LEVEL, new BigDecimal("12.75"));
+
+        Device device = new Device();
+        device.setId(1);
+        device.setUniqueId("123456789012345");
+
+        PositionData positionData = new PositionData();
+        positionData.setPosition(position);
+        positionData.setDevice(device);
+
+        var producer = new MockProducer<>(false, null, new StringSerializer(), new ByteArraySerializer());
+        var forwarder = new PositionForwarderKafka(config, new ObjectMapper(), producer);
+
+        List<Boolean> results = new ArrayList<>();
+        forwarder.forward(positionData, (success, throwable) -> results.add(success));
+        forwarder.forward(positionData, (success, throwable) -> results.add(success));
+        assertTrue(results.isEmpty());
+
+        producer.completeNext();
+        producer.errorNext(new RuntimeException());
+        assertEquals(List.of(true, false), results);
+
+        var message = ForwardMessages.PositionData.parseFrom(producer.history().get(0).value());
+        assertEquals("123456789012345", message.getDevice().getUniqueId());
+        assertEquals(position.getFixTime().getTime(), message.getPosition().getFixTime());
+        assertEquals(20, message.getPosition().getLatitude(), 0.00001);
+        assertTrue(message.getPosition().getAttributesOrThrow(Position.KEY_IGNITION).getBoolValue());
+        assertEquals(1000L, message.getPosition().getAttributesOrThrow(Position.KEY_ODOMETER).getLongValue());
+        assertEquals(12.75, message.getPosition().getAttributesOrThrow(Position.KEY_FUEL_LEVEL).getDoubleValue());
+        assertFalse(message.getPosition().getAttributesMap().containsKey(Position.KEY_FUEL));
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.traccar.geofence;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GeofenceIndexTest {
+
+    @Test
+    public void testEmpty() {
+        GeofenceIndex index = new GeofenceIndex(Map.of());
+        assertEquals(0, index.size());
+        assertTrue(index.find(10, 10).isEmpty());
+    }
+
+    @Test
+    public void testMatchesLinearScan() throws ParseException {
+        Random random = new Random(42);
+        Map<Long, GeofenceGeometry> geometries = new HashMap<>();
+        for (long id = 1; id <= 10000; id++) {
+            double lat = 40 + random.nextDouble() * 10;
+            double lon = 10 + random.nextDouble() * 10;
+            double size = 0.01 + random.nextDouble() * 0.2;
+            geometries.put(id, new GeofencePolygon(String.format(Locale.ROOT,
+                    "POLYGON ((%f %f, %f %f, %f %f, %f %f))",
+                    lat, lon, lat + size, lon, lat + size, lon + size, lat, lon + size)));
+        }
+        geometries.put(10001L, new GeofencePolygon("POLYGON ((44 -1, 46 -1, 46 30, 44 30))"));
+
+        GeofenceIndex index = new GeofenceIndex(geometries);
+        assertEquals(geometries.size(), index.size());
+
+        for (int i = 0; i < 1000; i++) {
+            double lat = 39 + random.nextDouble() * 12;
+            double lon = 9 + random.nextDouble() * 12;
+            List<Long> expected = new ArrayList<>();
+            for (var entry : geometries.entrySet()) {
+                if (entry.getValue().containsPoint(lat, lon)) {
+                    expected.add(entry.getKey());
+                }
+            }
+            assertEquals(new HashSet<>(expected), new HashSet<>(index.find(lat, lon)));
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package org.traccar.handler;
 import org.junit.jupiter.api.Test;
 import org.traccar.config.Config;
 import org.traccar.model.Attribute;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.Position;
 
 import java.util.Date;
@@ -47,6 +48,13 @@ public class ComputedAttributesTest {
         attribute.setExpression("speed > 5 && valid");
         assertEquals(false, handler.computeAttribute(attribute, position));
 
+        attribute.setExpression("speed > 5 && !valid");
+        assertEquals(true, handler.computeAttribute(attribute, position));
+
+        attribute.setExpression("speed = 10; speed + adc2");
+        assertEquals(110, handler.computeAttribute(attribute, position));
+        assertEquals(42.0, position.getSpeed());
+
         attribute.setExpression("fixTime");
         assertEquals(date, handler.computeAttribute(attribute, position));
 
@@ -68,4 +76,31 @@ public class ComputedAttributesTest {
 
     }
 
+    @Test
+    public void testCachedScripts() {
+
+        ComputedAttributesHandler handler = new ComputedAttributesHandler(new Config(), null, false);
+
+        Position position = new Position();
+        position.set("adc1", 128);
+
+        Attribute attribute = new Attribute();
+        attribute.setId(1);
+
+        attribute.setExpression("adc1 + 1");
+        assertEquals(129, handler.computeAttribute(attribute, position));
+        assertEquals(129, handler.computeAttribute(attribute, position));
+
+        attribute.setExpression("adc1 - 1");
+        assertEquals(127, handler.computeAttribute(attribute, position));
+
+        handler.invalidateObject(false, Attribute.class, attribute.getId(), ObjectOperation.UPDATE);
+        assertEquals(127, handler.computeAttribute(attribute, position));
+
+        attribute.setExpression("x = 1; x + adc1");
+        assertEquals(129, handler.computeAttribute(attribute, position));
+        assertEquals(128, position.getInteger("adc1"));
+
+    }
+
 }
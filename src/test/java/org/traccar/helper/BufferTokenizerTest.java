@@ -0,0 +1,99 @@
+package org.traccar.helper;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferTokenizerTest {
+
+    private static final String MESSAGE = "$GPRMC,123519,20250102123519,4807.038,-01131.000,022.4,084.4,,1a2F,";
+
+    private static final Pattern PATTERN = new PatternBuilder()
+            .text("$GPRMC,")
+            .number("(d+),")
+            .number("(d{14}),")
+            .number("(-?d+.d+),")
+            .number("(-?d+.d+),")
+            .number("(d+.d+),")
+            .number("(d+.d+),")
+            .number("(d+)?,")
+            .number("(x+),")
+            .compile();
+
+    private ByteBuf buffer(String text) {
+        return Unpooled.copiedBuffer(text, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testSameAsParser() {
+        Parser parser = new Parser(PATTERN, MESSAGE);
+        assertTrue(parser.matches());
+
+        ByteBuf buf = buffer(MESSAGE);
+        BufferTokenizer tokenizer = new BufferTokenizer(buf, ',');
+        assertEquals("$GPRMC", tokenizer.next());
+
+        assertEquals(parser.nextInt(), tokenizer.nextInt());
+        parser.next();
+        assertEquals(new DateBuilder().setDate(2025, 1, 2).setTime(12, 35, 19).getDate(), tokenizer.nextDateTime());
+        assertEquals(parser.nextDouble(), tokenizer.nextDouble());
+        assertEquals(parser.nextDouble(), tokenizer.nextDouble());
+        assertEquals(parser.nextDouble(), tokenizer.nextDouble());
+        assertEquals(parser.nextDouble(), tokenizer.nextDouble());
+        assertEquals(parser.hasNext(), tokenizer.hasNext());
+        assertEquals(parser.nextHexInt(), tokenizer.nextHexInt());
+
+        assertTrue(tokenizer.hasMore());
+        assertFalse(tokenizer.hasNext());
+        assertFalse(tokenizer.hasMore());
+        assertNull(tokenizer.next());
+        assertEquals(0, buf.readerIndex());
+    }
+
+    @Test
+    public void testNumbers() {
+        BufferTokenizer tokenizer = new BufferTokenizer(
+                buffer("-42|+7|9223372036854775807|0.1|-0.000001|123456789.123456789|1e3|ff|x"), '|');
+        assertEquals(-42, tokenizer.nextInt());
+        assertEquals(7, tokenizer.nextInt(0));
+        assertEquals(Long.MAX_VALUE, tokenizer.nextLong());
+        assertEquals(0.1, tokenizer.nextDouble());
+        assertEquals(-0.000001, tokenizer.nextDouble());
+        assertEquals(123456789.123456789, tokenizer.nextDouble());
+        assertEquals(1000.0, tokenizer.nextDouble());
+        assertEquals(255, tokenizer.nextHexInt());
+        assertThrows(NumberFormatException.class, tokenizer::nextInt);
+    }
+
+    @Test
+    public void testDefaults() {
+        BufferTokenizer tokenizer = new BufferTokenizer(buffer(",,,ok"), ',');
+        assertEquals(5, tokenizer.nextInt(5));
+        assertEquals(1.5, tokenizer.nextDouble(1.5));
+        tokenizer.skip();
+        assertTrue(tokenizer.nextEquals("ok"));
+        assertEquals("ok", tokenizer.next());
+    }
+
+    @Test
+    public void testDoubleRandom() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            String value = String.format(Locale.US, "%.6f", (random.nextDouble() - 0.5) * 360);
+            BufferTokenizer tokenizer = new BufferTokenizer(buffer(value), ',');
+            assertEquals(Double.parseDouble(value), tokenizer.nextDouble());
+        }
+    }
+
+}
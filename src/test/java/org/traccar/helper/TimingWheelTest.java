@@ -0,0 +1,59 @@
+package org.traccar.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testScheduleAndCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 0);
+        wheel.schedule("a", 5000);
+        wheel.schedule("b", 5000);
+        wheel.schedule("c", 10000);
+        wheel.cancel("b");
+        wheel.schedule("c", 3500);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(3999, (key, deadline) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+        wheel.advance(4000, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("c"), expired);
+        wheel.advance(5000, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("c", "a"), expired);
+        assertEquals(0, wheel.size());
+        assertFalse(wheel.contains("a"));
+    }
+
+    @Test
+    public void testRandomDeadlines() {
+        long start = 1_700_000_000_000L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, start);
+        Random random = new Random(1);
+        long[] deadlines = new long[10000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = start + (long) (random.nextDouble() * 30 * 24 * 3600 * 1000);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        int[] count = new int[1];
+        for (long time = start; time <= start + 31L * 24 * 3600 * 1000; time += 1800 * 1000) {
+            long currentTime = time;
+            wheel.advance(currentTime, (key, deadline) -> {
+                assertEquals(deadlines[key], deadline);
+                assertTrue(deadline <= currentTime);
+                assertTrue(deadline > currentTime - 1800 * 1000 - 1000);
+                count[0] += 1;
+            });
+        }
+        assertEquals(deadlines.length, count[0]);
+    }
+
+}
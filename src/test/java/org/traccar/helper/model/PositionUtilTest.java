@@ -0,0 +1,69 @@
+package org.traccar.helper.model;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PositionUtilTest {
+
+    private Device device(long id, long positionId) {
+        Device device = new Device();
+        device.setId(id);
+        device.setPositionId(positionId);
+        return device;
+    }
+
+    private Position position(long deviceId) {
+        Position position = new Position();
+        position.setId(deviceId * 10);
+        position.setDeviceId(deviceId);
+        return position;
+    }
+
+    @Test
+    public void testLatestPositionsFromCache() throws StorageException {
+        Storage storage = mock(Storage.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        List<Device> devices = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            devices.add(device(id, id * 10));
+            when(cacheManager.getPosition(id)).thenReturn(position(id));
+        }
+        devices.add(device(101, 0));
+        when(storage.getObjects(eq(Device.class), any())).thenReturn(devices);
+
+        assertEquals(100, PositionUtil.getLatestPositions(storage, cacheManager, 1).size());
+        verify(storage, never()).getObjectsStream(eq(Position.class), any());
+    }
+
+    @Test
+    public void testLatestPositionsFromStorage() throws StorageException {
+        Storage storage = mock(Storage.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        Position cached = position(1);
+        when(cacheManager.getPosition(1)).thenReturn(cached);
+        when(storage.getObjects(eq(Device.class), any())).thenReturn(List.of(device(1, 10), device(2, 20)));
+        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(Stream.of(position(1), position(2)));
+
+        var positions = PositionUtil.getLatestPositions(storage, cacheManager, 1);
+        assertEquals(2, positions.size());
+        assertEquals(cached, positions.get(0));
+        assertEquals(2, positions.get(1).getDeviceId());
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.traccar.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TrafficJournalTest {
+
+    private TrafficJournal journal(Path directory, int segments) {
+        Config config = mock(Config.class);
+        when(config.getString(Keys.LOGGER_JOURNAL_PATH)).thenReturn(directory.toString());
+        when(config.getInteger(Keys.LOGGER_JOURNAL_SEGMENT_SIZE)).thenReturn(1024);
+        when(config.getInteger(Keys.LOGGER_JOURNAL_SEGMENTS)).thenReturn(segments);
+        when(config.getInteger(Keys.LOGGER_JOURNAL_QUEUE_SIZE)).thenReturn(1000);
+        return new TrafficJournal(config, new MetricsManager());
+    }
+
+    private List<JournalRecord> read(Path directory) throws Exception {
+        List<JournalRecord> records = new ArrayList<>();
+        TrafficJournal.read(directory, records::add);
+        return records;
+    }
+
+    @Test
+    public void testWriteAndRead(@TempDir Path directory) throws Exception {
+        TrafficJournal journal = journal(directory, 100);
+        assertTrue(journal.isEnabled());
+        journal.start();
+        InetSocketAddress remoteAddress = new InetSocketAddress("10.0.0.1", 40000);
+        journal.write(new JournalRecord(1000, "gps103", false, false, 5001, remoteAddress, new byte[] {1, 2, 3}));
+        journal.write(new JournalRecord(2000, "osmand", true, true, 5055, null, new byte[0]));
+        journal.stop();
+
+        List<JournalRecord> records = read(directory);
+        assertEquals(2, records.size());
+
+        JournalRecord first = records.get(0);
+        assertEquals(1000, first.time());
+        assertEquals("gps103", first.protocol());
+        assertFalse(first.downstream());
+        assertFalse(first.datagram());
+        assertEquals(5001, first.localPort());
+        assertEquals(remoteAddress, first.remoteAddress());
+        assertArrayEquals(new byte[] {1, 2, 3}, first.data());
+
+        JournalRecord second = records.get(1);
+        assertTrue(second.downstream());
+        assertTrue(second.datagram());
+        assertNull(second.remoteAddress());
+        assertEquals(0, second.data().length);
+    }
+
+    @Test
+    public void testRotation(@TempDir Path directory) throws Exception {
+        TrafficJournal journal = journal(directory, 3);
+        journal.start();
+        for (int i = 0; i < 100; i++) {
+            journal.write(new JournalRecord(i, "test", false, false, 5000, null, new byte[100]));
+        }
+        journal.stop();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        List<JournalRecord> records = read(directory);
+        assertTrue(records.size() < 100);
+        assertEquals(99, records.get(records.size() - 1).time());
+        for (int i = 1; i < records.size(); i++) {
+            assertEquals(records.get(i - 1).time() + 1, records.get(i).time());
+        }
+    }
+
+}
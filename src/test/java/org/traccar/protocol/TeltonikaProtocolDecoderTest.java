@@ -7,6 +7,27 @@ import org.traccar.model.Position;
 
 public class TeltonikaProtocolDecoderTest extends ProtocolTest {
 
+    @Test
+    public void testDecodeModelParameters() throws Exception {
+
+        var decoder = inject(new TeltonikaProtocolDecoder(null, false));
+
+        String data = "00000000000000628e0100000193011f1ec8003fa9def2fc401ea4000d00000400000000000f000700ef0000f00000150500c8000045012a34492a3800000600b5001300b60011004230aa00430fb7004400002a30fb5d000200f10000c74200100000014900000000010000fbff";
+
+        verifyAttribute(decoder, binary(data), Position.PREFIX_IO + 10800, 64349L);
+
+        decoder.setModelOverride("FMB130");
+
+        verifyAttribute(decoder, binary(data), "eyeTemp1", -11.87);
+
+        decoder.setModelOverride("TAT100");
+
+        verifyAttribute(decoder, binary(data), Position.PREFIX_IO + 10800, 64349L);
+
+        verifyAttribute(decoder, binary(data), Position.KEY_IGNITION, false);
+
+    }
+
     @Test
     public void testDecode() throws Exception {
 
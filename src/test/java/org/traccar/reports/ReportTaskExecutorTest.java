@@ -0,0 +1,87 @@
+package org.traccar.reports;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.model.Device;
+import org.traccar.reports.common.ReportTaskExecutor;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReportTaskExecutorTest {
+
+    private ReportTaskExecutor createExecutor() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.REPORT_THREADS)).thenReturn(4);
+        when(config.getInteger(Keys.REPORT_REQUEST_THREADS)).thenReturn(3);
+        return new ReportTaskExecutor(config, new MetricsManager());
+    }
+
+    private List<Device> createDevices(int count) {
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Device device = new Device();
+            device.setId(i + 1);
+            devices.add(device);
+        }
+        return devices;
+    }
+
+    @Test
+    public void testOrder() throws StorageException {
+        Random random = new Random(42);
+        var result = createExecutor().execute(createDevices(100), device -> {
+            try {
+                Thread.sleep(random.nextInt(3));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return device.getId();
+        });
+        assertEquals(100, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i + 1, result.get(i));
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        assertThrows(StorageException.class, () -> createExecutor().execute(createDevices(10), device -> {
+            if (device.getId() == 5) {
+                throw new StorageException("failure");
+            }
+            return device.getId();
+        }));
+    }
+
+    @Test
+    public void testCancellation() {
+        ReportTaskExecutor executor = createExecutor();
+        AtomicInteger computed = new AtomicInteger();
+        try (var scope = executor.cancellable(() -> computed.get() >= 5)) {
+            assertThrows(CancellationException.class, () -> executor.execute(createDevices(1000), device -> {
+                computed.incrementAndGet();
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return device.getId();
+            }));
+        }
+        assertTrue(computed.get() < 1000);
+    }
+
+}
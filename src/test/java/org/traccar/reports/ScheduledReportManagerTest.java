@@ -0,0 +1,474 @@
+package org.traccar.reports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Injector;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+import org.traccar.api.signature.CryptoManager;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.MetricsManager;
+import org.traccar.helper.LogAction;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Permission;
+import org.traccar.model.Report;
+import org.traccar.model.ReportArtifact;
+import org.traccar.model.ReportArtifactChunk;
+import org.traccar.model.User;
+import org.traccar.reports.common.ReportMailer;
+import org.traccar.reports.common.ScheduledReportManager;
+import org.traccar.storage.MemoryStorage;
+import org.traccar.storage.Storage;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScheduledReportManagerTest {
+
+    private static final long REPORT_ID = 100;
+
+    private static class TestStorage extends MemoryStorage {
+
+        @Override
+        public synchronized <T> Stream<T> getObjectsStream(Class<T> clazz, Request request) {
+            return super.getObjectsStream(clazz, request)
+                    .map(object -> object instanceof ReportArtifact artifact ? clazz.cast(copy(artifact)) : object)
+                    .toList().stream();
+        }
+
+        private static ReportArtifact copy(ReportArtifact source) {
+            ReportArtifact artifact = new ReportArtifact();
+            artifact.setId(source.getId());
+            artifact.setReportId(source.getReportId());
+            artifact.setUserId(source.getUserId());
+            artifact.setType(source.getType());
+            artifact.setPeriodStart(source.getPeriodStart());
+            artifact.setPeriodEnd(source.getPeriodEnd());
+            artifact.setStatus(source.getStatus());
+            artifact.setAttempts(source.getAttempts());
+            artifact.setNotifyAttempts(source.getNotifyAttempts());
+            artifact.setStartTime(source.getStartTime());
+            artifact.setCreateTime(source.getCreateTime());
+            artifact.setCompleteTime(source.getCompleteTime());
+            artifact.setFileSize(source.getFileSize());
+            return artifact;
+        }
+
+        @Override
+        public synchronized <T> long addObject(T entity, Request request) {
+            long id = super.addObject(entity, request);
+            ((BaseModel) entity).setId(id);
+            return id;
+        }
+
+        @Override
+        public synchronized <T> void updateObject(T entity, Request request) {
+            super.updateObject(entity, request);
+        }
+
+        @Override
+        public synchronized <T> boolean compareAndUpdate(T entity, Request request) {
+            return super.compareAndUpdate(entity, request);
+        }
+
+        @Override
+        public synchronized void removeObject(Class<?> clazz, Request request) {
+            super.removeObject(clazz, request);
+        }
+
+    }
+
+    private final Storage storage = new TestStorage();
+    private final MetricsManager metricsManager = new MetricsManager();
+    private final RouteReportProvider routeReportProvider = mock(RouteReportProvider.class);
+    private final ReportMailer reportMailer = mock(ReportMailer.class);
+
+    private final Answer<Void> render = invocation -> {
+        long userId = invocation.getArgument(1);
+        invocation.<OutputStream>getArgument(0).write(("user" + userId).getBytes(StandardCharsets.US_ASCII));
+        return null;
+    };
+
+    private ScheduledReportManager createManager() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.REPORT_SCHEDULED_THREADS)).thenReturn(1);
+        when(config.getLong(Keys.REPORT_SCHEDULED_RETENTION)).thenReturn(30L);
+        when(config.getLong(Keys.REPORT_SCHEDULED_RETRY_DELAY)).thenReturn(0L);
+        when(config.getLong(Keys.REPORT_SCHEDULED_LEASE)).thenReturn(3600L);
+        Injector injector = mock(Injector.class);
+        when(injector.getInstance(RouteReportProvider.class)).thenReturn(routeReportProvider);
+        when(injector.getInstance(ReportMailer.class)).thenReturn(reportMailer);
+        return new ScheduledReportManager(
+                config, storage, new ObjectMapper(), new CryptoManager(storage), injector, mock(LogAction.class),
+                metricsManager);
+    }
+
+    private User addUser(long... deviceIds) throws Exception {
+        User user = new User();
+        storage.addObject(user, new Request(new Columns.Exclude("id")));
+        storage.addPermission(new Permission(User.class, user.getId(), Report.class, REPORT_ID));
+        for (long deviceId : deviceIds) {
+            storage.addPermission(new Permission(User.class, user.getId(), Device.class, deviceId));
+        }
+        return user;
+    }
+
+    private long addDevice() throws Exception {
+        Device device = new Device();
+        storage.addObject(device, new Request(new Columns.Exclude("id")));
+        storage.addPermission(new Permission(Device.class, device.getId(), Report.class, REPORT_ID));
+        return device.getId();
+    }
+
+    private Report createReport() {
+        Report report = new Report();
+        report.setId(REPORT_ID);
+        report.setType("route");
+        return report;
+    }
+
+    private List<ReportArtifact> getArtifacts() throws Exception {
+        return storage.getObjects(ReportArtifact.class, new Request(new Columns.All())).stream()
+                .sorted(Comparator.comparingLong(ReportArtifact::getId))
+                .toList();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private void awaitStatus(long artifactId, String status) throws InterruptedException {
+        await(() -> {
+            try {
+                return getArtifact(artifactId).getStatus().equals(status);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    public void testSharedArtifacts() throws Exception {
+        long first = addDevice();
+        long second = addDevice();
+        User full = addUser(first, second);
+        User same = addUser(first, second);
+        User partial = addUser(first);
+
+        doAnswer(render).when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        verify(reportMailer, timeout(5000).times(3)).send(any(), anyString());
+        await(() -> metricsManager.counter("report.scheduled.completed").sum() == 2);
+
+        List<ReportArtifact> artifacts = getArtifacts();
+        assertEquals(2, artifacts.size());
+        for (ReportArtifact artifact : artifacts) {
+            awaitStatus(artifact.getId(), ReportArtifact.STATUS_NOTIFIED);
+            artifact = getArtifact(artifact.getId());
+            assertEquals(1, artifact.getAttempts());
+            byte[] expected = ("user" + artifact.getUserId()).getBytes(StandardCharsets.US_ASCII);
+            assertArrayEquals(expected, readArtifact(manager, artifact));
+            assertEquals(expected.length, artifact.getFileSize());
+        }
+        assertEquals(full.getId(), artifacts.get(0).getUserId());
+        assertEquals(partial.getId(), artifacts.get(1).getUserId());
+
+        for (User user : List.of(full, same, partial)) {
+            ArgumentCaptor<String> url = ArgumentCaptor.forClass(String.class);
+            verify(reportMailer).send(eq(user), url.capture());
+            ReportArtifact artifact = followLink(manager, url.getValue(), user.getId());
+            assertEquals(user == partial ? partial.getId() : full.getId(), artifact.getUserId());
+        }
+    }
+
+    private ReportArtifact followLink(ScheduledReportManager manager, String url, long userId) throws Exception {
+        String prefix = "/api/reports/artifacts/";
+        assertTrue(url.startsWith(prefix));
+        String[] parts = url.substring(prefix.length()).split("\\?key=");
+        long artifactId = Long.parseLong(parts[0]);
+        String key = parts[1];
+
+        assertEquals(userId, manager.verifyKey(artifactId, key));
+        assertThrows(SecurityException.class, () -> manager.verifyKey(artifactId + 1, key));
+
+        ReportArtifact artifact = storage.getObject(ReportArtifact.class, new Request(
+                new Columns.All(), new Condition.Equals("id", artifactId)));
+        byte[] expected = ("user" + artifact.getUserId()).getBytes(StandardCharsets.US_ASCII);
+        assertArrayEquals(expected, readArtifact(manager, artifact));
+        return artifact;
+    }
+
+    private byte[] readArtifact(ScheduledReportManager manager, ReportArtifact artifact) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        manager.writeArtifact(artifact, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void testLargeFile() throws Exception {
+        long device = addDevice();
+        addUser(device);
+
+        byte[] data = new byte[5 * 512 * 1024];
+        new Random(1).nextBytes(data);
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(data, 0, 1000);
+            outputStream.write(data[1000]);
+            outputStream.write(data, 1001, data.length - 1001);
+            return null;
+        }).when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        verify(reportMailer, timeout(5000)).send(any(), anyString());
+        ReportArtifact artifact = getArtifacts().get(0);
+        assertEquals(data.length, artifact.getFileSize());
+        assertEquals(3, storage.getObjects(ReportArtifactChunk.class, new Request(new Columns.All())).size());
+        assertArrayEquals(data, readArtifact(manager, artifact));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        long device = addDevice();
+        addUser(device);
+
+        doThrow(new RuntimeException("test")).doAnswer(render)
+                .when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        verify(reportMailer, timeout(5000)).send(any(), anyString());
+        ReportArtifact artifact = getArtifacts().get(0);
+        awaitStatus(artifact.getId(), ReportArtifact.STATUS_NOTIFIED);
+        assertEquals(2, getArtifact(artifact.getId()).getAttempts());
+        assertEquals(0, metricsManager.counter("report.scheduled.failed").sum());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        long device = addDevice();
+        addUser(device);
+
+        doThrow(new RuntimeException("test"))
+                .when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        await(() -> metricsManager.counter("report.scheduled.failed").sum() == 1);
+        ReportArtifact artifact = getArtifacts().get(0);
+        assertEquals(ReportArtifact.STATUS_FAILED, artifact.getStatus());
+        assertEquals(3, artifact.getAttempts());
+        verify(routeReportProvider, timeout(5000).times(3))
+                .getExcel(any(), eq(artifact.getUserId()), any(), any(), any(), any());
+        verify(reportMailer, never()).send(any(), anyString());
+    }
+
+    private ReportArtifact addArtifact(User user, String status, int attempts, Date startTime) throws Exception {
+        ReportArtifact artifact = new ReportArtifact();
+        artifact.setReportId(REPORT_ID);
+        artifact.setUserId(user.getId());
+        artifact.setType("route");
+        artifact.setPeriodStart(new Date(0));
+        artifact.setPeriodEnd(new Date(1000));
+        artifact.setStatus(status);
+        artifact.setAttempts(attempts);
+        artifact.setStartTime(startTime);
+        artifact.setCreateTime(new Date());
+        storage.addObject(artifact, new Request(new Columns.Exclude("id")));
+        return artifact;
+    }
+
+    private ReportArtifact getArtifact(long artifactId) throws Exception {
+        return storage.getObject(ReportArtifact.class, new Request(
+                new Columns.All(), new Condition.Equals("id", artifactId)));
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        long device = addDevice();
+        User user = addUser(device);
+
+        long now = System.currentTimeMillis();
+        ReportArtifact owned = addArtifact(user, ReportArtifact.STATUS_RUNNING, 1, new Date(now));
+        ReportArtifact expired = addArtifact(
+                user, ReportArtifact.STATUS_RUNNING, 1, new Date(now - TimeUnit.HOURS.toMillis(2)));
+        ReportArtifact pending = addArtifact(user, ReportArtifact.STATUS_PENDING, 0, null);
+
+        doAnswer(render).when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+
+        ScheduledReportManager manager = createManager();
+        manager.start();
+
+        awaitStatus(expired.getId(), ReportArtifact.STATUS_NOTIFIED);
+        awaitStatus(pending.getId(), ReportArtifact.STATUS_NOTIFIED);
+        assertEquals(2, metricsManager.counter("report.scheduled.completed").sum());
+        assertEquals(ReportArtifact.STATUS_RUNNING, getArtifact(owned.getId()).getStatus());
+        assertEquals(1, getArtifact(owned.getId()).getAttempts());
+        assertEquals(2, getArtifact(expired.getId()).getAttempts());
+        assertEquals(1, getArtifact(pending.getId()).getAttempts());
+    }
+
+    @Test
+    public void testResumeDelivery() throws Exception {
+        long device = addDevice();
+        User user = addUser(device);
+
+        ReportArtifact artifact = addArtifact(user, ReportArtifact.STATUS_COMPLETED, 1, new Date());
+
+        ScheduledReportManager manager = createManager();
+        manager.start();
+
+        awaitStatus(artifact.getId(), ReportArtifact.STATUS_NOTIFIED);
+        verify(reportMailer).send(eq(user), anyString());
+        verify(routeReportProvider, never()).getExcel(any(), anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testDeliveryRetry() throws Exception {
+        long device = addDevice();
+        User first = addUser(device);
+        User second = addUser(device);
+
+        doAnswer(render).when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+        doThrow(new MessagingException("test")).doNothing().when(reportMailer).send(eq(second), anyString());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        ReportArtifact artifact = getArtifacts().get(0);
+        awaitStatus(artifact.getId(), ReportArtifact.STATUS_NOTIFIED);
+        assertEquals(2, getArtifact(artifact.getId()).getNotifyAttempts());
+        verify(reportMailer).send(eq(first), anyString());
+        verify(reportMailer, times(2)).send(eq(second), anyString());
+    }
+
+    @Test
+    public void testDeliveryFailure() throws Exception {
+        long device = addDevice();
+        User user = addUser(device);
+
+        doAnswer(render).when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+        doThrow(new MessagingException("test")).when(reportMailer).send(eq(user), anyString());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        await(() -> metricsManager.counter("report.scheduled.failed").sum() == 1);
+        ReportArtifact artifact = getArtifacts().get(0);
+        assertEquals(ReportArtifact.STATUS_FAILED, artifact.getStatus());
+        assertEquals(3, artifact.getNotifyAttempts());
+        verify(reportMailer, times(3)).send(eq(user), anyString());
+        assertArrayEquals(("user" + user.getId()).getBytes(StandardCharsets.US_ASCII), readArtifact(manager, artifact));
+    }
+
+    @Test
+    public void testLostClaim() throws Exception {
+        long device = addDevice();
+        addUser(device);
+
+        doAnswer(invocation -> {
+            ReportArtifact artifact = getArtifacts().get(0);
+            artifact.setAttempts(artifact.getAttempts() + 1);
+            artifact.setStartTime(new Date());
+            storage.updateObject(artifact, new Request(
+                    new Columns.Include("attempts", "startTime"), new Condition.Equals("id", artifact.getId())));
+            return render.answer(invocation);
+        }).when(routeReportProvider).getExcel(any(), anyLong(), any(), any(), any(), any());
+
+        ScheduledReportManager manager = createManager();
+        manager.schedule(createReport(), new Date(0), new Date(1000));
+
+        verify(routeReportProvider, timeout(5000)).getExcel(any(), anyLong(), any(), any(), any(), any());
+        Thread.sleep(100);
+        ReportArtifact artifact = getArtifacts().get(0);
+        assertEquals(ReportArtifact.STATUS_RUNNING, artifact.getStatus());
+        assertEquals(2, artifact.getAttempts());
+        assertEquals(0, metricsManager.counter("report.scheduled.completed").sum());
+        verify(reportMailer, never()).send(any(), anyString());
+    }
+
+    @Test
+    public void testAccessible() throws Exception {
+        long first = addDevice();
+        long second = addDevice();
+        User full = addUser(first, second);
+        User same = addUser(second, first);
+        User partial = addUser(first);
+
+        ReportArtifact artifact = new ReportArtifact();
+        artifact.setReportId(REPORT_ID);
+        artifact.setUserId(full.getId());
+
+        ScheduledReportManager manager = createManager();
+        assertTrue(manager.isAccessible(full.getId(), artifact));
+        assertTrue(manager.isAccessible(same.getId(), artifact));
+        assertFalse(manager.isAccessible(partial.getId(), artifact));
+    }
+
+    @Test
+    public void testRemoveExpired() throws Exception {
+        ScheduledReportManager manager = createManager();
+        manager.start();
+
+        long now = System.currentTimeMillis();
+        for (long age : new long[] {40, 29, 0}) {
+            ReportArtifact artifact = new ReportArtifact();
+            artifact.setReportId(REPORT_ID);
+            artifact.setStatus(ReportArtifact.STATUS_NOTIFIED);
+            artifact.setCreateTime(new Date(now - TimeUnit.DAYS.toMillis(age)));
+            storage.addObject(artifact, new Request(new Columns.Exclude("id")));
+        }
+
+        manager.removeExpired();
+
+        List<ReportArtifact> artifacts = getArtifacts();
+        assertEquals(2, artifacts.size());
+        for (ReportArtifact artifact : artifacts) {
+            assertTrue(artifact.getCreateTime().getTime() > now - TimeUnit.DAYS.toMillis(30));
+        }
+    }
+
+}
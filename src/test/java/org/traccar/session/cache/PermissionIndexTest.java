@@ -0,0 +1,111 @@
+package org.traccar.session.cache;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Geofence;
+import org.traccar.model.Permission;
+import org.traccar.model.User;
+import org.traccar.storage.MemoryStorage;
+import org.traccar.storage.Storage;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PermissionIndexTest {
+
+    private static final int COUNT = 20;
+
+    private Set<String> format(List<Permission> permissions) {
+        return permissions.stream()
+                .map(permission -> permission.getOwnerId() + ":" + permission.getPropertyId())
+                .collect(Collectors.toSet());
+    }
+
+    private void verify(
+            Storage storage, PermissionIndex index,
+            Class<? extends BaseModel> ownerClass, Class<? extends BaseModel> propertyClass) throws Exception {
+        for (long id = 1; id <= COUNT; id++) {
+            assertEquals(
+                    format(storage.getPermissions(ownerClass, id, propertyClass, 0)),
+                    format(index.getPermissions(ownerClass, id, propertyClass, 0)));
+            assertEquals(
+                    format(storage.getPermissions(ownerClass, 0, propertyClass, id)),
+                    format(index.getPermissions(ownerClass, 0, propertyClass, id)));
+        }
+    }
+
+    private void link(
+            Storage storage, PermissionIndex index, Class<? extends BaseModel> ownerClass, long ownerId,
+            Class<? extends BaseModel> propertyClass, long propertyId, boolean link) throws Exception {
+        Permission permission = new Permission(ownerClass, ownerId, propertyClass, propertyId);
+        if (link) {
+            storage.addPermission(permission);
+        } else {
+            storage.removePermission(permission);
+        }
+        index.update(ownerClass, ownerId, propertyClass, propertyId, link);
+    }
+
+    @Test
+    public void testMatchesStorage() throws Exception {
+        Storage storage = new MemoryStorage();
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            storage.addPermission(new Permission(
+                    User.class, random.nextInt(COUNT) + 1, Device.class, random.nextInt(COUNT) + 1));
+            storage.addPermission(new Permission(
+                    Device.class, random.nextInt(COUNT) + 1, Geofence.class, random.nextInt(COUNT) + 1));
+        }
+
+        PermissionIndex index = new PermissionIndex();
+        index.load(storage, User.class, Device.class);
+        index.load(storage, Device.class, Geofence.class);
+        assertTrue(index.contains(User.class, Device.class));
+        assertFalse(index.contains(Device.class, User.class));
+
+        verify(storage, index, User.class, Device.class);
+        verify(storage, index, Device.class, Geofence.class);
+
+        for (int i = 0; i < 200; i++) {
+            link(storage, index, User.class, random.nextInt(COUNT) + 1,
+                    Device.class, random.nextInt(COUNT) + 1, random.nextBoolean());
+            link(storage, index, Device.class, random.nextInt(COUNT) + 1,
+                    Geofence.class, random.nextInt(COUNT) + 1, random.nextBoolean());
+        }
+
+        verify(storage, index, User.class, Device.class);
+        verify(storage, index, Device.class, Geofence.class);
+    }
+
+    @Test
+    public void testRemoveObject() throws Exception {
+        Storage storage = new MemoryStorage();
+        PermissionIndex index = new PermissionIndex();
+        index.load(storage, User.class, Device.class);
+        index.load(storage, Device.class, Geofence.class);
+
+        link(storage, index, User.class, 1, Device.class, 1, true);
+        link(storage, index, User.class, 2, Device.class, 1, true);
+        link(storage, index, User.class, 2, Device.class, 2, true);
+        link(storage, index, Device.class, 1, Geofence.class, 1, true);
+        link(storage, index, Device.class, 2, Geofence.class, 1, true);
+
+        storage.removePermission(new Permission(User.class, 1, Device.class, 1));
+        storage.removePermission(new Permission(User.class, 2, Device.class, 1));
+        storage.removePermission(new Permission(Device.class, 1, Geofence.class, 1));
+        index.removeObject(Device.class, 1);
+
+        verify(storage, index, User.class, Device.class);
+        verify(storage, index, Device.class, Geofence.class);
+        assertEquals(Set.of("2:2"), format(index.getPermissions(User.class, 2, Device.class, 0)));
+        assertEquals(Set.of("2:1"), format(index.getPermissions(Device.class, 0, Geofence.class, 1)));
+    }
+
+}
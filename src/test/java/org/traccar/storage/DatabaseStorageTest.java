@@ -0,0 +1,212 @@
+package org.traccar.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.database.MetricsManager;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.Permission;
+import org.traccar.model.Position;
+import org.traccar.model.User;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DatabaseStorageTest {
+
+    @StorageName("test_items")
+    public static class Item extends BaseModel {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+    }
+
+    private interface Operation {
+        void run(Storage storage, long value) throws StorageException;
+    }
+
+    private final List<String> queries = new ArrayList<>();
+
+    private Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        return item;
+    }
+
+    private DatabaseStorage createStorage(String name) throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute(
+                    "CREATE TABLE test_items (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(128))");
+        }
+        return new DatabaseStorage(mock(Config.class), dataSource, new ObjectMapper(), new MetricsManager());
+    }
+
+    @Test
+    public void testAddObjects() throws Exception {
+        DatabaseStorage storage = createStorage("addObjects");
+        storage.addObject(item("existing"), new Request(new Columns.Exclude("id")));
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(item("item" + i));
+        }
+        List<Long> ids = storage.addObjects(items, new Request(new Columns.Exclude("id")));
+        assertEquals(items.size(), ids.size());
+
+        for (Item stored : storage.getObjects(Item.class, new Request(new Columns.All()))) {
+            int index = ids.indexOf(stored.getId());
+            if (stored.getName().equals("existing")) {
+                assertEquals(-1, index);
+            } else {
+                assertTrue(index >= 0);
+                assertEquals(items.get(index).getName(), stored.getName());
+            }
+        }
+
+        assertEquals(List.of(), storage.addObjects(List.<Item>of(), new Request(new Columns.Exclude("id"))));
+    }
+
+    private DatabaseStorage createMockStorage(MetricsManager metricsManager) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(mock(ResultSetMetaData.class));
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(statement.getGeneratedKeys()).thenReturn(resultSet);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return statement;
+        });
+        when(connection.prepareStatement(anyString(), anyInt())).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return statement;
+        });
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return new DatabaseStorage(mock(Config.class), dataSource, new ObjectMapper(), metricsManager);
+    }
+
+    private Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("selectAll", (storage, value) -> storage.getObjects(
+                Device.class, new Request(new Columns.All())));
+        operations.put("selectColumns", (storage, value) -> storage.getObjects(
+                Device.class, new Request(new Columns.Include("id", "name"),
+                        new Condition.Equals("uniqueId", String.valueOf(value)))));
+        operations.put("compare", (storage, value) -> storage.getObjects(
+                Position.class, new Request(new Condition.Compare("fixTime", ">", new Date(value)))));
+        operations.put("between", (storage, value) -> storage.getObjects(
+                Position.class, new Request(new Columns.All(), new Condition.And(
+                        new Condition.Equals("deviceId", value),
+                        new Condition.Between("fixTime", new Date(value), new Date(value + 1))),
+                        new Order("fixTime"))));
+        operations.put("or", (storage, value) -> storage.getObjects(
+                Device.class, new Request(new Condition.Or(
+                        new Condition.Equals("id", value), new Condition.Equals("groupId", value)))));
+        operations.put("permission", (storage, value) -> storage.getObjects(
+                Device.class, new Request(new Condition.Permission(User.class, value, Device.class))));
+        operations.put("permissionNoGroups", (storage, value) -> storage.getObjects(
+                Device.class, new Request(new Condition.Permission(User.class, value, Device.class).excludeGroups())));
+        operations.put("permissionProperty", (storage, value) -> storage.getObjects(
+                User.class, new Request(new Condition.Permission(User.class, Device.class, value))));
+        operations.put("latestDevice", (storage, value) -> storage.getObjects(
+                Position.class, new Request(new Condition.LatestPositions(value))));
+        operations.put("latestPermission", (storage, value) -> storage.getObjects(
+                Position.class, new Request(new Condition.LatestPositions(
+                        new Condition.Permission(User.class, value, Device.class)))));
+        operations.put("latestAll", (storage, value) -> storage.getObjects(
+                Position.class, new Request(new Condition.LatestPositions())));
+        operations.put("orderLimit", (storage, value) -> storage.getObjects(
+                Position.class, new Request(new Columns.All(), new Condition.Equals("deviceId", value),
+                        new Order("fixTime", true, 1))));
+        operations.put("insert", (storage, value) -> {
+            Group group = new Group();
+            group.setName(String.valueOf(value));
+            storage.addObject(group, new Request(new Columns.Exclude("id")));
+        });
+        operations.put("update", (storage, value) -> {
+            Device device = new Device();
+            device.setStatus(String.valueOf(value));
+            storage.updateObject(device, new Request(
+                    new Columns.Include("status"), new Condition.Equals("id", value)));
+        });
+        operations.put("updateBatch", (storage, value) -> {
+            Device device = new Device();
+            device.setId(value);
+            storage.updateObjects(List.of(device), new Columns.Include("positionId"));
+        });
+        operations.put("delete", (storage, value) -> storage.removeObject(
+                Device.class, new Request(new Condition.Equals("id", value))));
+        operations.put("permissionsByOwner", (storage, value) -> storage.getPermissions(
+                User.class, value, Device.class, 0));
+        operations.put("permissionsByProperty", (storage, value) -> storage.getPermissions(
+                User.class, 0, Device.class, value));
+        operations.put("link", (storage, value) -> storage.addPermission(
+                new Permission(User.class, value, Device.class, value)));
+        operations.put("unlink", (storage, value) -> storage.removePermission(
+                new Permission(User.class, value, Device.class, value)));
+        return operations;
+    }
+
+    @Test
+    public void testQueryCache() throws Exception {
+        MetricsManager metricsManager = new MetricsManager();
+        DatabaseStorage storage = createMockStorage(metricsManager);
+        Map<String, Operation> operations = operations();
+        Set<String> distinct = new HashSet<>();
+
+        for (var entry : operations.entrySet()) {
+            queries.clear();
+            entry.getValue().run(storage, 1);
+            entry.getValue().run(storage, 2);
+            entry.getValue().run(createMockStorage(new MetricsManager()), 2);
+
+            assertEquals(3, queries.size(), entry.getKey());
+            assertEquals(queries.get(2), queries.get(0), entry.getKey());
+            assertEquals(queries.get(2), queries.get(1), entry.getKey());
+            assertTrue(distinct.add(queries.get(2)), entry.getKey());
+        }
+
+        assertEquals(operations.size(), metricsManager.counter("database.query.cache.miss").sum());
+        assertEquals(operations.size(), metricsManager.counter("database.query.cache.hit").sum());
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.traccar.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Position;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ModelMapperTest {
+
+    @Test
+    public void testRead() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(42L);
+        when(resultSet.getDouble(2)).thenReturn(10.5);
+        when(resultSet.getBoolean(3)).thenReturn(true);
+        when(resultSet.getTimestamp(4)).thenReturn(new Timestamp(1000));
+        when(resultSet.getString(5)).thenReturn("{\"ignition\":true}");
+
+        ModelMapper mapper = ModelMapper.get(Position.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Position position = (Position) mapper.newInstance();
+        mapper.getReader("DEVICEID").read(position, resultSet, 1, objectMapper);
+        mapper.getReader("latitude").read(position, resultSet, 2, objectMapper);
+        mapper.getReader("valid").read(position, resultSet, 3, objectMapper);
+        mapper.getReader("fixTime").read(position, resultSet, 4, objectMapper);
+        mapper.getReader("attributes").read(position, resultSet, 5, objectMapper);
+
+        assertEquals(42L, position.getDeviceId());
+        assertEquals(10.5, position.getLatitude());
+        assertTrue(position.getValid());
+        assertEquals(1000, position.getFixTime().getTime());
+        assertTrue(position.getBoolean(Position.KEY_IGNITION));
+        assertNull(mapper.getReader("unknown"));
+    }
+
+    @Test
+    public void testCached() {
+        assertNotNull(ModelMapper.get(Position.class).getWriter("deviceId"));
+        assertEquals(ModelMapper.get(Position.class), ModelMapper.get(Position.class));
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.traccar.web;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.database.MetricsManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsServletTest {
+
+    @Test
+    public void testFormat() {
+        MetricsManager metricsManager = new MetricsManager();
+        metricsManager.counter("auth.cache.hit").add(3);
+        metricsManager.counter("messages.received", "protocol", "osmand").add(2);
+        metricsManager.gauge("processing.backlog", () -> 5);
+        metricsManager.gauge("processing.lagging", "deviceId", () -> Map.of("1", 7L));
+        metricsManager.summary("device.state.lag").record(4);
+        var histogram = metricsManager.histogram("processing.handler.Test$Inner.micros", 10, 100);
+        histogram.record(5);
+        histogram.record(50);
+        histogram.record(500);
+
+        String result = MetricsServlet.format(metricsManager);
+
+        assertTrue(result.contains("# TYPE traccar_auth_cache_hit_total counter\ntraccar_auth_cache_hit_total 3\n"));
+        assertTrue(result.contains("traccar_messages_received_total{protocol=\"osmand\"} 2\n"));
+        assertTrue(result.contains("# TYPE traccar_processing_backlog gauge\ntraccar_processing_backlog 5\n"));
+        assertTrue(result.contains("traccar_processing_lagging{deviceId=\"1\"} 7\n"));
+        assertTrue(result.contains("traccar_device_state_lag_sum 4\ntraccar_device_state_lag_count 1\n"));
+        assertTrue(result.contains("traccar_processing_handler_Test_Inner_micros_bucket{le=\"10\"} 1\n"));
+        assertTrue(result.contains("traccar_processing_handler_Test_Inner_micros_bucket{le=\"100\"} 2\n"));
+        assertTrue(result.contains("traccar_processing_handler_Test_Inner_micros_bucket{le=\"+Inf\"} 3\n"));
+        assertTrue(result.contains("traccar_processing_handler_Test_Inner_micros_count 3\n"));
+    }
+
+}